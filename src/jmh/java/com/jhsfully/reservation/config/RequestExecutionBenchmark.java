@@ -0,0 +1,203 @@
+package com.jhsfully.reservation.config;
+
+import com.jhsfully.reservation.exception.RedisLockException;
+import com.jhsfully.reservation.lock.LocalLockProvider;
+import com.jhsfully.reservation.lock.LockAspect;
+import com.jhsfully.reservation.lock.LockKeyResolver;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.RedisLock;
+import com.jhsfully.reservation.lock.WaitStrategy;
+import com.jhsfully.reservation.util.VirtualThreadUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/*
+    같은 key의 예약 요청이 몰려 lock 대기(최대 2초)가 발생할 때, 다른 API 요청의 처리량을 비교하는 부하 테스트.
+    (Redis, DB 불필요)
+
+    실제 애플리케이션의 구성요소를 그대로 사용함.
+    - ExecutionConfiguration.requestExecutor 빈 (기본값 : 50개, 대기 200개)
+    - LockAspect + @RedisLock(waitTime 2초), lock은 LocalLockProvider로 잡음.
+    - 예약 요청은 컨트롤러와 같이 CompletableFuture.runAsync(task, requestExecutor)로 넘기며,
+      거절(RejectedExecutionException)되면 503으로 응답한 것으로 처리함.
+
+    - 측정 전에 다른 스레드가 lock을 잡고 놓지 않으므로, LOCKED_REQUESTS개의 예약 요청은 각각 2초 동안 기다린 후 실패함.
+    - 바로 뒤에 OTHER_REQUESTS개의 다른 요청(조회 등, 5ms)이 들어옴.
+    - 한 번의 측정은 다른 요청이 모두 끝날 때까지 걸린 시간이며, 처리량은 OTHER_REQUESTS / 측정시간 임.
+
+    mode (ExecutionConfiguration의 execution.mode)
+    - platform : Tomcat 워커 스레드(200개)에서 모든 요청을 처리함. (CompletableFuture 적용 전)
+    - async : execution.mode=platform의 requestExecutor에서 예약 요청을 처리함.
+    - virtual : execution.mode=virtual의 requestExecutor와, 가상 스레드의 Tomcat에서 처리함.
+
+    실행 : ./gradlew jmh -Pjmh.includes=RequestExecutionBenchmark
+    virtual은 JDK 21 이상에서 실행해야 하며, 그 외에는 실패함. (빌드는 JDK 11로 하고, 측정만 JDK 21에서 실행할 수 있음)
+        ./gradlew jmh -Pjmh.includes=RequestExecutionBenchmark -Pjmh.jvm=/usr/lib/jvm/jdk-21/bin/java
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final int TOMCAT_THREADS = 200; //server.tomcat.threads.max 기본값
+    private static final int REQUEST_EXECUTOR_THREADS = 50; //execution.request-executor.pool-size 기본값
+    private static final int REQUEST_EXECUTOR_QUEUE = 200; //execution.request-executor.queue-capacity 기본값
+
+    private static final int LOCKED_REQUESTS = 1000;
+    private static final int OTHER_REQUESTS = 2000;
+    private static final long WORK_MILLIS = 5L;
+
+    private static final Long MEMBER_ID = 3L;
+    private static final Long SHOP_ID = 1L;
+    private static final LocalDate RES_DAY = LocalDate.of(2023, 7, 16);
+
+    @Param({"platform", "async", "virtual"})
+    private String mode;
+
+    private ExecutorService tomcat;
+    private AsyncTaskExecutor requestExecutor;
+    private ReservationTarget target;
+    private Thread lockHolder;
+
+    //ReservationServiceImpl.addReservation과 같은 lock을 잡음. (waitTime 기본값 2초)
+    public static class ReservationTarget {
+        @RedisLock(group = "reservation", keys = {"memberId", "shopId", "resDay"}, waitStrategy = WaitStrategy.PUBSUB)
+        public void addReservation(Long memberId, Long shopId, LocalDate resDay){
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws InterruptedException {
+        if("virtual".equals(mode) && !VirtualThreadUtil.isSupported()){
+            throw new IllegalStateException("virtual은 JDK 21 이상에서 실행해야 합니다. (-Pjmh.jvm=<JDK 21의 java 경로>)");
+        }
+
+        switch (mode){
+            case "platform":
+                tomcat = Executors.newFixedThreadPool(TOMCAT_THREADS);
+                break;
+            case "async":
+                tomcat = Executors.newFixedThreadPool(TOMCAT_THREADS);
+                requestExecutor = new ExecutionConfiguration("platform")
+                        .requestExecutor(REQUEST_EXECUTOR_THREADS, REQUEST_EXECUTOR_QUEUE);
+                break;
+            case "virtual":
+                tomcat = VirtualThreadUtil.newThreadPerTaskExecutor("tomcat-");
+                requestExecutor = new ExecutionConfiguration("virtual")
+                        .requestExecutor(REQUEST_EXECUTOR_THREADS, REQUEST_EXECUTOR_QUEUE);
+                break;
+            default:
+                throw new IllegalArgumentException(mode);
+        }
+
+        LockProvider lockProvider = new LocalLockProvider();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ReservationTarget());
+        factory.addAspect(new LockAspect(new LockKeyResolver(new DefaultParameterNameDiscoverer()), lockProvider));
+        target = factory.getProxy();
+
+        //측정하는 동안 lock을 잡고 놓지 않는 요청
+        CountDownLatch locked = new CountDownLatch(1);
+        lockHolder = new Thread(() -> {
+            try{
+                LockProvider.LockHandle handle = lockProvider.tryLock(
+                        "lock:reservation-" + MEMBER_ID + "-" + SHOP_ID + "-" + RES_DAY, 0L, 0L, WaitStrategy.PUBSUB);
+                locked.countDown();
+                try{
+                    Thread.sleep(Long.MAX_VALUE);
+                }finally {
+                    handle.release();
+                }
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        });
+        lockHolder.start();
+        locked.await();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown(){
+        lockHolder.interrupt();
+        tomcat.shutdownNow();
+        if(requestExecutor instanceof ThreadPoolTaskExecutor){
+            ((ThreadPoolTaskExecutor) requestExecutor).shutdown();
+        }
+        requestExecutor = null;
+    }
+
+    //다른 요청이 모두 끝날 때까지 걸린 시간 (예약 요청이 Tomcat 스레드를 얼마나 막는지)
+    @Benchmark
+    public long otherRequests() throws InterruptedException {
+        CountDownLatch other = new CountDownLatch(OTHER_REQUESTS);
+
+        for(int i = 0; i < LOCKED_REQUESTS; i++){
+            tomcat.execute(this::handleLocked);
+        }
+        for(int i = 0; i < OTHER_REQUESTS; i++){
+            tomcat.execute(() -> {
+                sleep(WORK_MILLIS);
+                other.countDown();
+            });
+        }
+
+        other.await();
+        return OTHER_REQUESTS - other.getCount();
+    }
+
+    private void handleLocked(){
+        if(requestExecutor == null){
+            addReservation();
+            return;
+        }
+
+        //컨트롤러는 requestExecutor에 넘기고 바로 반환함.
+        try{
+            CompletableFuture.runAsync(this::addReservation, requestExecutor);
+        }catch (RejectedExecutionException e){
+            //503
+        }
+    }
+
+    //lock을 가진 요청이 끝나지 않아, waitTime 동안 기다린 후 REDIS_ALREADY_LOCKED로 실패함.
+    private void addReservation(){
+        try{
+            target.addReservation(MEMBER_ID, SHOP_ID, RES_DAY);
+        }catch (RedisLockException e){
+            //409
+        }
+    }
+
+    private static void sleep(long millis){
+        try{
+            Thread.sleep(millis);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
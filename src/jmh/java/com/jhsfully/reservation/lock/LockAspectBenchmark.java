@@ -0,0 +1,185 @@
+package com.jhsfully.reservation.lock;
+
+import com.jhsfully.reservation.admission.ReservationAdmission;
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.cache.PageCountCache;
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.cache.ShopScheduleCache;
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ReservationDto;
+import com.jhsfully.reservation.repository.MemberRepository;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.repository.ReviewRepository;
+import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.scheduler.ReservationDeadlineQueue;
+import com.jhsfully.reservation.service.ReservationService;
+import com.jhsfully.reservation.service.impl.ReservationServiceImpl;
+import com.jhsfully.reservation.type.Days;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.config.EmbeddedValueResolver;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.expression.StandardBeanExpressionResolver;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+    예약 신청(ReservationServiceImpl.addReservation)에 걸린 @RedisLock의 aspect 오버헤드를 측정함. (Redis, DB 불필요)
+
+    실제 서비스 객체와 실제 annotation을 그대로 사용하고, 저장소와 Redis만 메모리의 stub으로 대신함.
+    - direct : aspect 없이 서비스를 호출함. (기준값)
+    - locked : AspectJProxyFactory로 LockAspect를 적용하여 호출함. lock은 LocalLockProvider로 잡음.
+              condition, lockKey 생성, lock 취득/반납이 모두 포함되며, locked - direct가 aspect의 비용임.
+    - resolveKey : 실제 메소드의 @RedisLock으로 lockKey만 만듦. (ex. "lock:reservation-3-1-2023-07-16")
+
+    실행 : ./gradlew jmh -Pjmh.includes=LockAspectBenchmark
+    할당량은 -prof gc 옵션으로 확인할 수 있음.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockAspectBenchmark {
+
+    private static final Long MEMBER_ID = 3L;
+    private static final LocalDate DATE_NOW = LocalDate.of(2023, 7, 15);
+
+    private static final Shop SHOP = Shop.builder()
+            .id(1L)
+            .member(Member.builder().id(1L).build())
+            .resOpenWeek(2)
+            .resOpenCount(4)
+            .resOpenDays(List.of(Days.SAT, Days.SUN))
+            .resOpenTimes(List.of(LocalTime.of(9, 0), LocalTime.of(10, 0)))
+            .isDeleted(false)
+            .build();
+
+    private static final ReservationDto.AddReservationRequest REQUEST = new ReservationDto.AddReservationRequest(
+            SHOP.getId(), LocalDate.of(2023, 7, 16), LocalTime.of(9, 0), 2, "");
+
+    private ReservationService service;
+    private ReservationService lockedService;
+
+    private LockKeyResolver lockKeyResolver;
+    private Method addReservation;
+    private RedisLock redisLock;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        ReservationRepository reservationRepository = repository(ReservationRepository.class,
+                Map.of("save", x -> x[0]));
+        ShopRepository shopRepository = repository(ShopRepository.class,
+                Map.of("findById", x -> Optional.of(SHOP)));
+        MemberRepository memberRepository = repository(MemberRepository.class,
+                Map.of("findById", x -> Optional.of(Member.builder().id(MEMBER_ID).build())));
+
+        service = new ReservationServiceImpl(
+                reservationRepository,
+                repository(ReviewRepository.class, Map.of()),
+                shopRepository,
+                memberRepository,
+                new AdmittedReservationAdmission(),
+                new PageCountCache(10_000L),
+                new ShopScheduleCache(),
+                new ReservedCountCache(new NoOpRedisTemplate(), reservationRepository),
+                new ReservationDeadlineQueue(new NoOpRedisTemplate()),
+                new KioskReservationIndex(reservationRepository, new NoOpRedisTemplate()));
+
+        //실제 컨테이너와 같이, condition의 설정값(${...})과 SpEL(#{...})을 해석함. (reservation.admission 기본값 : database)
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.addEmbeddedValueResolver(new StandardEnvironment()::resolvePlaceholders);
+        beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver());
+
+        lockKeyResolver = new LockKeyResolver(new DefaultParameterNameDiscoverer());
+        LockAspect aspect = new LockAspect(lockKeyResolver, new LocalLockProvider());
+        aspect.setEmbeddedValueResolver(new EmbeddedValueResolver(beanFactory));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(service);
+        factory.addAspect(aspect);
+        lockedService = factory.getProxy();
+
+        addReservation = ReservationServiceImpl.class.getMethod("addReservation",
+                Long.class, ReservationDto.AddReservationRequest.class, LocalDate.class);
+        redisLock = addReservation.getAnnotation(RedisLock.class);
+        args = new Object[]{MEMBER_ID, REQUEST, DATE_NOW};
+
+        //condition, 추출기 캐싱(워밍업)
+        locked();
+    }
+
+    @Benchmark
+    public void direct(){
+        service.addReservation(MEMBER_ID, REQUEST, DATE_NOW);
+    }
+
+    @Benchmark
+    public void locked(){
+        lockedService.addReservation(MEMBER_ID, REQUEST, DATE_NOW);
+    }
+
+    @Benchmark
+    public String resolveKey(){
+        return lockKeyResolver.resolve(addReservation, redisLock, args);
+    }
+
+    //호출된 메소드 이름으로 결과를 돌려주는 저장소. (answers에 없는 메소드는 호출되지 않아야 함)
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers){
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, arguments) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if(answer == null){
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(arguments);
+        });
+    }
+
+    //자리 확보는 항상 성공함.
+    private static class AdmittedReservationAdmission implements ReservationAdmission {
+        @Override
+        public AdmissionResult admit(Shop shop, Member member, LocalDate resDay, LocalTime resTime, int count) {
+            return AdmissionResult.ADMITTED;
+        }
+
+        @Override
+        public void release(Long shopId, Long memberId, LocalDate resDay, LocalTime resTime, int count) {
+        }
+
+        @Override
+        public void adjustCapacity(Long shopId, int delta) {
+        }
+    }
+
+    //예약 인원 캐시의 반영(Lua 스크립트)을 수행하지 않는 RedisTemplate.
+    private static class NoOpRedisTemplate extends RedisTemplate<String, String> {
+        @Override
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.jhsfully.reservation.lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.jhsfully.reservation.lock.LockReleaseListener.LOCK_RELEASE_CHANNEL;
+
+/*
+    같은 lockKey를 두고 여러 스레드가 경쟁할 때, lock을 넘겨받기까지 걸리는 시간을 측정함.
+    SampleTime 모드이므로 결과에 p99(0.99) 값이 함께 출력됨.
+    hybrid는 같은 서버의 스레드들이 서버 내부에서 먼저 줄을 서므로, Redis 요청 수도 함께 비교할 수 있음.
+
+    실행 : ./gradlew jmh (localhost:6379에 Redis가 실행중이어야 함, -Dredis.host / -Dredis.port로 변경 가능)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(8)
+public class LockHandOffBenchmark {
+
+    private static final String LOCK_KEY = "lock:benchmark-hand-off";
+
+    @Param({"SPIN", "PUBSUB"})
+    private WaitStrategy waitStrategy;
+
+    @Param({"redis", "hybrid"})
+    private String provider;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer container;
+    private LockWatchdog lockWatchdog;
+    private LockProvider lockProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String host = System.getProperty("redis.host", "localhost");
+        int port = Integer.parseInt(System.getProperty("redis.port", "6379"));
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+
+        LockReleaseListener lockReleaseListener = new LockReleaseListener();
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(lockReleaseListener, new ChannelTopic(LOCK_RELEASE_CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.delete(LOCK_KEY);
+
+        lockWatchdog = new LockWatchdog(redisTemplate);
+        LockProvider redisLockProvider = new RedisLockProvider(redisTemplate, lockReleaseListener, lockWatchdog);
+        lockProvider = "hybrid".equals(provider) ?
+                new HybridLockProvider(new LocalLockProvider(), redisLockProvider) : redisLockProvider;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        lockWatchdog.shutdown();
+        container.stop();
+        container.destroy();
+        connectionFactory.destroy();
+    }
+
+    //lock을 잡은 동안에는 짧은 임계구역을 흉내내고, 바로 반납함.
+    //다른 스레드들이 항상 기다리고 있으므로, 측정값의 대부분은 lock을 넘겨받기까지 기다린 시간임.
+    @Benchmark
+    public void handOff() throws InterruptedException {
+        LockProvider.LockHandle lockHandle = lockProvider.tryLock(LOCK_KEY, 10_000L, 5_000L, waitStrategy);
+        if(lockHandle == null){
+            throw new IllegalStateException("lock을 취득하지 못했습니다.");
+        }
+        try{
+            Blackhole.consumeCPU(1_000);
+        }finally {
+            lockHandle.release();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.jhsfully.reservation.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.jhsfully.reservation.security.JwtAuthenticationFilter.ACCESS_TOKEN_HEADER;
+import static com.jhsfully.reservation.security.JwtAuthenticationFilter.TOKEN_PREFIX;
+
+/*
+    요청 한 건이 JwtAuthenticationFilter -> TokenProvider를 거치는 데 드는 시간과 할당량을 측정함. (Redis 불필요)
+    - authenticated : 실제로 발급한 AccessToken(HS512)들을 돌아가며 사용하는 인증 요청
+    - publicPath : 인증이 필요 없는 경로(/auth/signin)의 요청
+    - cacheSize : 인증 객체 캐시의 크기, 0이면 요청마다 서명 검증과 파싱을 수행함.
+
+    실행 : ./gradlew jmh -Pjmh.includes=JwtAuthenticationFilterBenchmark
+    할당량은 -prof gc 옵션으로 확인할 수 있음.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final int TOKEN_COUNT = 1024; //동시에 활동하는 회원 수
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"10000", "0"})
+    private int cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest[] authenticatedRequests;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp(){
+        TokenProvider tokenProvider = new TokenProvider(null, new AuthenticationCache(cacheSize));
+        ReflectionTestUtils.setField(tokenProvider, "secretKey",
+                "benchmark-secret-key-for-hs512-signature-which-should-be-at-least-64-bytes-long!!");
+        filter = new JwtAuthenticationFilter(tokenProvider);
+
+        //일반 회원, 파트너, 관리자가 섞인 토큰들
+        authenticatedRequests = new MockHttpServletRequest[TOKEN_COUNT];
+        for(int i = 0; i < TOKEN_COUNT; i++){
+            String token = tokenProvider.generateAccessToken((long) i + 1, i % 4 == 0, i % 64 == 0);
+
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservation/user");
+            request.addHeader(ACCESS_TOKEN_HEADER, TOKEN_PREFIX + token);
+            authenticatedRequests[i] = request;
+        }
+
+        publicRequest = new MockHttpServletRequest("POST", "/auth/signin");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticated() throws ServletException, IOException {
+        MockHttpServletRequest request = authenticatedRequests[next];
+        next = (next + 1) & (TOKEN_COUNT - 1);
+
+        filter.doFilter(request, response, CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public int publicPath() throws ServletException, IOException {
+        filter.doFilter(publicRequest, response, CHAIN);
+        return response.getStatus();
+    }
+}
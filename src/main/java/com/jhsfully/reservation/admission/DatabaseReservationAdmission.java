@@ -0,0 +1,63 @@
+package com.jhsfully.reservation.admission;
+
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.repository.ReservationSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/*
+    DB를 사용하는 예약 자리 확보.
+    회원의 같은 날 예약 여부를 조회한 후, 예약 시간대(reservation_slot)의 남은 인원을 조건부 UPDATE로 차감함.
+    차감은 호출한 쪽의 트랜잭션에 참여하므로, 예약 저장이 실패하면 함께 롤백됨.
+ */
+@RequiredArgsConstructor
+public class DatabaseReservationAdmission implements ReservationAdmission {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository reservationSlotRepository;
+
+    @Override
+    public AdmissionResult admit(Shop shop, Member member, LocalDate resDay, LocalTime resTime, int count) {
+
+        //같은 날에 이미 해당유저의 ASSIGN or READY 상태의 예약이 있으면 신청 못함
+        int alreadyReservedCountForMember = reservationRepository.getReservationCountWithShopAndDayForMember(shop, member, resDay);
+        if(alreadyReservedCountForMember > 0){
+            return AdmissionResult.GREEDY_USER;
+        }
+
+        /*
+            처음 예약되는 시간대라면, 기존 예약 데이터로부터 남은 인원을 계산하여 시간대를 먼저 생성함.
+            동시에 다른 요청이 먼저 생성한 경우에는, 이미 생성된 시간대에서 차감을 진행함.
+         */
+        if(!reservationSlotRepository.existsByShopIdAndResDayAndResTime(shop.getId(), resDay, resTime)){
+
+            int alreadyReservedCount = reservationRepository
+                    .getReservationCountWithShopAndTime(shop, resDay, resTime);
+
+            try{
+                reservationSlotRepository.createSlot(shop.getId(), resDay, resTime, alreadyReservedCount);
+            }catch (DataIntegrityViolationException e){
+                //다른 요청이 먼저 시간대를 생성하였으므로, 그대로 차감을 진행함.
+            }
+        }
+
+        //남은 인원이 부족하면 차감되지 않음.
+        return reservationSlotRepository.claimSeats(shop.getId(), resDay, resTime, count) > 0 ?
+                AdmissionResult.ADMITTED : AdmissionResult.OVERFLOW;
+    }
+
+    @Override
+    public void release(Long shopId, Long memberId, LocalDate resDay, LocalTime resTime, int count) {
+        reservationSlotRepository.releaseSeats(shopId, resDay, resTime, count);
+    }
+
+    @Override
+    public void adjustCapacity(Long shopId, int delta) {
+        reservationSlotRepository.adjustRemaining(shopId, delta);
+    }
+}
@@ -0,0 +1,204 @@
+package com.jhsfully.reservation.admission;
+
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.util.RedisKeyUtil;
+import com.jhsfully.reservation.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+    Redis를 사용하는 예약 자리 확보.
+
+    매장의 예약일마다 두 개의 key를 사용함. (같은 hash tag를 사용하므로, cluster에서도 같은 노드에 위치함)
+    - admission:{shopId:예약일}:seats   (Hash) field : 예약시간, value : 남은 인원
+    - admission:{shopId:예약일}:members (Set)  해당 날짜에 예약을 가진 회원의 id
+
+    하나의 Lua 스크립트에서 회원의 중복 예약 확인, 남은 인원 확인, 차감, 회원 등록을 수행하므로,
+    같은 시간대에 요청이 몰리더라도 lock 없이 초과 예약이 발생하지 않음.
+
+    - key가 없다면 DB의 예약 데이터로 채운 후 다시 시도함. (예약일이 지나면 만료됨)
+    - 확보 후 예약 저장이 실패하여 트랜잭션이 롤백되면, 확보했던 자리를 되돌려줌.
+    - 자리 반납은 취소/거절 트랜잭션이 커밋된 후에 반영함.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisReservationAdmission implements ReservationAdmission {
+
+    private static final String KEY_PREFIX = "admission:";
+    private static final String LOADED_MEMBER = "_loaded"; //DB에서 채워진 Set임을 표시하는 member
+
+    private static final long NOT_LOADED = -1L;
+    private static final long GREEDY_USER = -2L;
+    private static final long OVERFLOW = -3L;
+
+    /*
+        KEYS[1] : seats, KEYS[2] : members
+        ARGV[1] : 예약시간, ARGV[2] : 회원 id, ARGV[3] : 예약 인원
+     */
+    private static final RedisScript<Long> ADMIT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SISMEMBER', KEYS[2], '" + LOADED_MEMBER + "') == 0 " +
+                    "or redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then " +
+                    "return " + NOT_LOADED + " end " +
+                    "if redis.call('SISMEMBER', KEYS[2], ARGV[2]) == 1 then " +
+                    "return " + GREEDY_USER + " end " +
+                    "local count = tonumber(ARGV[3]) " +
+                    "if tonumber(redis.call('HGET', KEYS[1], ARGV[1])) < count then " +
+                    "return " + OVERFLOW + " end " +
+                    "redis.call('HINCRBY', KEYS[1], ARGV[1], -count) " +
+                    "redis.call('SADD', KEYS[2], ARGV[2]) " +
+                    "return 1",
+            Long.class);
+
+    /*
+        이미 채워진 값은 덮어쓰지 않음. (먼저 채운 쪽 이후의 차감 결과를 유지함)
+        KEYS[1] : seats, KEYS[2] : members
+        ARGV[1] : 예약시간, ARGV[2] : 남은 인원, ARGV[3] : 만료시각(epoch seconds), ARGV[4~] : 회원 id
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSETNX', KEYS[1], ARGV[1], ARGV[2]) " +
+                    "if redis.call('SISMEMBER', KEYS[2], '" + LOADED_MEMBER + "') == 0 then " +
+                    "for i = 4, #ARGV do redis.call('SADD', KEYS[2], ARGV[i]) end " +
+                    "redis.call('SADD', KEYS[2], '" + LOADED_MEMBER + "') " +
+                    "end " +
+                    "redis.call('EXPIREAT', KEYS[1], ARGV[3]) " +
+                    "redis.call('EXPIREAT', KEYS[2], ARGV[3]) " +
+                    "return 1",
+            Long.class);
+
+    /*
+        남은 인원은 채워진 시간대에만 되돌려줌. (없다면 다음 확보 시 DB에서 다시 계산됨)
+        KEYS[1] : seats, KEYS[2] : members
+        ARGV[1] : 예약시간, ARGV[2] : 회원 id, ARGV[3] : 예약 인원
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then " +
+                    "redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[3]) " +
+                    "end " +
+                    "redis.call('SREM', KEYS[2], ARGV[2]) " +
+                    "return 1",
+            Long.class);
+
+    //KEYS[1] : seats, ARGV[1] : 변경량
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "local fields = redis.call('HKEYS', KEYS[1]) " +
+                    "for i = 1, #fields do redis.call('HINCRBY', KEYS[1], fields[i], ARGV[1]) end " +
+                    "return #fields",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ReservationRepository reservationRepository;
+
+    @Override
+    public AdmissionResult admit(Shop shop, Member member, LocalDate resDay, LocalTime resTime, int count) {
+        List<String> keys = keys(shop.getId(), resDay);
+        String memberId = String.valueOf(member.getId());
+
+        Long result = redisTemplate.execute(ADMIT_SCRIPT, keys,
+                resTime.toString(), memberId, String.valueOf(count));
+
+        if(result != null && result == NOT_LOADED){
+            load(shop, resDay, resTime, keys);
+            result = redisTemplate.execute(ADMIT_SCRIPT, keys,
+                    resTime.toString(), memberId, String.valueOf(count));
+        }
+
+        if(result == null || result == NOT_LOADED){
+            throw new IllegalStateException("예약 자리를 확인하지 못했습니다. : " + keys.get(0));
+        }
+        if(result == GREEDY_USER){
+            return AdmissionResult.GREEDY_USER;
+        }
+        if(result == OVERFLOW){
+            return AdmissionResult.OVERFLOW;
+        }
+
+        //예약 저장이 실패하여 롤백되면, 확보했던 자리를 되돌려줌.
+        TransactionUtil.afterRollback(() -> releaseNow(shop.getId(), member.getId(), resDay, resTime, count));
+        return AdmissionResult.ADMITTED;
+    }
+
+    @Override
+    public void release(Long shopId, Long memberId, LocalDate resDay, LocalTime resTime, int count) {
+        TransactionUtil.afterCommit(() -> releaseNow(shopId, memberId, resDay, resTime, count));
+    }
+
+    @Override
+    public void adjustCapacity(Long shopId, int delta) {
+        if(delta == 0){
+            return;
+        }
+
+        TransactionUtil.afterCommit(() -> {
+            List<String> seatKeys = redisTemplate.execute((RedisCallback<List<String>>) connection ->
+                    RedisKeyUtil.scanKeys(connection, KEY_PREFIX + "{" + shopId + ":*}:seats"));
+            if(seatKeys == null){
+                return;
+            }
+            for(String seatKey : seatKeys){
+                redisTemplate.execute(ADJUST_SCRIPT, List.of(seatKey), String.valueOf(delta));
+            }
+        });
+    }
+
+    //======================= 내부 로직 =========================
+
+    //같은 hash tag를 사용하여, 두 key가 같은 slot에 위치하도록 함.
+    private static List<String> keys(Long shopId, LocalDate resDay){
+        String tag = KEY_PREFIX + "{" + shopId + ":" + resDay + "}";
+        return Arrays.asList(tag + ":seats", tag + ":members");
+    }
+
+    //시간대의 남은 인원과 해당 날짜에 예약을 가진 회원들을 DB에서 가져와 채워넣음.
+    private void load(Shop shop, LocalDate resDay, LocalTime resTime, List<String> keys){
+        int alreadyReservedCount = reservationRepository.getReservationCountWithShopAndTime(shop, resDay, resTime);
+        List<Long> memberIds = reservationRepository.findActiveMemberIdsWithShopAndDay(shop, resDay);
+
+        List<String> args = new ArrayList<>(memberIds.size() + 3);
+        args.add(resTime.toString());
+        args.add(String.valueOf(shop.getResOpenCount() - alreadyReservedCount));
+        args.add(String.valueOf(expireAt(resDay)));
+        memberIds.forEach(id -> args.add(String.valueOf(id)));
+
+        redisTemplate.execute(LOAD_SCRIPT, keys, args.toArray());
+    }
+
+    //예약일이 지나면 더 이상 예약할 수 없으므로, 그 다음날 0시에 만료되도록 함.
+    private static long expireAt(LocalDate resDay){
+        return resDay.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private void releaseNow(Long shopId, Long memberId, LocalDate resDay, LocalTime resTime, int count){
+        List<String> keys = keys(shopId, resDay);
+        try{
+            redisTemplate.execute(RELEASE_SCRIPT, keys,
+                    resTime.toString(), String.valueOf(memberId), String.valueOf(count));
+        }catch (DataAccessException e){
+            //되돌리지 못했다면 key를 지워서, 다음 확보 시 DB에서 다시 채워지도록 함.
+            log.warn("failed to release admission seats, key : {}", keys.get(0), e);
+            evict(keys);
+        }
+    }
+
+    private void evict(List<String> keys){
+        try{
+            redisTemplate.delete(keys);
+        }catch (DataAccessException e){
+            log.warn("failed to evict admission keys, key : {}", keys.get(0), e);
+        }
+    }
+
+}
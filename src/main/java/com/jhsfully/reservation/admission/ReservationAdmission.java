@@ -0,0 +1,33 @@
+package com.jhsfully.reservation.admission;
+
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.Shop;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/*
+    예약 신청 시, 시간대의 남은 인원과 회원의 같은 날 중복 예약 여부를 확인하고,
+    예약이 가능하다면 해당 인원만큼 자리를 확보하는 역할을 함.
+
+    reservation.admission 설정값에 따라 구현체가 선택됨. (AdmissionConfiguration)
+    - database(기본값) : reservation_slot의 조건부 UPDATE로 자리를 확보함. (@RedisLock과 함께 사용함)
+    - redis : 하나의 Lua 스크립트로 확인과 확보를 한 번에 수행하므로, lock이 필요하지 않음.
+ */
+public interface ReservationAdmission {
+
+    //자리를 확보하였다면 ADMITTED, 아니라면 그 이유를 반환함.
+    AdmissionResult admit(Shop shop, Member member, LocalDate resDay, LocalTime resTime, int count);
+
+    //취소, 거절, 파기된 예약의 자리를 되돌려줌.
+    void release(Long shopId, Long memberId, LocalDate resDay, LocalTime resTime, int count);
+
+    //매장의 시간대별 수용인원이 변경되었을 때, 이미 확보된 시간대들의 남은 인원에 변경량을 반영함.
+    void adjustCapacity(Long shopId, int delta);
+
+    enum AdmissionResult {
+        ADMITTED,
+        OVERFLOW, //시간대의 남은 인원이 부족함
+        GREEDY_USER //같은 날에 이미 해당 매장의 예약이 있음
+    }
+}
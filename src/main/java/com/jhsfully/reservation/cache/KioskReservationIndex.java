@@ -0,0 +1,288 @@
+package com.jhsfully.reservation.cache;
+
+import com.jhsfully.reservation.domain.Reservation;
+import com.jhsfully.reservation.model.ReservationDto;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.type.ReservationState;
+import com.jhsfully.reservation.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.jhsfully.reservation.type.ReservationState.ASSIGN;
+
+/*
+    키오스크의 방문 조회, 방문 처리에 사용하는 날짜별 예약 인덱스. (서버의 메모리에 보관함)
+
+    키오스크는 같은 조회를 반복하므로, 매번 매장, 파트너, 전화번호로 찾은 회원, 예약을 조회(4번의 쿼리)하지 않도록
+    그날 방문할 수 있는 예약(승인된 예약과, 그 이후 방문/파기된 예약)을 한 번의 쿼리로 메모리에 올려둠.
+    - 매장 id -> 전화번호 -> 예약시간 순으로 정렬된 예약 (방문 조회)
+    - 예약 id -> 예약 (방문 처리 시 검증)
+
+    - 매일 23시 55분에 다음 날의 인덱스를 미리 만들고, 오늘의 인덱스는 주기적으로 다시 만듦.
+      (다른 서버에서 변경된 예약은 다시 만들어질 때 반영됨)
+    - 이 서버에서 승인, 취소, 방문된 예약은 커밋된 후에 바로 반영함.
+    - 매장이 수정/삭제되면, 커밋된 후에 매장 제거 채널(kiosk:shop-evict)로 알려 모든 서버의 인덱스에서 지움.
+      (pub/sub은 메세지가 유실될 수 있으므로, 유실되었다면 다음 refresh까지 남아있을 수 있음.
+       이 경우에도 방문 처리의 UPDATE가 매장의 삭제 여부를 확인하므로, 삭제된 매장의 예약은 방문 처리되지 않음)
+    - 인덱스에 없다면 null을 반환하므로, 호출한 쪽에서 DB로 다시 조회해야 함.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KioskReservationIndex implements MessageListener {
+
+    public static final String SHOP_EVICT_CHANNEL = "kiosk:shop-evict";
+
+    private final ReservationRepository reservationRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final Map<LocalDate, DayIndex> days = new ConcurrentHashMap<>();
+
+    @Scheduled(cron = "0 55 23 * * *")
+    public void prepareNextDay(){
+        build(LocalDate.now().plusDays(1));
+    }
+
+    //지난 날짜의 인덱스를 지우고, 오늘의 인덱스를 다시 만듦. (서버가 시작될 때도 바로 만들어짐)
+    @Scheduled(fixedDelayString = "${reservation.kiosk-index.refresh-millis:60000}")
+    public void refresh(){
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(day -> day.isBefore(today));
+        build(today);
+    }
+
+    //day의 인덱스를 새로 만들어 교체함. 실패하면 기존 인덱스를 그대로 사용함.
+    public void build(LocalDate day){
+        List<ReservationDto.KioskReservation> reservations;
+        try{
+            reservations = reservationRepository.findKioskReservationsWithDay(day);
+        }catch (DataAccessException e){
+            log.warn("failed to build kiosk reservation index, day : {}", day, e);
+            return;
+        }
+
+        DayIndex index = new DayIndex();
+        reservations.forEach(x -> index.put(new Entry(x)));
+        days.put(day, index);
+        log.debug("kiosk reservation index built, day : {}, size : {}", day, reservations.size());
+    }
+
+    //매장에서 전화번호의 회원이 가진 예약 중, timeNow 이후의 첫 예약을 반환함.
+    public Entry find(Long shopId, String phone, LocalDate day, LocalTime timeNow){
+        DayIndex index = days.get(day);
+        if(index == null){
+            return null;
+        }
+
+        Map<String, NavigableMap<LocalTime, Entry>> phones = index.shops.get(shopId);
+        NavigableMap<LocalTime, Entry> times = phones == null ? null : phones.get(phone);
+        if(times == null){
+            return null;
+        }
+
+        Map.Entry<LocalTime, Entry> found = times.ceilingEntry(timeNow);
+        return found == null ? null : found.getValue();
+    }
+
+    public Entry get(Long reservationId, LocalDate day){
+        DayIndex index = days.get(day);
+        return index == null ? null : index.reservations.get(reservationId);
+    }
+
+    /*
+        승인된 예약을 커밋된 후에 추가함.
+        해당 날짜의 인덱스가 아직 없다면, 만들어질 때 DB에서 함께 가져오므로 추가하지 않음.
+     */
+    public void assigned(Reservation reservation){
+        if(!days.containsKey(reservation.getResDay())){
+            return;
+        }
+
+        Entry entry = new Entry(ReservationDto.KioskReservation.builder()
+                .id(reservation.getId())
+                .shopId(reservation.getShop().getId())
+                .ownerId(reservation.getShop().getMember().getId())
+                .phone(reservation.getMember().getPhone())
+                .memberName(reservation.getMember().getName())
+                .shopName(reservation.getShop().getName())
+                .resDay(reservation.getResDay())
+                .resTime(reservation.getResTime())
+                .count(reservation.getCount())
+                .reservationState(ASSIGN)
+                .note(reservation.getNote())
+                .build());
+
+        TransactionUtil.afterCommit(() -> {
+            DayIndex index = days.get(entry.resDay);
+            if(index != null){
+                index.put(entry);
+            }
+        });
+    }
+
+    //취소, 방문된 예약의 상태를 커밋된 후에 반영함.
+    public void changeState(Long reservationId, LocalDate day, ReservationState state){
+        TransactionUtil.afterCommit(() -> {
+            Entry entry = get(reservationId, day);
+            if(entry != null){
+                entry.reservationState = state;
+            }
+        });
+    }
+
+    //상태를 알 수 없게 된 예약을 지워서, 다음 조회 때 DB에서 찾도록 함.
+    public void evict(Long reservationId, LocalDate day){
+        DayIndex index = days.get(day);
+        if(index != null){
+            index.remove(reservationId);
+        }
+    }
+
+    /*
+        매장이 수정/삭제되면, 다시 만들어질 때까지 해당 매장의 조회는 DB에서 수행함.
+        커밋되기 전에 지우면, 그 사이에 다시 만들어진 인덱스에 이전 매장이 남으므로 커밋된 후에 지움.
+        (자신이 보낸 메세지도 다시 받지만, 이미 지워졌으므로 아무것도 하지 않음)
+     */
+    public void evictShop(Long shopId){
+        if(shopId == null){
+            return;
+        }
+
+        TransactionUtil.afterCommit(() -> {
+            removeShop(shopId);
+            try{
+                redisTemplate.convertAndSend(SHOP_EVICT_CHANNEL, String.valueOf(shopId));
+            }catch (DataAccessException e){
+                log.warn("failed to publish kiosk shop eviction, shopId : {}", shopId, e);
+            }
+        });
+    }
+
+    //다른 서버에서 수정/삭제된 매장을 지움. 메세지의 body는 매장 id임.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try{
+            removeShop(Long.valueOf(body));
+        }catch (NumberFormatException e){
+            log.warn("invalid kiosk shop eviction message : {}", body);
+        }
+    }
+
+    private void removeShop(Long shopId){
+        days.values().forEach(x -> x.removeShop(shopId));
+    }
+
+    private static class DayIndex {
+        private final Map<Long, Map<String, NavigableMap<LocalTime, Entry>>> shops = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> reservations = new ConcurrentHashMap<>();
+
+        /*
+            같은 시간대에 취소된 예약과 다시 승인된 예약이 함께 있다면, 승인된 예약을 남김.
+         */
+        private void put(Entry entry){
+            NavigableMap<LocalTime, Entry> times = shops
+                    .computeIfAbsent(entry.shopId, x -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(entry.phone, x -> new ConcurrentSkipListMap<>());
+
+            times.merge(entry.resTime, entry,
+                    (origin, next) -> origin.reservationState == ASSIGN && next.reservationState != ASSIGN ? origin : next);
+            reservations.put(entry.id, entry);
+        }
+
+        private void remove(Long reservationId){
+            Entry entry = reservations.remove(reservationId);
+            if(entry == null){
+                return;
+            }
+            Map<String, NavigableMap<LocalTime, Entry>> phones = shops.get(entry.shopId);
+            NavigableMap<LocalTime, Entry> times = phones == null ? null : phones.get(entry.phone);
+            if(times != null){
+                times.remove(entry.resTime, entry);
+            }
+        }
+
+        private void removeShop(Long shopId){
+            shops.remove(shopId);
+            reservations.values().removeIf(x -> x.shopId.equals(shopId));
+        }
+    }
+
+    public static class Entry {
+        private final Long id;
+        private final Long shopId;
+        private final Long ownerId;
+        private final String phone;
+        private final String memberName;
+        private final String shopName;
+        private final LocalDate resDay;
+        private final LocalTime resTime;
+        private final int count;
+        private final String note;
+        private volatile ReservationState reservationState;
+
+        private Entry(ReservationDto.KioskReservation reservation) {
+            this.id = reservation.getId();
+            this.shopId = reservation.getShopId();
+            this.ownerId = reservation.getOwnerId();
+            this.phone = reservation.getPhone();
+            this.memberName = reservation.getMemberName();
+            this.shopName = reservation.getShopName();
+            this.resDay = reservation.getResDay();
+            this.resTime = reservation.getResTime();
+            this.count = reservation.getCount();
+            this.note = reservation.getNote();
+            this.reservationState = reservation.getReservationState();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public LocalDate getResDay() {
+            return resDay;
+        }
+
+        public LocalTime getResTime() {
+            return resTime;
+        }
+
+        public ReservationState getReservationState() {
+            return reservationState;
+        }
+
+        //Reservation.toDto와 같은 형태의 응답을 만듦.
+        public ReservationDto.ReservationResponse toDto(long reservationCount){
+            return ReservationDto.ReservationResponse.builder()
+                    .reservationCount(reservationCount)
+                    .id(id)
+                    .memberName(memberName)
+                    .shopName(shopName)
+                    .resDay(resDay)
+                    .resTime(resTime)
+                    .count(count)
+                    .reservationState(reservationState)
+                    .note(note)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.jhsfully.reservation.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/*
+    페이징 응답의 전체 개수(total)를 조회 조건별로 잠시 보관하는 캐시.
+
+    - 첫 페이지의 결과가 페이지 크기보다 적거나, 마지막 페이지인 경우처럼
+      전체 개수를 결과만으로 알 수 있다면 COUNT 쿼리를 수행하지 않음. (PageableExecutionUtils)
+    - COUNT 쿼리가 필요한 경우에도, ttl 동안은 같은 조건의 결과를 재사용하므로
+      페이지를 넘길 때마다 전체를 다시 세지 않음.
+
+    ttl 동안은 전체 개수가 실제와 약간 다를 수 있으나, 페이지의 내용은 항상 DB에서 새로 조회됨.
+ */
+@Component
+public class PageCountCache {
+
+    private static final int MAX_ENTRIES = 10_000; //이 이상 쌓이면, 만료된 항목을 정리함.
+
+    private final long ttlMillis;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public PageCountCache(@Value("${page.count-cache.ttl-millis:10000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    //content와 pageable로 Page를 만들며, 전체 개수가 필요할 때만 캐시 또는 countQuery를 사용함.
+    public <T> Page<T> getPage(String key, List<T> content, Pageable pageable, LongSupplier countQuery){
+        return PageableExecutionUtils.getPage(content, pageable, () -> getCount(key, countQuery));
+    }
+
+    public long getCount(String key, LongSupplier countQuery){
+        long now = System.currentTimeMillis();
+
+        CachedCount cached = counts.get(key);
+        if(cached != null && cached.expiredAt > now){
+            return cached.count;
+        }
+
+        long count = countQuery.getAsLong();
+        if(ttlMillis > 0){
+            if(counts.size() >= MAX_ENTRIES){
+                evictExpired(now);
+            }
+            counts.put(key, new CachedCount(count, now + ttlMillis));
+        }
+        return count;
+    }
+
+    //만료된 항목을 정리하고, 그래도 가득 차 있다면 전부 비움.
+    private void evictExpired(long now){
+        counts.values().removeIf(x -> x.expiredAt <= now);
+        if(counts.size() >= MAX_ENTRIES){
+            counts.clear();
+        }
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long expiredAt;
+
+        private CachedCount(long count, long expiredAt) {
+            this.count = count;
+            this.expiredAt = expiredAt;
+        }
+    }
+
+}
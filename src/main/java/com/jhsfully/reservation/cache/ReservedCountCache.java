@@ -0,0 +1,240 @@
+package com.jhsfully.reservation.cache;
+
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.util.RedisKeyUtil;
+import com.jhsfully.reservation.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+    매장의 날짜별, 시간대별 예약 인원을 Redis Hash에 보관하는 캐시.
+    (key : reserved:{예약일}:{shopId}, field : 예약시간, value : 예약 인원)
+
+    - 조회 : 날짜별 Hash를 한 번에(pipeline) 가져오고, 없는 날짜만 DB에서 집계하여 채워넣음.
+    - 변경 : 예약 추가/취소/거절 시, 트랜잭션이 커밋된 후에 HINCRBY로 반영함.
+            단, 아직 DB에서 채워지지 않은 Hash는 일부만 존재하게 되므로, 증감하지 않고 _dirty만 표시함.
+
+    DB에서 집계한 후 채워넣기 전에 예약이 변경되면, 집계 결과에 변경이 빠져있을 수 있으므로,
+    Hash는 key가 없을 때만 채워넣음. (HSETNX와 같이, 먼저 채워졌거나 _dirty가 표시된 Hash는 덮어쓰지 않음)
+    _dirty는 DIRTY_SECONDS 후에 만료되며, 그 동안은 DB에서 조회함.
+    커밋과 커밋 후의 반영 사이에 집계와 채워넣기가 모두 끝나는 경우에는 중복으로 반영될 수 있지만, ttl이 지나면 바로잡힘.
+
+    Redis에 문제가 있거나 반영에 실패한 경우에는, DB에서 조회하거나 해당 Hash를 지워서 다시 채워지도록 함.
+    반영이 누락되는 경우에 대비하여, Hash는 ttl이 지나면 만료되어 DB에서 다시 채워짐.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservedCountCache {
+
+    private static final String KEY_PREFIX = "reserved:";
+    private static final String LOADED_FIELD = "_loaded"; //DB에서 채워진 Hash임을 표시하는 field
+    private static final String DIRTY_FIELD = "_dirty"; //채워지기 전에 변경된 Hash임을 표시하는 field
+    private static final long DIRTY_SECONDS = 10; //DB 집계부터 채워넣기까지 걸리는 시간보다 충분히 길게 잡음.
+
+    //DB에서 채워진 Hash일 때만 증감하고, 아니라면 변경되었음을 표시하여 진행 중인 채워넣기를 막음.
+    private static final RedisScript<Long> INCREASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then " +
+                    "return redis.call('HINCRBY', KEYS[1], ARGV[2], ARGV[3]) " +
+                    "end " +
+                    "redis.call('HSET', KEYS[1], ARGV[4], '1') " +
+                    "redis.call('EXPIRE', KEYS[1], ARGV[5]) " +
+                    "return nil",
+            Long.class);
+
+    //key가 없을 때만 채워넣음. (ARGV[1] : 만료 시간, ARGV[2..] : field, value 쌍)
+    private static final RedisScript<Long> FILL_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "return 0 " +
+                    "end " +
+                    "redis.call('HSET', KEYS[1], unpack(ARGV, 2)) " +
+                    "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+                    "return 1",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ReservationRepository reservationRepository;
+
+    @Value("${reservation.reserved-count-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    //======================= 조회 =========================
+
+    //startDay ~ endDay 사이의 예약 인원을 (날짜 -> 시간대 -> 예약 인원) 형태로 반환함.
+    public Map<LocalDate, Map<LocalTime, Integer>> getReservedCounts(Shop shop, LocalDate startDay, LocalDate endDay){
+        if(startDay.isAfter(endDay)){
+            return new HashMap<>();
+        }
+
+        List<LocalDate> days = startDay.datesUntil(endDay.plusDays(1)).collect(Collectors.toList());
+
+        List<Object> hashes;
+        try{
+            hashes = readHashes(shop.getId(), days);
+        }catch (DataAccessException e){
+            log.warn("failed to read reserved counts from redis, shopId : {}", shop.getId(), e);
+            return loadFromDatabase(shop, startDay, endDay);
+        }
+
+        Map<LocalDate, Map<LocalTime, Integer>> result = new HashMap<>();
+        List<LocalDate> missedDays = new ArrayList<>();
+        for(int i = 0; i < days.size(); i++){
+            Map<?, ?> hash = (Map<?, ?>) hashes.get(i);
+            if(hash == null || !hash.containsKey(LOADED_FIELD)){
+                missedDays.add(days.get(i));
+                continue;
+            }
+            result.put(days.get(i), toCounts(hash));
+        }
+
+        if(!missedDays.isEmpty()){
+            //없는 날짜들은 한 번의 집계 쿼리로 가져와서, Redis에 채워넣음.
+            Map<LocalDate, Map<LocalTime, Integer>> loaded = loadFromDatabase(
+                    shop, missedDays.get(0), missedDays.get(missedDays.size() - 1));
+            Map<LocalDate, Map<LocalTime, Integer>> missed = new HashMap<>();
+            for(LocalDate day : missedDays){
+                missed.put(day, loaded.getOrDefault(day, Collections.emptyMap()));
+            }
+            result.putAll(missed);
+            writeHashes(shop.getId(), missed);
+        }
+
+        return result;
+    }
+
+    //======================= 변경 =========================
+
+    //예약 인원을 delta만큼 증감함. 트랜잭션 안이라면, 커밋된 후에 반영함.
+    public void increase(Long shopId, LocalDate day, LocalTime time, int delta){
+        if(delta == 0){
+            return;
+        }
+
+        String key = key(shopId, day);
+        TransactionUtil.afterCommit(() -> {
+            try{
+                redisTemplate.execute(INCREASE_SCRIPT, Collections.singletonList(key),
+                        LOADED_FIELD, time.toString(), String.valueOf(delta), DIRTY_FIELD, String.valueOf(DIRTY_SECONDS));
+            }catch (DataAccessException e){
+                log.warn("failed to increase reserved count, key : {}", key, e);
+                evict(key);
+            }
+        });
+    }
+
+    //해당 날짜의 모든 매장의 Hash를 지움. (스케줄러에 의해 상태가 일괄 변경된 날짜에 사용함)
+    public void evictDay(LocalDate day){
+        TransactionUtil.afterCommit(() -> {
+            try{
+                List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> RedisKeyUtil.scanKeys(connection, KEY_PREFIX + day + ":*"));
+                if(keys != null && !keys.isEmpty()){
+                    redisTemplate.delete(keys);
+                }
+            }catch (DataAccessException e){
+                log.warn("failed to evict reserved counts, day : {}", day, e);
+            }
+        });
+    }
+
+    //======================= 내부 로직 =========================
+
+    private static String key(Long shopId, LocalDate day){
+        return KEY_PREFIX + day + ":" + shopId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> readHashes(Long shopId, List<LocalDate> days){
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for(LocalDate day : days){
+                    stringOperations.opsForHash().entries(key(shopId, day));
+                }
+                return null;
+            }
+        });
+    }
+
+    //DB에서 채운 Hash를 저장함. 예약일이 지나거나 ttl이 지나면 만료되도록 함.
+    @SuppressWarnings("unchecked")
+    private void writeHashes(Long shopId, Map<LocalDate, Map<LocalTime, Integer>> counts){
+        try{
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                    counts.forEach((day, countsOfDay) -> {
+                        List<Object> args = new ArrayList<>();
+                        args.add(String.valueOf(expireSeconds(day)));
+                        countsOfDay.forEach((time, count) -> {
+                            args.add(time.toString());
+                            args.add(String.valueOf(count));
+                        });
+                        args.add(LOADED_FIELD);
+                        args.add("1");
+
+                        stringOperations.execute(FILL_SCRIPT, Collections.singletonList(key(shopId, day)), args.toArray());
+                    });
+                    return null;
+                }
+            });
+        }catch (DataAccessException e){
+            log.warn("failed to write reserved counts to redis, shopId : {}", shopId, e);
+        }
+    }
+
+    private long expireSeconds(LocalDate day){
+        long untilDayEnd = Duration.between(LocalDateTime.now(), day.plusDays(1).atStartOfDay()).getSeconds();
+        return Math.max(1, Math.min(ttlSeconds, untilDayEnd));
+    }
+
+    private void evict(String key){
+        try{
+            redisTemplate.delete(key);
+        }catch (DataAccessException e){
+            log.warn("failed to evict reserved count, key : {}", key, e);
+        }
+    }
+
+    private Map<LocalDate, Map<LocalTime, Integer>> loadFromDatabase(Shop shop, LocalDate startDay, LocalDate endDay){
+        Map<LocalDate, Map<LocalTime, Integer>> counts = new HashMap<>();
+        reservationRepository.getReservedCountsWithShopBetweenDays(shop, startDay, endDay)
+                .forEach(x -> counts
+                        .computeIfAbsent(x.getResDay(), k -> new HashMap<>())
+                        .put(x.getResTime(), x.getCount()));
+        return counts;
+    }
+
+    private static Map<LocalTime, Integer> toCounts(Map<?, ?> hash){
+        Map<LocalTime, Integer> counts = new HashMap<>();
+        hash.forEach((field, value) -> {
+            if(!LOADED_FIELD.equals(field)){
+                counts.put(LocalTime.parse(field.toString()), Integer.parseInt(value.toString()));
+            }
+        });
+        return counts;
+    }
+
+}
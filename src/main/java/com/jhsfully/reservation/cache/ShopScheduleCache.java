@@ -0,0 +1,121 @@
+package com.jhsfully.reservation.cache;
+
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.type.Days;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    매장별 예약 일정(오픈 요일, 오픈 시간대, 시간대별 수용인원, 예약 오픈 주)을 메모리에 보관하는 캐시.
+
+    shop의 res_open_day, res_open_time 컬렉션을 매 요청마다 조회하지 않도록,
+    처음 조회할 때 변경 불가능한 형태(ShopSchedule)로 만들어두고 재사용함.
+    - 오픈 요일 : 요일 값(1~7)을 비트로 표현한 bitmask
+    - 오픈 시간대 : 정렬된 배열로, 이진 탐색하여 시간대의 index(slot)를 찾음
+
+    매장이 수정/삭제되면 ShopServiceImpl에서 바로 무효화하며,
+    다른 서버에서 수정된 경우에도 shop의 updatedAt이 달라지므로, 조회 시점에 다시 만들어짐.
+ */
+@Component
+public class ShopScheduleCache {
+
+    private final Map<Long, ShopSchedule> schedules = new ConcurrentHashMap<>();
+
+    //캐시된 일정을 반환하고, 없거나 shop이 그 이후에 수정되었다면 새로 만들어 캐시함.
+    public ShopSchedule get(Shop shop){
+        ShopSchedule cached = schedules.get(shop.getId());
+        if(cached != null && Objects.equals(cached.getVersion(), shop.getUpdatedAt())){
+            return cached;
+        }
+
+        ShopSchedule schedule = ShopSchedule.of(shop);
+        if(shop.getId() != null){
+            schedules.put(shop.getId(), schedule);
+        }
+        return schedule;
+    }
+
+    public void invalidate(Long shopId){
+        if(shopId != null){
+            schedules.remove(shopId);
+        }
+    }
+
+    public static class ShopSchedule {
+
+        private final int openDaysMask;
+        private final LocalTime[] openTimes;
+        private final int capacity;
+        private final int openWeeks;
+        private final LocalDateTime version;
+
+        private ShopSchedule(int openDaysMask, LocalTime[] openTimes, int capacity, int openWeeks, LocalDateTime version) {
+            this.openDaysMask = openDaysMask;
+            this.openTimes = openTimes;
+            this.capacity = capacity;
+            this.openWeeks = openWeeks;
+            this.version = version;
+        }
+
+        public static ShopSchedule of(Shop shop){
+            int openDaysMask = 0;
+            if(shop.getResOpenDays() != null){
+                for(Days day : shop.getResOpenDays()){
+                    openDaysMask |= 1 << day.getValue();
+                }
+            }
+
+            List<LocalTime> times = shop.getResOpenTimes();
+            LocalTime[] openTimes = times == null ? new LocalTime[0] :
+                    times.stream().distinct().sorted().toArray(LocalTime[]::new);
+
+            return new ShopSchedule(openDaysMask, openTimes,
+                    shop.getResOpenCount(), shop.getResOpenWeek(), shop.getUpdatedAt());
+        }
+
+        public boolean isOpenDay(DayOfWeek dayOfWeek){
+            return (openDaysMask & (1 << dayOfWeek.getValue())) != 0;
+        }
+
+        //오픈된 시간대라면 정렬된 시간대 중의 index를, 아니라면 -1을 반환함.
+        public int slotIndex(LocalTime time){
+            int index = Arrays.binarySearch(openTimes, time);
+            return index >= 0 ? index : -1;
+        }
+
+        public boolean isOpenTime(LocalTime time){
+            return slotIndex(time) >= 0;
+        }
+
+        //예약 가능일 여부(오늘 + 1 ~ N주뒤 까지)
+        public boolean isReservableDay(LocalDate day, LocalDate dateNow){
+            return day.isAfter(dateNow) && !day.isAfter(dateNow.plusWeeks(openWeeks));
+        }
+
+        public List<LocalTime> getOpenTimes(){
+            return List.of(openTimes);
+        }
+
+        public int getCapacity(){
+            return capacity;
+        }
+
+        public int getOpenWeeks(){
+            return openWeeks;
+        }
+
+        private LocalDateTime getVersion(){
+            return version;
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.jhsfully.reservation.config;
+
+import com.jhsfully.reservation.admission.DatabaseReservationAdmission;
+import com.jhsfully.reservation.admission.RedisReservationAdmission;
+import com.jhsfully.reservation.admission.ReservationAdmission;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.repository.ReservationSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+@Configuration
+public class AdmissionConfiguration {
+
+    /*
+        reservation.admission 설정값에 따라 예약 자리 확보 방식을 선택함.
+        - database(기본값) : reservation_slot 테이블을 사용하며, 예약 신청 시 @RedisLock을 잡음.
+        - redis : Lua 스크립트로 원자적으로 확보하며, 예약 신청 시 lock을 잡지 않음.
+     */
+    @Bean
+    public ReservationAdmission reservationAdmission(@Value("${reservation.admission:database}") String admission,
+                                                     ReservationRepository reservationRepository,
+                                                     ReservationSlotRepository reservationSlotRepository,
+                                                     RedisTemplate<String, String> redisTemplate){
+        switch (admission){
+            case "database":
+                return new DatabaseReservationAdmission(reservationRepository, reservationSlotRepository);
+            case "redis":
+                return new RedisReservationAdmission(redisTemplate, reservationRepository);
+            default:
+                throw new IllegalArgumentException("지원하지 않는 reservation.admission 입니다. : " + admission);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.jhsfully.reservation.config;
 
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.lock.LockReleaseListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -17,4 +22,18 @@ public class AppConfiguration {
     public DefaultParameterNameDiscoverer defaultParameterNameDiscoverer(){
         return new DefaultParameterNameDiscoverer();
     }
+
+    //lock 반납 채널(PUBSUB 방식의 lock 대기), 키오스크 인덱스의 매장 제거 채널을 구독하는 컨테이너
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       LockReleaseListener lockReleaseListener,
+                                                                       KioskReservationIndex kioskReservationIndex){
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(lockReleaseListener,
+                new ChannelTopic(LockReleaseListener.LOCK_RELEASE_CHANNEL));
+        container.addMessageListener(kioskReservationIndex,
+                new ChannelTopic(KioskReservationIndex.SHOP_EVICT_CHANNEL));
+        return container;
+    }
 }
@@ -0,0 +1,96 @@
+package com.jhsfully.reservation.config;
+
+import com.jhsfully.reservation.util.VirtualThreadUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/*
+    execution.mode 설정값에 따라 요청과 스케줄 작업을 실행할 스레드를 선택함.
+    - platform(기본값) : Tomcat 워커 스레드에서 요청을 처리하며, 쓰기 API(예약, 리뷰)는
+        크기가 제한된 requestExecutor에서 처리하여, lock이나 DB를 기다리는 요청이 Tomcat 스레드를 잡고 있지 않도록 함.
+        requestExecutor가 가득 차면, 요청을 기다리게 하지 않고 바로 503으로 응답함.
+    - virtual : Tomcat 요청, requestExecutor, @Scheduled 작업을 모두 가상 스레드에서 실행함. (JDK 21 이상에서 실행 시)
+        lock 대기(Thread.sleep)나 JDBC, Redis 호출로 멈춘 동안에는 캐리어 스레드를 반납하므로, 스레드 풀이 고갈되지 않음.
+        JDK 21 미만에서 실행되었다면, 경고를 남기고 platform으로 동작함.
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfiguration {
+
+    private final boolean virtual;
+
+    public ExecutionConfiguration(@Value("${execution.mode:platform}") String mode){
+        switch (mode){
+            case "platform":
+                this.virtual = false;
+                break;
+            case "virtual":
+                if(!VirtualThreadUtil.isSupported()){
+                    log.warn("가상 스레드를 지원하지 않는 JDK({})이므로, platform 모드로 실행합니다.",
+                            System.getProperty("java.version"));
+                }
+                this.virtual = VirtualThreadUtil.isSupported();
+                break;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 execution.mode 입니다. : " + mode);
+        }
+    }
+
+    //ReservationController, ReviewController의 쓰기 API를 처리하는 Executor
+    @Bean
+    public AsyncTaskExecutor requestExecutor(@Value("${execution.request-executor.pool-size:50}") int poolSize,
+                                             @Value("${execution.request-executor.queue-capacity:200}") int queueCapacity){
+        if(virtual){
+            return new TaskExecutorAdapter(VirtualThreadUtil.newThreadPerTaskExecutor("request-"));
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("request-");
+        executor.initialize();
+        return executor;
+    }
+
+    //virtual 모드에서 Tomcat의 요청 처리 스레드를 가상 스레드로 바꿈.
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(){
+        return protocolHandler -> {
+            if(virtual){
+                protocolHandler.setExecutor(VirtualThreadUtil.newThreadPerTaskExecutor("tomcat-"));
+            }
+        };
+    }
+
+    /*
+        @Scheduled 작업을 실행하는 스케줄러
+        - platform : @Scheduled 작업(7개)이 서로를 기다리지 않도록, 작업 수보다 큰 풀에서 실행함.
+        - virtual : 실행될 때마다 가상 스레드에서 실행함.
+            ScheduledThreadPoolExecutor는 작업이 예약될 때마다 풀 크기까지 스레드를 새로 만들고,
+            쉬는 가상 스레드는 비용이 거의 없으므로, 풀 크기를 크게 두어 작업마다 가상 스레드를 사용하도록 함.
+            (Spring 5.3의 ConcurrentTaskScheduler는 예약된 작업을 ScheduledExecutorService의 스레드에서 실행하므로 사용하지 않음)
+     */
+    @Bean
+    public TaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:8}") int poolSize,
+                                       @Value("${execution.virtual-scheduler.max-threads:256}") int virtualThreads){
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("scheduling-");
+        if(virtual){
+            scheduler.setPoolSize(virtualThreads);
+            scheduler.setThreadFactory(VirtualThreadUtil.factory("scheduling-"));
+        }else{
+            scheduler.setPoolSize(poolSize);
+        }
+        scheduler.initialize();
+        return scheduler;
+    }
+}
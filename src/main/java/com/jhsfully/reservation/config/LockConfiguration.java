@@ -0,0 +1,40 @@
+package com.jhsfully.reservation.config;
+
+import com.jhsfully.reservation.lock.HybridLockProvider;
+import com.jhsfully.reservation.lock.LocalLockProvider;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.LockReleaseListener;
+import com.jhsfully.reservation.lock.LockWatchdog;
+import com.jhsfully.reservation.lock.RedisLockProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+@Configuration
+public class LockConfiguration {
+
+    /*
+        lock.provider 설정값에 따라 @RedisLock이 사용할 LockProvider를 선택함.
+        - redis(기본값) : 여러 서버가 떠 있는 분산 환경
+        - local : 서버가 하나뿐이거나, Redis 없이 테스트하는 경우
+        - hybrid : 분산 환경이면서, 같은 서버 내의 경쟁이 많은 경우
+     */
+    @Bean
+    public LockProvider lockProvider(@Value("${lock.provider:redis}") String provider,
+                                     RedisTemplate<String, String> redisTemplate,
+                                     LockReleaseListener lockReleaseListener,
+                                     LockWatchdog lockWatchdog){
+        switch (provider){
+            case "redis":
+                return new RedisLockProvider(redisTemplate, lockReleaseListener, lockWatchdog);
+            case "local":
+                return new LocalLockProvider();
+            case "hybrid":
+                return new HybridLockProvider(new LocalLockProvider(),
+                        new RedisLockProvider(redisTemplate, lockReleaseListener, lockWatchdog));
+            default:
+                throw new IllegalArgumentException("지원하지 않는 lock.provider 입니다. : " + provider);
+        }
+    }
+}
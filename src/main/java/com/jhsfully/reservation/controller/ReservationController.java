@@ -1,10 +1,11 @@
 package com.jhsfully.reservation.controller;
 
-import com.jhsfully.reservation.lock.RedisLock;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.service.ReservationService;
 import com.jhsfully.reservation.util.MemberUtil;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,37 +15,46 @@ import javax.validation.Valid;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RequestMapping("/reservation")
 @RestController
-@RequiredArgsConstructor
 public class ReservationController {
 
     private final ReservationService reservationService;
 
+    //쓰기 API는 Tomcat 스레드가 아닌 requestExecutor에서 처리함. (ExecutionConfiguration 참고)
+    private final AsyncTaskExecutor requestExecutor;
+
+    public ReservationController(ReservationService reservationService,
+                                 @Qualifier("requestExecutor") AsyncTaskExecutor requestExecutor){
+        this.reservationService = reservationService;
+        this.requestExecutor = requestExecutor;
+    }
+
     /*
         예약 수행
         - 예약을 수행하는 과정은, 예약 카운트를 검증하는 과정에서 동시성 이슈가 발생할 수 있음.
         - "09:00" 시간대에 허용예약이 최대 4였을 경우에, 동시에, 해당 함수가 실행될 경우에
             둘다 최대 가능 예약이 4가 되어, 동시간대에 8명의 예약신청이 발생할 우려가 존재함.
-        - shopId를 기준으로, lock을 걸어, 같은 shop에 대하여 동시에 예약하지 못하도록 함.
+        - 시간대별 남은 인원(reservation_slot)을 조건부 UPDATE로 차감하므로,
+            lock 없이도 수용인원을 넘는 예약이 저장되지 않음.
+        - 같은 시간대의 요청을 순서대로 처리하기 위한 lock은 ReservationService에서 잡으며,
+            lock을 기다리는 동안 Tomcat 스레드를 잡고 있지 않도록 requestExecutor에서 수행함.
      */
-    @RedisLock(group = "reservation", key = "request.shopId")
     @PreAuthorize("hasRole('USER')")
     @PostMapping
-    public ResponseEntity<?> addReservation(@RequestBody ReservationDto.AddReservationRequest request){
+    public CompletableFuture<ResponseEntity<?>> addReservation(@RequestBody ReservationDto.AddReservationRequest request){
         Long memberId = MemberUtil.getMemberId();
-        reservationService.addReservation(memberId, request, LocalDate.now());
-        return ResponseEntity.ok().build();
+        return execute(() -> reservationService.addReservation(memberId, request, LocalDate.now()));
     }
 
     //예약 취소
     @PreAuthorize("hasRole('USER')")
     @DeleteMapping("/{reservationId}")
-    public ResponseEntity<?> deleteReservation(@PathVariable Long reservationId){
+    public CompletableFuture<ResponseEntity<?>> deleteReservation(@PathVariable Long reservationId){
         Long memberId = MemberUtil.getMemberId();
-        reservationService.deleteReservation(memberId, reservationId);
-        return ResponseEntity.ok().build();
+        return execute(() -> reservationService.deleteReservation(memberId, reservationId));
     }
 
     //유저 예약 조회(예약 승인/거절 상태 표시) -> 내용이 간단하므로 상세조회는 구현하지 않음.
@@ -57,6 +67,15 @@ public class ReservationController {
     }
 
 
+    //유저 예약 조회 (커서 기반, cursor가 없으면 첫 페이지이고, 응답의 nextCursor로 다음 페이지를 조회함)
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/user/cursor")
+    public ResponseEntity<CursorResponse<ReservationDto.ReservationResponse>> getReservationsForUserByCursor(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate, @RequestParam(required = false) String cursor){
+        Long memberId = MemberUtil.getMemberId();
+        CursorResponse<ReservationDto.ReservationResponse> response = reservationService.getReservationForUserByCursor(memberId, startDate, cursor);
+        return ResponseEntity.ok(response);
+    }
+
     //매장 예약 조회(파트너)
     @PreAuthorize("hasRole('PARTNER')")
     @GetMapping("/partner/{shopId}/{pageIndex}")
@@ -66,22 +85,29 @@ public class ReservationController {
         return ResponseEntity.ok(responses);
     }
 
+    //매장 예약 조회(파트너, 커서 기반)
+    @PreAuthorize("hasRole('PARTNER')")
+    @GetMapping("/partner/{shopId}/cursor")
+    public ResponseEntity<CursorResponse<ReservationDto.ReservationResponse>> getReservationsByShopByCursor(@PathVariable Long shopId, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate, @RequestParam(required = false) String cursor){
+        Long memberId = MemberUtil.getMemberId();
+        CursorResponse<ReservationDto.ReservationResponse> response = reservationService.getReservationByShopByCursor(memberId, shopId, startDate, cursor);
+        return ResponseEntity.ok(response);
+    }
+
     //매장 예약 거절(파트너가 들어온 예약을 거절함)
     @PreAuthorize("hasRole('PARTNER')")
     @PatchMapping("/reject/{reservationId}")
-    public ResponseEntity<?> rejectReservation(@PathVariable Long reservationId){
+    public CompletableFuture<ResponseEntity<?>> rejectReservation(@PathVariable Long reservationId){
         Long memberId = MemberUtil.getMemberId();
-        reservationService.rejectReservation(memberId, reservationId, LocalDate.now());
-        return ResponseEntity.ok().build();
+        return execute(() -> reservationService.rejectReservation(memberId, reservationId, LocalDate.now()));
     }
 
     //매장 예약 수락(파트너가 들어온 예약을 수락함)
     @PreAuthorize("hasRole('PARTNER')")
     @PatchMapping("/assign/{reservationId}")
-    public ResponseEntity<?> assignReservation(@PathVariable Long reservationId){
+    public CompletableFuture<ResponseEntity<?>> assignReservation(@PathVariable Long reservationId){
         Long memberId = MemberUtil.getMemberId();
-        reservationService.assignReservation(memberId, reservationId, LocalDate.now());
-        return ResponseEntity.ok().build();
+        return execute(() -> reservationService.assignReservation(memberId, reservationId, LocalDate.now()));
     }
 
     //키오스크를 위한, 예약 조회(연락처로 조회 10분전 ~ 예약시간 까지의 데이터만 조회가능)(파트너권한)
@@ -98,10 +124,15 @@ public class ReservationController {
     //키오스크는 기본적으로 파트너의 계정으로 로그인되어 있다고 가정함.
     @PreAuthorize("hasRole('PARTNER')")
     @PatchMapping("/kiosk/visit/{reservationId}")
-    public ResponseEntity<?> visitShopByReservation(@PathVariable Long reservationId){
+    public CompletableFuture<ResponseEntity<?>> visitShopByReservation(@PathVariable Long reservationId){
         Long memberId = MemberUtil.getMemberId();
-        reservationService.visitReservation(memberId, reservationId, LocalDate.now(), LocalTime.now());
-        return ResponseEntity.ok().build();
+        return execute(() -> reservationService.visitReservation(memberId, reservationId, LocalDate.now(), LocalTime.now()));
+    }
+
+    //회원 정보는 요청 스레드에서 꺼내두고, 작업만 requestExecutor에서 수행함. (가득 찼다면 바로 503으로 응답함)
+    private CompletableFuture<ResponseEntity<?>> execute(Runnable task){
+        return CompletableFuture.runAsync(task, requestExecutor)
+                .thenApply(x -> ResponseEntity.ok().build());
     }
 
 }
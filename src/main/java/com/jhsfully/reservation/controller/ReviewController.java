@@ -1,11 +1,13 @@
 package com.jhsfully.reservation.controller;
 
 import com.jhsfully.reservation.facade.ReviewFacade;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.model.ReviewDto;
 import com.jhsfully.reservation.service.ReviewService;
 import com.jhsfully.reservation.util.MemberUtil;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -13,15 +15,25 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/review")
-@RequiredArgsConstructor
 public class ReviewController {
 
     private final ReviewService reviewService; //get은 서비스에서 다이렉트로 호출함.
     private final ReviewFacade reviewFacade;
 
+    //쓰기 API는 Tomcat 스레드가 아닌 requestExecutor에서 처리함. (ExecutionConfiguration 참고)
+    private final AsyncTaskExecutor requestExecutor;
+
+    public ReviewController(ReviewService reviewService, ReviewFacade reviewFacade,
+                            @Qualifier("requestExecutor") AsyncTaskExecutor requestExecutor){
+        this.reviewService = reviewService;
+        this.reviewFacade = reviewFacade;
+        this.requestExecutor = requestExecutor;
+    }
+
 
     //리뷰 작성 가능 예약 조회
     //예약을 가져오는 것이라 ReservationController에 있어야 하지만, 유지보수를 위해
@@ -36,30 +48,27 @@ public class ReviewController {
     //리뷰 작성
     @PreAuthorize("hasRole('USER')")
     @PostMapping("/{reservationId}")
-    ResponseEntity<?> writeReview(@RequestBody @Valid ReviewDto.WriteReviewRequest request,
-                                  @PathVariable Long reservationId){
+    CompletableFuture<ResponseEntity<?>> writeReview(@RequestBody @Valid ReviewDto.WriteReviewRequest request,
+                                                     @PathVariable Long reservationId){
         Long memberId = MemberUtil.getMemberId();
-        reviewFacade.writeReviewAndAddShopStar(request, memberId, reservationId, LocalDate.now());
-        return ResponseEntity.ok().build();
+        return execute(() -> reviewFacade.writeReviewAndAddShopStar(request, memberId, reservationId, LocalDate.now()));
     }
 
     //리뷰 수정
     @PreAuthorize("hasRole('USER')")
     @PutMapping("/{reviewId}")
-    ResponseEntity<?> updateReview(@RequestBody ReviewDto.WriteReviewRequest request,
-                                   @PathVariable Long reviewId){
+    CompletableFuture<ResponseEntity<?>> updateReview(@RequestBody ReviewDto.WriteReviewRequest request,
+                                                      @PathVariable Long reviewId){
         Long memberId = MemberUtil.getMemberId();
-        reviewFacade.updateReviewAndUpdateShopStar(request, memberId, reviewId, LocalDate.now());
-        return ResponseEntity.ok().build();
+        return execute(() -> reviewFacade.updateReviewAndUpdateShopStar(request, memberId, reviewId, LocalDate.now()));
     }
 
     //리뷰 삭제
     @PreAuthorize("hasRole('USER')")
     @DeleteMapping("/{reviewId}")
-    ResponseEntity<?> deleteReview(@PathVariable Long reviewId){
+    CompletableFuture<ResponseEntity<?>> deleteReview(@PathVariable Long reviewId){
         Long memberId = MemberUtil.getMemberId();
-        reviewFacade.deleteReviewAndSubShopStar(memberId, reviewId);
-        return ResponseEntity.ok().build();
+        return execute(() -> reviewFacade.deleteReviewAndSubShopStar(memberId, reviewId));
     }
 
     //회원별 리뷰 조회(페이징 처리가 필요함.)
@@ -71,6 +80,15 @@ public class ReviewController {
         return ResponseEntity.ok(responses);
     }
 
+    //회원별 리뷰 조회 (커서 기반, cursor가 없으면 첫 페이지이고, 응답의 nextCursor로 다음 페이지를 조회함)
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/user/cursor")
+    ResponseEntity<CursorResponse<ReviewDto.ReviewResponse>> getReviewsForUserByCursor(@RequestParam(required = false) String cursor){
+        Long memberId = MemberUtil.getMemberId();
+        CursorResponse<ReviewDto.ReviewResponse> response = reviewService.getReviewsForUserByCursor(memberId, cursor);
+        return ResponseEntity.ok(response);
+    }
+
     //매장별 리뷰 조회(페이징 처리가 필요함.)
     @GetMapping("/shop/{shopId}/{pageIndex}")
     ResponseEntity<List<ReviewDto.ReviewResponse>> getReviewsForShop(@PathVariable Long shopId,
@@ -79,5 +97,18 @@ public class ReviewController {
         return ResponseEntity.ok(responses);
     }
 
+    //매장별 리뷰 조회 (커서 기반)
+    @GetMapping("/shop/{shopId}/cursor")
+    ResponseEntity<CursorResponse<ReviewDto.ReviewResponse>> getReviewsForShopByCursor(@PathVariable Long shopId,
+                                                                                     @RequestParam(required = false) String cursor){
+        CursorResponse<ReviewDto.ReviewResponse> response = reviewService.getReviewsForShopByCursor(shopId, cursor);
+        return ResponseEntity.ok(response);
+    }
+
+    //회원 정보는 요청 스레드에서 꺼내두고, 작업만 requestExecutor에서 수행함. (가득 찼다면 바로 503으로 응답함)
+    private CompletableFuture<ResponseEntity<?>> execute(Runnable task){
+        return CompletableFuture.runAsync(task, requestExecutor)
+                .thenApply(x -> ResponseEntity.ok().build());
+    }
 
 }
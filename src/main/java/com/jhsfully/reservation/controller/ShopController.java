@@ -29,7 +29,7 @@ public class ShopController {
 
     //사용자가 검색해서 조회하는 매장 정보 목록 조회
     @GetMapping("/user/{pageIndex}")
-    public ResponseEntity<Page<ShopTopResponse>> searchShops(@PathVariable int pageIndex, @ModelAttribute ShopDto.SearchShopParam param){
+    public ResponseEntity<Page<ShopTopResponse>> searchShops(@PathVariable int pageIndex, @ModelAttribute @Valid ShopDto.SearchShopParam param){
         if(param.getSearchValue() == null){
             param.setSearchValue("");
         }
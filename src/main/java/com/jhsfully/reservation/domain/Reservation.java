@@ -14,16 +14,18 @@ import java.time.LocalTime;
 @AllArgsConstructor
 @Builder
 @Entity(name = "reservation")
+//스케줄러가 예약일과 상태로 대상 예약을 id 순으로 찾기 위한 인덱스
+@Table(indexes = @Index(name = "idx_reservation_res_day_state", columnList = "res_day, reservation_state"))
 public class Reservation {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Shop shop;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Member member;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private Review review;
     private LocalDate resDay; //예약일
     private LocalTime resTime;//예약시간
@@ -0,0 +1,41 @@
+package com.jhsfully.reservation.domain;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+    매장의 (예약일, 예약시간) 단위로 남은 예약 가능 인원을 저장하는 테이블.
+    예약 시에 SUM으로 인원을 계산하지 않고, remaining을 조건부 UPDATE로 차감하여
+    동시에 같은 시간대에 예약이 들어와도, 수용인원을 넘기지 않도록 함.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity(name = "reservation_slot")
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"shop_id", "res_day", "res_time"}),
+        indexes = @Index(name = "idx_reservation_slot_res_day", columnList = "res_day"))
+public class ReservationSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long shopId;
+    private LocalDate resDay; //예약일
+    private LocalTime resTime; //예약시간
+    private int remaining; //해당 시간대에 남은 예약 가능 인원
+
+}
@@ -18,11 +18,11 @@ public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Member member;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Shop shop;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @NotNull
     private Reservation reservation;
     private int star;
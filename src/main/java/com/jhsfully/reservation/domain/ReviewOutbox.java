@@ -0,0 +1,40 @@
+package com.jhsfully.reservation.domain;
+
+import com.jhsfully.reservation.type.ReviewEventType;
+import java.time.LocalDateTime;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+    리뷰 작성/수정/삭제 이벤트를 쌓아두는 outbox 테이블.
+    리뷰와 같은 트랜잭션에서 저장되며, ReviewOutboxRelay가 id 순으로 꺼내 이벤트를 발행한 후 지움.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity(name = "review_outbox")
+public class ReviewOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private ReviewEventType eventType;
+    private Long reviewId;
+    private Long shopId;
+    private int star; //작성, 삭제 시에는 리뷰의 별점, 수정 시에는 새 별점
+    private int originStar; //수정 전의 별점 (수정 시에만 사용)
+    private LocalDateTime createdAt;
+
+}
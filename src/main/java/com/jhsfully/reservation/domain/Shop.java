@@ -11,11 +11,14 @@ import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -28,12 +31,14 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity(name = "shop")
+//반경 검색 시, 위경도 범위로 먼저 걸러내기 위한 인덱스
+@Table(indexes = @Index(name = "idx_shop_latitude_longitude", columnList = "latitude, longitude"))
 public class Shop {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Member member;
     @Column(unique = true, nullable = false)
     private String name;
@@ -60,32 +65,6 @@ public class Shop {
     private LocalDateTime updatedAt;
     private boolean isDeleted;
 
-    public void subStar(long star){
-        if(star <= 0){
-            return;
-        }
-        if(this.starSum - star < 0){
-            return;
-        }
-
-        this.starSum -= star;
-        this.reviewCount -= 1;
-    }
-    public void addStar(long star){
-        if(star <= 0){
-            return;
-        }
-        this.starSum += star;
-        this.reviewCount += 1;
-    }
-    public void calculateStar(){
-        if(this.reviewCount == 0){
-            this.star = 0;
-            return;
-        }
-        this.star = this.starSum / (double)this.reviewCount;
-    }
-
     public static ShopTopResponse toTopResponse(Shop shop){
 
         return ShopTopResponse.builder()
@@ -0,0 +1,14 @@
+package com.jhsfully.reservation.event;
+
+import lombok.Getter;
+
+@Getter
+public class ReviewDeleted extends ReviewEvent {
+
+    private final int star;
+
+    public ReviewDeleted(Long eventId, Long reviewId, Long shopId, int star) {
+        super(eventId, reviewId, shopId);
+        this.star = star;
+    }
+}
@@ -0,0 +1,21 @@
+package com.jhsfully.reservation.event;
+
+import lombok.Getter;
+
+/*
+    ReviewOutboxRelay가 outbox에서 꺼내 발행하는 리뷰 이벤트.
+    eventId는 outbox의 id이며, 같은 이벤트가 다시 발행되었는지 구분하는 데 사용할 수 있음.
+ */
+@Getter
+public abstract class ReviewEvent {
+
+    private final Long eventId;
+    private final Long reviewId;
+    private final Long shopId;
+
+    protected ReviewEvent(Long eventId, Long reviewId, Long shopId) {
+        this.eventId = eventId;
+        this.reviewId = reviewId;
+        this.shopId = shopId;
+    }
+}
@@ -0,0 +1,44 @@
+package com.jhsfully.reservation.event;
+
+import com.jhsfully.reservation.domain.ReviewOutbox;
+import com.jhsfully.reservation.repository.ReviewOutboxRepository;
+import com.jhsfully.reservation.type.ReviewEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/*
+    리뷰 이벤트를 outbox 테이블에 기록함.
+    호출한 쪽(ReviewFacade)의 트랜잭션에서 저장되므로, 리뷰가 롤백되면 이벤트도 함께 롤백됨.
+    이벤트로 바뀌는 파생 데이터(매장 별점, 리뷰 수)는 ReviewOutboxRelay가 발행한 후에 반영됨.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReviewEventOutbox {
+
+    private final ReviewOutboxRepository reviewOutboxRepository;
+
+    public void written(Long reviewId, Long shopId, int star){
+        save(ReviewEventType.WRITTEN, reviewId, shopId, star, 0);
+    }
+
+    public void updated(Long reviewId, Long shopId, int originStar, int newStar){
+        save(ReviewEventType.UPDATED, reviewId, shopId, newStar, originStar);
+    }
+
+    public void deleted(Long reviewId, Long shopId, int star){
+        save(ReviewEventType.DELETED, reviewId, shopId, star, 0);
+    }
+
+    private void save(ReviewEventType eventType, Long reviewId, Long shopId, int star, int originStar){
+        reviewOutboxRepository.save(ReviewOutbox.builder()
+                .eventType(eventType)
+                .reviewId(reviewId)
+                .shopId(shopId)
+                .star(star)
+                .originStar(originStar)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.jhsfully.reservation.event;
+
+import com.jhsfully.reservation.domain.ReviewOutbox;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.SchedulerLock;
+import com.jhsfully.reservation.repository.ReviewOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+    outbox에 쌓인 리뷰 이벤트를 발행하는 relay.
+
+    이벤트를 id 순으로 batchSize개씩 꺼내 ReviewWritten, ReviewUpdated, ReviewDeleted로 발행하고,
+    발행한 이벤트를 지움. 리스너(@EventListener)는 같은 트랜잭션 안에서 실행되므로,
+    리스너의 DB 변경과 outbox 삭제가 함께 커밋되거나 함께 롤백됨. (같은 이벤트가 두 번 반영되지 않음)
+    롤백된 이벤트는 다음 주기에 다시 발행되므로, DB 밖의 상태를 바꾸는 리스너는 eventId로 중복을 걸러야 함.
+
+    여러 서버가 떠 있더라도, lease(SchedulerLock)를 취득한 하나의 서버만 발행하므로 순서가 유지됨.
+ */
+@Slf4j
+@Component
+public class ReviewOutboxRelay {
+
+    private final ReviewOutboxRepository reviewOutboxRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate transactionTemplate;
+
+    //작업 중인 서버가 죽은 경우, 이 시간이 지나면 다른 서버가 이어서 수행할 수 있음.
+    private static final long LEASE_TIME = 30_000L;
+
+    //한 번의 트랜잭션에서 발행할 이벤트 수
+    @Value("${review.outbox-relay.batch-size:1000}")
+    private int batchSize;
+
+    //호출한 쪽에 트랜잭션이 있더라도, 배치마다 별도의 트랜잭션으로 커밋함.
+    public ReviewOutboxRelay(ReviewOutboxRepository reviewOutboxRepository,
+                             ApplicationEventPublisher applicationEventPublisher,
+                             SchedulerLock schedulerLock,
+                             PlatformTransactionManager transactionManager){
+        this.reviewOutboxRepository = reviewOutboxRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.schedulerLock = schedulerLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${review.outbox-relay.delay-millis:5000}")
+    public void relay(){
+        //다른 서버가 수행 중이라면 건너뜀.
+        LockProvider.LockHandle lease;
+        try{
+            lease = schedulerLock.tryAcquire("review-outbox-relay", LEASE_TIME);
+        }catch (RuntimeException e){
+            log.warn("리뷰 이벤트 발행 작업의 lease를 취득하지 못했습니다.", e);
+            return;
+        }
+        if(lease == null){
+            return;
+        }
+
+        try{
+            while(true){
+                Integer published;
+                try{
+                    published = transactionTemplate.execute(status -> publishBatch());
+                }catch (RuntimeException e){
+                    log.warn("리뷰 이벤트를 발행하지 못했습니다. 다음 주기에 다시 발행합니다.", e);
+                    return;
+                }
+                if(published == null || published < batchSize){
+                    return;
+                }
+            }
+        }finally {
+            lease.release();
+        }
+    }
+
+    //이벤트를 batchSize개 꺼내 발행하고 지운 후, 발행한 이벤트 수를 반환함.
+    private int publishBatch(){
+        List<ReviewOutbox> outboxes = reviewOutboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if(outboxes.isEmpty()){
+            return 0;
+        }
+
+        outboxes.forEach(outbox -> applicationEventPublisher.publishEvent(toEvent(outbox)));
+        reviewOutboxRepository.deleteAllInBatch(outboxes);
+
+        log.debug("리뷰 이벤트 발행 - {}건, 마지막 id : {}", outboxes.size(), outboxes.get(outboxes.size() - 1).getId());
+        return outboxes.size();
+    }
+
+    private static ReviewEvent toEvent(ReviewOutbox outbox){
+        switch (outbox.getEventType()){
+            case WRITTEN:
+                return new ReviewWritten(outbox.getId(), outbox.getReviewId(), outbox.getShopId(), outbox.getStar());
+            case UPDATED:
+                return new ReviewUpdated(outbox.getId(), outbox.getReviewId(), outbox.getShopId(),
+                        outbox.getOriginStar(), outbox.getStar());
+            case DELETED:
+                return new ReviewDeleted(outbox.getId(), outbox.getReviewId(), outbox.getShopId(), outbox.getStar());
+            default:
+                throw new IllegalStateException("알 수 없는 리뷰 이벤트입니다. : " + outbox.getEventType());
+        }
+    }
+}
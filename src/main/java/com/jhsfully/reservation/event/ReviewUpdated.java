@@ -0,0 +1,16 @@
+package com.jhsfully.reservation.event;
+
+import lombok.Getter;
+
+@Getter
+public class ReviewUpdated extends ReviewEvent {
+
+    private final int originStar;
+    private final int newStar;
+
+    public ReviewUpdated(Long eventId, Long reviewId, Long shopId, int originStar, int newStar) {
+        super(eventId, reviewId, shopId);
+        this.originStar = originStar;
+        this.newStar = newStar;
+    }
+}
@@ -0,0 +1,146 @@
+package com.jhsfully.reservation.event;
+
+import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.search.ShopSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    리뷰 이벤트로 매장의 별점 합계, 리뷰 수, 평균 별점을 갱신함.
+    - 작성 : (+별점, +1), 수정 : (새 별점 - 기존 별점, 0), 삭제 : (-별점, -1)
+    - 0 이하의 별점은 반영하지 않음.
+
+    relay의 트랜잭션 동안 받은 변경량을 매장별로 모아두었다가, 커밋 직전에 매장마다 한 번의 UPDATE로 반영함.
+    outbox 삭제와 같은 트랜잭션에서 반영되므로, 같은 이벤트가 두 번 반영되지 않음.
+    반영된 매장은 커밋된 후 검색 인덱스(ShopSearchIndex)에도 반영함.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShopStarProjection {
+
+    private final ShopRepository shopRepository;
+    private final ShopSearchIndex shopSearchIndex;
+
+    @EventListener
+    public void on(ReviewWritten event){
+        if(event.getStar() <= 0){
+            return;
+        }
+        accumulate(event, event.getStar(), 1);
+    }
+
+    @EventListener
+    public void on(ReviewUpdated event){
+        if(event.getOriginStar() <= 0 || event.getNewStar() <= 0 || event.getOriginStar() == event.getNewStar()){
+            return;
+        }
+        accumulate(event, event.getNewStar() - event.getOriginStar(), 0);
+    }
+
+    @EventListener
+    public void on(ReviewDeleted event){
+        if(event.getStar() <= 0){
+            return;
+        }
+        accumulate(event, -event.getStar(), -1);
+    }
+
+    //======================= 내부 로직 =========================
+
+    private void accumulate(ReviewEvent event, long starDelta, long reviewCountDelta){
+        StarDelta delta = new StarDelta(event.getEventId(), starDelta, reviewCountDelta);
+
+        //트랜잭션 밖이라면, 바로 반영함.
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            applyShopDeltas(event.getShopId(), List.of(delta));
+            refreshSearchIndex(List.of(event.getShopId()));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, List<StarDelta>> pending = (Map<Long, List<StarDelta>>) TransactionSynchronizationManager.getResource(this);
+        if(pending == null){
+            pending = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            registerFlush(pending);
+        }
+        pending.computeIfAbsent(event.getShopId(), id -> new ArrayList<>()).add(delta);
+    }
+
+    private void registerFlush(Map<Long, List<StarDelta>> pending){
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                pending.forEach(ShopStarProjection.this::applyShopDeltas);
+            }
+
+            @Override
+            public void afterCommit() {
+                refreshSearchIndex(new ArrayList<>(pending.keySet()));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ShopStarProjection.this);
+            }
+        });
+    }
+
+    /*
+        매장의 변경량을 합산하여 한 번에 반영함.
+        합산 결과가 별점 합계나 리뷰 수를 음수로 만들어 반영되지 않았다면,
+        발행된 순서대로 하나씩 반영하여, 음수를 만드는 변경량만 무시되도록 함.
+     */
+    private void applyShopDeltas(Long shopId, List<StarDelta> deltas){
+        long starDelta = 0L;
+        long reviewCountDelta = 0L;
+        for(StarDelta delta : deltas){
+            starDelta += delta.starDelta;
+            reviewCountDelta += delta.reviewCountDelta;
+        }
+
+        if(starDelta == 0 && reviewCountDelta == 0){
+            return;
+        }
+        if(shopRepository.applyStarDelta(shopId, starDelta, reviewCountDelta) > 0 || deltas.size() == 1){
+            return;
+        }
+
+        for(StarDelta delta : deltas){
+            if(shopRepository.applyStarDelta(shopId, delta.starDelta, delta.reviewCountDelta) == 0){
+                log.debug("반영되지 않은 별점 변경량 - 매장 : {}, 이벤트 id : {}", shopId, delta.eventId);
+            }
+        }
+    }
+
+    private void refreshSearchIndex(List<Long> shopIds){
+        try{
+            shopRepository.findAllById(shopIds).forEach(shopSearchIndex::put);
+        }catch (RuntimeException e){
+            //주기적으로 다시 적재되므로, 실패하더라도 이벤트 처리는 완료된 것으로 봄.
+            log.warn("검색 인덱스에 별점을 반영하지 못했습니다. 매장 : {}", shopIds, e);
+        }
+    }
+
+    private static class StarDelta {
+        private final Long eventId;
+        private final long starDelta;
+        private final long reviewCountDelta;
+
+        private StarDelta(Long eventId, long starDelta, long reviewCountDelta) {
+            this.eventId = eventId;
+            this.starDelta = starDelta;
+            this.reviewCountDelta = reviewCountDelta;
+        }
+    }
+}
@@ -3,17 +3,20 @@ package com.jhsfully.reservation.exception;
 import com.jhsfully.reservation.model.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import static com.jhsfully.reservation.type.AuthenticationErrorType.AUTHENTICATION_UNAUTHORIZED;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
+    //@RequestBody(MethodArgumentNotValidException)와 @ModelAttribute(BindException)의 검증 실패
+    @ExceptionHandler(BindException.class)
     public ResponseEntity<?> inputArgsExceptionHandler(BindingResult bindingResult){
         String message = bindingResult.getFieldError().getDefaultMessage();
 
@@ -45,4 +48,12 @@ public class GlobalExceptionHandler {
         );
     }
 
+    //requestExecutor가 가득 차서, 요청을 처리할 수 없는 경우
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> rejectedExecutionExceptionHandler(RejectedExecutionException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.")
+        );
+    }
+
 }
@@ -1,9 +1,9 @@
 package com.jhsfully.reservation.facade;
 
+import com.jhsfully.reservation.event.ReviewEventOutbox;
 import com.jhsfully.reservation.model.ReviewDto;
 import com.jhsfully.reservation.service.ReservationService;
 import com.jhsfully.reservation.service.ReviewService;
-import com.jhsfully.reservation.service.ShopService;
 import java.time.LocalDate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -13,7 +13,9 @@ import org.springframework.transaction.annotation.Transactional;
     분산환경을 고려하여, 격리 수준을 커밋된 데이터를 가져오는 것으로 설정함.
     이는 트랜잭션을 수행 중간에, 타 서버에서 DB에 커밋을 수행하였고, 해당 값을 가져올 수 있게함.
 
-    REVIEW - RESERVATION - SHOP 데이터가 일관성을 유지해야함.
+    REVIEW - RESERVATION 데이터는 같은 트랜잭션에서 변경하여 일관성을 유지하고,
+    SHOP의 별점 데이터는 같은 트랜잭션에서 outbox에 기록한 이벤트(ReviewEventOutbox)로 나중에 반영함.
+    (매장 단위 Lock을 잡지 않으므로, 트랜잭션과 DB 커넥션을 짧게 사용함)
  */
 
 @Component
@@ -22,14 +24,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class ReviewFacade {
 
     private final ReviewService reviewService;
-    private final ShopService shopService;
+    private final ReviewEventOutbox reviewEventOutbox;
     private final ReservationService reservationService;
 
     /*
         reviewService에서 리뷰 작성 여부를 검증.
         작성 가능하면, 객체 반환,
         이후에, reservationService에서 리뷰를 할당함.
-        이후에, shopService에서 별점을 더함.
+        이후에, 별점을 더하는 이벤트를 기록함.
      */
     public void writeReviewAndAddShopStar(ReviewDto.WriteReviewRequest request,
                                           Long memberId, Long reservationId,
@@ -40,14 +42,14 @@ public class ReviewFacade {
         );
 
         reservationService.setReview(reservationId, reviewResponse.getReviewId());
-        shopService.addShopStar(reviewResponse.getShopId(), request.getStar());
+        reviewEventOutbox.written(reviewResponse.getReviewId(), reviewResponse.getShopId(), request.getStar());
 
     }
 
     /*
         reviewService에서 리뷰 수정 여부를 검증.
         작성 가능하면, 필요한 데이터 반환
-        이후에, 별점을 수정함.
+        이후에, 별점을 수정하는 이벤트를 기록함.
      */
     public void updateReviewAndUpdateShopStar(ReviewDto.WriteReviewRequest request,
                                               Long memberId, Long reviewId,
@@ -56,7 +58,7 @@ public class ReviewFacade {
                 request, memberId, reviewId, dateNow
         );
 
-        shopService.updateShopStar(reviewResponse.getShopId(),
+        reviewEventOutbox.updated(reviewId, reviewResponse.getShopId(),
                 reviewResponse.getOriginStar(), request.getStar());
     }
 
@@ -70,7 +72,7 @@ public class ReviewFacade {
 
         reservationService.releaseReview(reviewResponse.getReservationId());
         reviewService.deleteReviewComplete(reviewId);
-        shopService.subShopStar(reviewResponse.getShopId(), reviewResponse.getStar());
+        reviewEventOutbox.deleted(reviewId, reviewResponse.getShopId(), reviewResponse.getStar());
     }
 
 }
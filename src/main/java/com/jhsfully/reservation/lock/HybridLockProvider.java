@@ -0,0 +1,51 @@
+package com.jhsfully.reservation.lock;
+
+/*
+    서버 내부 lock(local)을 먼저 잡고, 잡은 스레드만 Redis lock을 두고 경쟁하는 LockProvider.
+    같은 서버의 요청들은 서버 내부에서 줄을 서므로, 서버마다 한 스레드만 Redis에 요청을 보내게 되어,
+    경쟁 상황에서의 Redis 요청 수가 줄어듬.
+ */
+public class HybridLockProvider implements LockProvider {
+
+    private final LockProvider localLockProvider;
+    private final LockProvider redisLockProvider;
+
+    public HybridLockProvider(LockProvider localLockProvider, LockProvider redisLockProvider){
+        this.localLockProvider = localLockProvider;
+        this.redisLockProvider = redisLockProvider;
+    }
+
+    @Override
+    public LockHandle tryLock(String lockKey, long waitTime, long leaseTime, WaitStrategy waitStrategy) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + waitTime;
+
+        LockHandle localHandle = localLockProvider.tryLock(lockKey, waitTime, leaseTime, waitStrategy);
+        if(localHandle == null){
+            return null;
+        }
+
+        //local lock을 기다린 시간을 제외한, 남은 시간 동안만 Redis lock을 기다림.
+        LockHandle redisHandle;
+        try{
+            long remaining = Math.max(endTime - System.currentTimeMillis(), 0L);
+            redisHandle = redisLockProvider.tryLock(lockKey, remaining, leaseTime, waitStrategy);
+        }catch (InterruptedException | RuntimeException e){
+            localHandle.release();
+            throw e;
+        }
+
+        if(redisHandle == null){
+            localHandle.release();
+            return null;
+        }
+
+        //Redis lock을 먼저 반납하여, 다른 서버의 대기자가 바로 가져갈 수 있도록 함.
+        return () -> {
+            try{
+                redisHandle.release();
+            }finally {
+                localHandle.release();
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.jhsfully.reservation.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    서버(JVM) 내부에서만 유효한 LockProvider.
+    lockKey의 hash로 고정된 개수의 ReentrantLock(stripe) 중 하나를 골라 사용하므로,
+    lockKey마다 객체를 만들거나 지우지 않음. (서로 다른 key가 같은 stripe를 공유할 수는 있음)
+    서버 내부의 lock이므로, leaseTime과 waitStrategy는 사용하지 않음.
+ */
+public class LocalLockProvider implements LockProvider {
+
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+
+    public LocalLockProvider(){
+        this(DEFAULT_STRIPES);
+    }
+
+    public LocalLockProvider(int stripeCount){
+        this.stripes = new ReentrantLock[stripeCount];
+        for(int i = 0; i < stripeCount; i++){
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public LockHandle tryLock(String lockKey, long waitTime, long leaseTime, WaitStrategy waitStrategy) throws InterruptedException {
+        ReentrantLock lock = stripeOf(lockKey);
+        if(!lock.tryLock(waitTime, TimeUnit.MILLISECONDS)){
+            return null;
+        }
+        return lock::unlock;
+    }
+
+    private ReentrantLock stripeOf(String lockKey){
+        int hash = lockKey.hashCode();
+        hash ^= (hash >>> 16); //상위 비트도 stripe 선택에 반영함.
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+}
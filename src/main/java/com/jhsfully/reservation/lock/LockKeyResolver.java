@@ -0,0 +1,150 @@
+package com.jhsfully.reservation.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    @RedisLock의 key/keys 경로를 해석하여, lockKey를 만들어주는 객체.
+
+    메소드마다 처음 한 번만 파라미터 이름을 찾고, 경로를 나누어, 멤버변수의 getter(MethodHandle)를 만들어두고,
+    이후 호출부터는 캐싱된 추출기로 매개변수에서 바로 값을 꺼내므로, 리플렉션을 사용하지 않음.
+ */
+@Component
+@RequiredArgsConstructor
+public class LockKeyResolver {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    //함수의 파라미터의 name을 가져오는 객체임.(추출기를 처음 만들 때만 사용함)
+    private final DefaultParameterNameDiscoverer parameterNameDiscoverer;
+
+    private final ConcurrentHashMap<Method, KeyExtractor> extractors = new ConcurrentHashMap<>();
+
+    //ex) "lock:reservation-3-1-2023-07-16"
+    public String resolve(Method method, RedisLock redisLock, Object[] args){
+        KeyExtractor extractor = extractors.get(method);
+        if(extractor == null){
+            extractor = extractors.computeIfAbsent(method, m -> compile(m, redisLock));
+        }
+        return extractor.extract(args);
+    }
+
+    /*
+        keys가 지정되어 있다면, 각 경로의 값을 "-"로 이어붙여 lock key를 만들고,
+        그렇지 않다면, key에 지정된 경로의 값을 그대로 사용함.
+        ex) keys = {"memberId", "request.shopId", "request.resDay"} => "3-1-2023-07-16"
+     */
+    private KeyExtractor compile(Method method, RedisLock redisLock){
+        String[] paths = redisLock.keys().length == 0 ? new String[]{redisLock.key()} : redisLock.keys();
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        if(parameterNames == null){
+            throw new IllegalStateException("파라미터 이름을 찾을 수 없습니다. : " + method);
+        }
+
+        PathExtractor[] pathExtractors = new PathExtractor[paths.length];
+        for(int i = 0; i < paths.length; i++){
+            pathExtractors[i] = compilePath(method, parameterNames, paths[i]);
+        }
+
+        //그룹과 키를 조합하여 lockKey를 형성함.
+        return new KeyExtractor("lock:" + redisLock.group() + "-", pathExtractors);
+    }
+
+    //파라미터.멤버변수.X 와 같이 표시된 경로를, 파라미터 위치와 멤버변수 getter들로 변환함.
+    private PathExtractor compilePath(Method method, String[] parameterNames, String path){
+        String[] parameterPath = path.split("\\.");
+
+        int argIndex = -1;
+        for(int i = 0; i < parameterNames.length; i++){
+            if(parameterNames[i].equals(parameterPath[0])){
+                argIndex = i;
+                break;
+            }
+        }
+        if(argIndex < 0){
+            throw new IllegalStateException("lock key의 파라미터를 찾을 수 없습니다. : " + path);
+        }
+
+        Class<?> type = method.getParameterTypes()[argIndex];
+        MethodHandle[] getters = new MethodHandle[parameterPath.length - 1];
+        try{
+            for(int i = 1; i < parameterPath.length; i++){
+                Field field = findField(type, parameterPath[i]);
+                getters[i - 1] = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                        .unreflectGetter(field)
+                        .asType(GETTER_TYPE);
+                type = field.getType();
+            }
+        }catch (NoSuchFieldException | IllegalAccessException e){
+            throw new IllegalStateException("데이터 구조가 올바르지 않습니다. : " + path, e);
+        }
+
+        return new PathExtractor(argIndex, getters);
+    }
+
+    private Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for(Class<?> current = type; current != null; current = current.getSuperclass()){
+            try{
+                return current.getDeclaredField(name);
+            }catch (NoSuchFieldException ignored){
+                //상위 클래스에서 다시 찾음.
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static class KeyExtractor{
+        private final String prefix;
+        private final PathExtractor[] paths;
+
+        private KeyExtractor(String prefix, PathExtractor[] paths){
+            this.prefix = prefix;
+            this.paths = paths;
+        }
+
+        private String extract(Object[] args){
+            if(paths.length == 1){
+                return prefix.concat(String.valueOf(paths[0].extract(args)));
+            }
+
+            StringBuilder builder = new StringBuilder(prefix);
+            for(int i = 0; i < paths.length; i++){
+                if(i > 0){
+                    builder.append('-');
+                }
+                builder.append(paths[i].extract(args));
+            }
+            return builder.toString();
+        }
+    }
+
+    private static class PathExtractor{
+        private final int argIndex;
+        private final MethodHandle[] getters;
+
+        private PathExtractor(int argIndex, MethodHandle[] getters){
+            this.argIndex = argIndex;
+            this.getters = getters;
+        }
+
+        private Object extract(Object[] args){
+            Object value = args[argIndex];
+            try{
+                for(int i = 0; i < getters.length && value != null; i++){
+                    value = (Object) getters[i].invokeExact(value);
+                }
+            }catch (Throwable e){
+                throw new IllegalStateException("lock key를 가져오지 못했습니다.", e);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.jhsfully.reservation.lock;
+
+/*
+    LockAspect가 실제로 lock을 잡는 방식을 추상화한 인터페이스.
+    - redis : Redis key로 lock을 잡음. (분산 환경)
+    - local : 서버(JVM) 내부의 ReentrantLock으로 lock을 잡음. (단일 서버, Redis 없는 테스트)
+    - hybrid : 서버 내부 lock을 먼저 잡은 스레드만 Redis lock을 두고 경쟁함.
+ */
+public interface LockProvider {
+
+    //waitTime 내에 lock을 취득하였다면 반납에 사용할 LockHandle을, 취득하지 못했다면 null을 리턴함.
+    LockHandle tryLock(String lockKey, long waitTime, long leaseTime, WaitStrategy waitStrategy) throws InterruptedException;
+
+    interface LockHandle {
+        void release();
+    }
+}
@@ -0,0 +1,47 @@
+package com.jhsfully.reservation.lock;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/*
+    lock 반납 채널의 메세지를 받아, 해당 lockKey를 기다리는 스레드들을 깨워주는 리스너.
+    메세지의 body는 반납된 lockKey임.
+ */
+@Component
+public class LockReleaseListener implements MessageListener {
+
+    public static final String LOCK_RELEASE_CHANNEL = "lock:release";
+
+    //lockKey별로 기다리고 있는 스레드들의 latch
+    private final ConcurrentHashMap<String, Set<CountDownLatch>> waiters = new ConcurrentHashMap<>();
+
+    //lock 취득을 시도하기 전에 등록해야, 취득 실패 ~ 대기 사이에 반납된 메세지를 놓치지 않음.
+    public CountDownLatch register(String lockKey){
+        CountDownLatch latch = new CountDownLatch(1);
+        waiters.computeIfAbsent(lockKey, k -> ConcurrentHashMap.newKeySet()).add(latch);
+        return latch;
+    }
+
+    public void unregister(String lockKey, CountDownLatch latch){
+        waiters.computeIfPresent(lockKey, (k, latches) -> {
+            latches.remove(latch);
+            return latches.isEmpty() ? null : latches;
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String lockKey = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        Set<CountDownLatch> latches = waiters.get(lockKey);
+        if(latches != null){
+            latches.forEach(CountDownLatch::countDown);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.jhsfully.reservation.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+    lock을 가진 동안, 백그라운드에서 lock의 만료시간(lease)을 주기적으로 연장해주는 객체.
+    - lease의 1/3이 지날 때마다 연장하므로, 임계구역이 lease보다 길어지더라도 lock이 만료되지 않음.
+    - 서버가 죽으면 연장이 멈추므로, lock은 lease 이내에 만료되어 다른 서버가 가져갈 수 있음.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockWatchdog {
+
+    //내가 가진 lock(owner token이 일치)인 경우에만 만료시간을 연장함.
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                    "else return 0 end",
+            Long.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redis-lock-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //lock을 반납할 때 반환된 ScheduledFuture를 cancel하여 연장을 멈춰야 함.
+    public ScheduledFuture<?> watch(String lockKey, String token, long leaseTime){
+        long period = Math.max(leaseTime / 3, 1L);
+        return scheduler.scheduleAtFixedRate(
+                () -> renew(lockKey, token, leaseTime), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(String lockKey, String token, long leaseTime){
+        Long renewed;
+        try{
+            renewed = redisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(lockKey),
+                    token, String.valueOf(leaseTime));
+        }catch (RuntimeException e){
+            //일시적인 Redis 장애라면, 다음 주기에 다시 연장을 시도함.
+            log.warn(lockKey + "의 만료시간 연장에 실패하였습니다.", e);
+            return;
+        }
+
+        if(renewed == null || renewed == 0L){
+            //이미 만료되어 다른 곳에서 lock을 가져간 경우, 더 이상 연장하지 않음.
+            //(예외를 던지면 이후의 스케줄이 취소됨)
+            log.warn(lockKey + "의 소유권을 잃어, 만료시간 연장을 중단합니다.");
+            throw new IllegalStateException("lock ownership lost : " + lockKey);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        scheduler.shutdownNow();
+    }
+}
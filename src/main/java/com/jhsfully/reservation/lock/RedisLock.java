@@ -10,4 +10,16 @@ import java.lang.annotation.Target;
 public @interface RedisLock {
     String group() default "";
     String key() default "";
+    //여러 매개변수 경로를 조합하여 lock key를 만들 때 사용함. (지정되면 key보다 우선함)
+    //ex) keys = {"memberId", "request.shopId", "request.resDay"}
+    String[] keys() default {};
+    //lock을 기다리는 방식
+    WaitStrategy waitStrategy() default WaitStrategy.SPIN;
+    //lock을 기다리는 최대 시간(ms), 이 시간 내에 취득하지 못하면 REDIS_ALREADY_LOCKED
+    long waitTime() default 2_000L;
+    //lock의 만료시간(ms), 메소드 수행 중에는 계속 연장되며, 서버가 죽은 경우에만 이 시간 후 만료됨.
+    long leaseTime() default 5_000L;
+    //lock을 잡을지 여부, 설정값(${...})과 SpEL(#{...})을 사용할 수 있으며, 결과가 "false"라면 lock 없이 수행함.
+    //ex) condition = "#{'${reservation.admission:database}' == 'database'}"
+    String condition() default "";
 }
@@ -0,0 +1,134 @@
+package com.jhsfully.reservation.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.jhsfully.reservation.lock.LockReleaseListener.LOCK_RELEASE_CHANNEL;
+
+/*
+    Redis의 key로 lock을 잡는 LockProvider. (여러 서버가 떠 있는 분산 환경에서 사용함)
+    - 취득마다 고유한 owner token을 값으로 저장하고, 반납은 token이 일치할 때만 수행함.
+    - lock을 가진 동안에는 LockWatchdog이 만료시간을 계속 연장함.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisLockProvider implements LockProvider {
+
+    //내가 가진 lock(owner token이 일치)인 경우에만 삭제함.
+    //만료되어 다른 곳에서 가져간 lock을 지우지 않도록, 비교와 삭제를 원자적으로 수행함.
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "return redis.call('del', KEYS[1]) " +
+                    "else return 0 end",
+            Long.class
+    );
+
+    //starter-data-redis의존성에서 기본적으로 주입해주는 redisTemplate
+    private final RedisTemplate<String, String> redisTemplate;
+
+    //lock 반납 채널을 구독하여, PUBSUB 방식으로 기다리는 스레드를 깨워줌.
+    private final LockReleaseListener lockReleaseListener;
+
+    //lock을 가진 동안, lock의 만료시간을 연장해줌.
+    private final LockWatchdog lockWatchdog;
+
+    @Override
+    public LockHandle tryLock(String lockKey, long waitTime, long leaseTime, WaitStrategy waitStrategy) throws InterruptedException {
+        String token = getLock(lockKey, waitTime, leaseTime, waitStrategy);
+        if(token == null){
+            return null;
+        }
+
+        ScheduledFuture<?> renewal = lockWatchdog.watch(lockKey, token, leaseTime);
+        return () -> {
+            renewal.cancel(false);
+            releaseLock(lockKey, token);
+        };
+    }
+
+    // lock을 얻는 함수. 취득하였다면 owner token을, 취득하지 못했다면 null을 리턴함.
+    private String getLock(String lockKey, long timeout, long leaseTime, WaitStrategy waitStrategy) throws InterruptedException {
+        //취득마다 고유한 token을 값으로 저장하여, 반납/연장 시 내가 가진 lock인지 확인함.
+        String token = UUID.randomUUID().toString();
+
+        boolean acquired = waitStrategy == WaitStrategy.PUBSUB ?
+                getLockWithPubSub(lockKey, token, timeout, leaseTime) :
+                getLockWithSpin(lockKey, token, timeout, leaseTime);
+
+        return acquired ? token : null;
+    }
+
+    private boolean getLockWithSpin(String lockKey, String token, long timeout, long leaseTime) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + timeout; //종료시간 = 현재 시간 + 타임 아웃
+
+        //timeout시간내에 lock을 취득하지 못하면 false를 리턴하게 되어있음. (timeout이 0이어도 한 번은 시도함)
+        while(true){
+            if(tryLock(lockKey, token, leaseTime)){
+                return true;
+            }
+
+            long remaining = endTime - System.currentTimeMillis();
+            if(remaining <= 0){
+                return false;
+            }
+
+            //서버에 부하가 가지 않도록 0.1초 정도 딜레이를 준 이후에 다시 lock취득을 요청함.
+            Thread.sleep(Math.min(100L, remaining));
+        }
+    }
+
+    /*
+        lock 반납 메세지가 올 때까지 대기하다가, 메세지를 받으면 바로 취득을 재시도함.
+        대기 등록을 취득 시도보다 먼저 하므로, 그 사이에 반납된 경우에도 메세지를 놓치지 않음.
+        lock을 가진 서버가 죽어 반납 메세지 없이 만료되는 경우에도, timeout까지만 기다림.
+     */
+    private boolean getLockWithPubSub(String lockKey, String token, long timeout, long leaseTime) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + timeout;
+
+        while(true){
+            CountDownLatch latch = lockReleaseListener.register(lockKey);
+            try{
+                if(tryLock(lockKey, token, leaseTime)){
+                    return true;
+                }
+
+                long remaining = endTime - System.currentTimeMillis();
+                if(remaining <= 0){
+                    return false;
+                }
+                latch.await(remaining, TimeUnit.MILLISECONDS);
+            }finally {
+                lockReleaseListener.unregister(lockKey, latch);
+            }
+        }
+    }
+
+    private boolean tryLock(String lockKey, String token, long leaseTime){
+        //lock의 생명주기는 최소 (메소드 수행 완료 시간) ~ 최대(leaseTime)이며,
+        //메소드 수행 중에는 LockWatchdog이 계속 연장해주므로, 서버가 죽은 경우에만 leaseTime 후 만료됨.
+        Boolean result = redisTemplate.opsForValue().setIfAbsent(lockKey, token, Duration.ofMillis(leaseTime));
+        return Boolean.TRUE.equals(result);
+    }
+
+    // lock을 반납하는 함수. (반납 채널에 알려, PUBSUB 방식으로 기다리는 스레드를 깨움)
+    private void releaseLock(String lockKey, String token){
+        Long released = redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(lockKey), token);
+
+        if(released == null || released == 0L){
+            //leaseTime이 지나 이미 만료되었거나, 다른 곳에서 가져간 lock이므로 건드리지 않음.
+            log.warn(lockKey + "는 이미 만료되어, 반환하지 않았습니다.");
+            return;
+        }
+        redisTemplate.convertAndSend(LOCK_RELEASE_CHANNEL, lockKey);
+    }
+}
@@ -0,0 +1,34 @@
+package com.jhsfully.reservation.lock;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+    여러 서버에서 같은 스케줄이 동시에 실행될 때, 하나의 서버만 작업을 수행하도록 하는 lock.
+
+    lock.provider 설정과 관계없이 항상 Redis key로 lease를 잡으며, 기다리지 않음.
+    - lease를 가진 동안에는 LockWatchdog이 만료시간을 계속 연장하므로, 작업이 길어져도 만료되지 않음.
+    - 작업 중인 서버가 죽으면 연장이 멈추므로, leaseTime 후에 다른 서버가 lease를 가져갈 수 있음.
+ */
+@Component
+public class SchedulerLock {
+
+    private final RedisLockProvider redisLockProvider;
+
+    public SchedulerLock(RedisTemplate<String, String> redisTemplate,
+                         LockReleaseListener lockReleaseListener,
+                         LockWatchdog lockWatchdog){
+        this.redisLockProvider = new RedisLockProvider(redisTemplate, lockReleaseListener, lockWatchdog);
+    }
+
+    //lease를 취득하였다면 반납에 사용할 LockHandle을, 다른 서버가 가지고 있다면 null을 리턴함.
+    //ex) "lock:scheduler-reservation-state-2023-07-16"
+    public LockProvider.LockHandle tryAcquire(String name, long leaseTime){
+        try{
+            return redisLockProvider.tryLock("lock:scheduler-" + name, 0L, leaseTime, WaitStrategy.SPIN);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
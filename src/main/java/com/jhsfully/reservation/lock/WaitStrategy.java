@@ -0,0 +1,11 @@
+package com.jhsfully.reservation.lock;
+
+/*
+    lock을 얻지 못했을 때, 기다리는 방식.
+    SPIN : 일정 간격(0.1초)으로 lock 취득을 재시도함.
+    PUBSUB : lock 반납 채널을 구독하여, lock이 반납되는 즉시 깨어나 취득을 재시도함.
+ */
+public enum WaitStrategy {
+    SPIN,
+    PUBSUB
+}
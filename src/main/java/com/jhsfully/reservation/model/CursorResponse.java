@@ -0,0 +1,40 @@
+package com.jhsfully.reservation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+    커서 기반 페이징 응답.
+    전체 개수를 세지 않고, 다음 페이지가 있는지와 다음 페이지를 요청할 때 사용할 커서만 함께 반환함.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorResponse<T> {
+    private List<T> content;
+    private boolean hasNext;
+    private String nextCursor; //다음 페이지 요청 시 그대로 보내야하는 값 (다음 페이지가 없다면 null)
+
+    /*
+        size + 1개를 조회한 결과(rows)를 받아, size개만 응답에 담고,
+        한 개가 더 조회되었다면 다음 페이지가 있는 것으로 판단함.
+     */
+    public static <E, T> CursorResponse<T> of(List<E> rows, int size,
+                                              Function<E, T> mapper, Function<E, String> cursorOf){
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+
+        return CursorResponse.<T>builder()
+                .content(page.stream().map(mapper).collect(Collectors.toList()))
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null)
+                .build();
+    }
+}
@@ -69,4 +69,33 @@ public class ReservationDto {
 
     }
 
+    //키오스크 인덱스(KioskReservationIndex)에 올려둘 예약 (회원, 매장, 점주와 조인한 결과를 담기 위함)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class KioskReservation{
+        private Long id;
+        private Long shopId;
+        private Long ownerId; //매장 주인(파트너)의 id
+        private String phone; //예약한 회원의 전화번호
+        private String memberName;
+        private String shopName;
+        private LocalDate resDay;
+        private LocalTime resTime;
+        private int count;
+        private ReservationState reservationState;
+        private String note;
+    }
+
+    //매장의 날짜, 시간대별로 집계된 예약 인원 (GROUP BY 결과를 담기 위함)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservedCount{
+        private LocalDate resDay;
+        private LocalTime resTime;
+        private int count;
+    }
+
 }
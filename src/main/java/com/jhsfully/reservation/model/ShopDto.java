@@ -12,6 +12,7 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -58,6 +59,24 @@ public class ShopDto {
         private boolean isAscending;
         private double latitude;
         private double longitude;
+        //지정된 경우, 현재 위치에서 radiusMeters(m) 이내의 매장만 검색함. (비어있다면 반경 제한 없음)
+        @Positive(message = "검색 반경은 0보다 커야 합니다.")
+        private Double radiusMeters;
+    }
+
+    //매장 검색 인덱스(ShopSearchIndex)에 올라가는 매장 데이터
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ShopSearchEntry{
+        private Long id;
+        private String name;
+        private String introduce;
+        private String address;
+        private double latitude;
+        private double longitude;
+        private double star;
     }
 
     @Data
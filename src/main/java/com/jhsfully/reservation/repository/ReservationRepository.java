@@ -8,8 +8,6 @@ import com.jhsfully.reservation.repository.custom.ReservationCustomRepository;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -17,7 +15,7 @@ import org.springframework.stereotype.Repository;
 public interface ReservationRepository extends JpaRepository<Reservation, Long>,
     ReservationCustomRepository {
     Optional<Reservation> findByReview(Review review);
-    Page<Reservation> findByMemberAndResDayGreaterThanEqual(Member member, LocalDate startDate, Pageable pageable);
-    Page<Reservation> findByShopAndResDayGreaterThanEqual(Shop shop, LocalDate startDate, Pageable pageable);
+    long countByMemberAndResDayGreaterThanEqual(Member member, LocalDate startDate);
+    long countByShopAndResDayGreaterThanEqual(Shop shop, LocalDate startDate);
     Optional<Reservation> findByMemberAndShopAndResDayAndResTimeGreaterThanEqual(Member member, Shop shop, LocalDate resDay, LocalTime now);
 }
@@ -0,0 +1,14 @@
+package com.jhsfully.reservation.repository;
+
+import com.jhsfully.reservation.domain.ReservationSlot;
+import com.jhsfully.reservation.repository.custom.ReservationSlotCustomRepository;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationSlotRepository extends JpaRepository<ReservationSlot, Long>,
+    ReservationSlotCustomRepository {
+    boolean existsByShopIdAndResDayAndResTime(Long shopId, LocalDate resDay, LocalTime resTime);
+}
@@ -0,0 +1,12 @@
+package com.jhsfully.reservation.repository;
+
+import com.jhsfully.reservation.domain.ReviewOutbox;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReviewOutboxRepository extends JpaRepository<ReviewOutbox, Long> {
+    List<ReviewOutbox> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -3,15 +3,15 @@ package com.jhsfully.reservation.repository;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Review;
 import com.jhsfully.reservation.domain.Shop;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.jhsfully.reservation.repository.custom.ReviewCustomRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewCustomRepository {
 
-    Page<Review> findByMember(Member member, Pageable pageable);
+    //목록은 ReviewCustomRepository에서 Projection으로 조회하고, 전체 개수는 필요할 때만 PageCountCache를 통해 조회함.
+    long countByMember(Member member);
 
-    Page<Review> findByShop(Shop shop, Pageable pageable);
+    long countByShop(Shop shop);
 }
@@ -3,13 +3,24 @@ package com.jhsfully.reservation.repository;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Shop;
 import com.jhsfully.reservation.repository.custom.ShopCustomRepository;
-import org.springframework.data.domain.Page;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ShopRepository extends JpaRepository<Shop, Long>, ShopCustomRepository {
-    Page<Shop> findByMemberAndIsDeletedFalse(Member member, Pageable pageable);
+    List<Shop> findByMemberAndIsDeletedFalse(Member member, Pageable pageable);
+    long countByMemberAndIsDeletedFalse(Member member);
+
+    //매장 수정이 예약 시간대의 생성과 순서대로 수행되도록, 매장 row에 lock을 걸어 조회함.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from shop s where s.id = :id")
+    Optional<Shop> findByIdForUpdate(@Param("id") Long id);
 
 }
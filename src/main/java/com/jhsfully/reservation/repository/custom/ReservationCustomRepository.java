@@ -1,18 +1,29 @@
 package com.jhsfully.reservation.repository.custom;
 
 import com.jhsfully.reservation.domain.Member;
-import com.jhsfully.reservation.domain.Reservation;
 import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ReservationDto;
+import com.jhsfully.reservation.type.ReservationState;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface ReservationCustomRepository {
 
-  void updateReservationState(LocalDate today);
-  Page<Reservation> findReservationForReview(Member member, LocalDate dateNow, Pageable pageable);
+  List<Long> findIdsWithStateAndDay(ReservationState state, LocalDate day, Long afterId, int limit);
+  long updateReservationState(List<Long> ids, ReservationState from, ReservationState to);
+  long updateReservationStateToVisited(Long reservationId);
+  Page<ReservationDto.ResponseForReview> findReservationForReview(Member member, LocalDate dateNow, Pageable pageable);
   Integer getReservationCountWithShopAndDayForMember(Shop shop, Member member, LocalDate day);
   Integer getReservationCountWithShopAndTime(Shop shop, LocalDate day, LocalTime time);
+  List<Long> findActiveMemberIdsWithShopAndDay(Shop shop, LocalDate day);
+  List<ReservationDto.KioskReservation> findKioskReservationsWithDay(LocalDate day);
+  List<ReservationDto.ReservedCount> getReservedCountsWithShopBetweenDays(Shop shop, LocalDate startDay, LocalDate endDay);
+  List<ReservationDto.ReservationResponse> findResponsesByMember(Member member, LocalDate startDate, Pageable pageable);
+  List<ReservationDto.ReservationResponse> findResponsesByShop(Shop shop, LocalDate startDate, Pageable pageable);
+  List<ReservationDto.ReservationResponse> findByMemberAfterCursor(Member member, LocalDate startDate, LocalDate cursorDay, Long cursorId, int limit);
+  List<ReservationDto.ReservationResponse> findByShopAfterCursor(Shop shop, LocalDate startDate, LocalDate cursorDay, Long cursorId, int limit);
 
 }
@@ -0,0 +1,16 @@
+package com.jhsfully.reservation.repository.custom;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface ReservationSlotCustomRepository {
+
+  void createSlot(Long shopId, LocalDate resDay, LocalTime resTime, int reservedCount);
+  long claimSeats(Long shopId, LocalDate resDay, LocalTime resTime, int count);
+  long releaseSeats(Long shopId, LocalDate resDay, LocalTime resTime, int count);
+  long adjustRemaining(Long shopId, int delta);
+  List<Long> findClosedSlotIds(LocalDate today, int limit);
+  long deleteSlots(List<Long> ids);
+
+}
@@ -0,0 +1,16 @@
+package com.jhsfully.reservation.repository.custom;
+
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ReviewDto;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+
+public interface ReviewCustomRepository {
+
+  List<ReviewDto.ReviewResponse> findResponsesByMember(Member member, Pageable pageable);
+  List<ReviewDto.ReviewResponse> findResponsesByShop(Shop shop, Pageable pageable);
+  List<ReviewDto.ReviewResponse> findByMemberBeforeCursor(Member member, Long cursorId, int limit);
+  List<ReviewDto.ReviewResponse> findByShopBeforeCursor(Shop shop, Long cursorId, int limit);
+
+}
@@ -1,11 +1,17 @@
 package com.jhsfully.reservation.repository.custom;
 
+import com.jhsfully.reservation.model.ShopDto;
 import com.jhsfully.reservation.model.ShopTopResponse;
 import com.jhsfully.reservation.type.SortingType;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface ShopCustomRepository {
   Page<ShopTopResponse> findByNameAndOrdering(String searchValue, double latitude,
-      double longitude, SortingType type, boolean isAsc, Pageable pageable);
+      double longitude, Double radiusMeters, SortingType type, boolean isAsc, Pageable pageable);
+
+  List<ShopDto.ShopSearchEntry> findAllForSearchIndex();
+
+  long applyStarDelta(Long shopId, long starDelta, long reviewCountDelta);
 }
@@ -3,16 +3,23 @@ package com.jhsfully.reservation.repository.custom.impl;
 import static com.jhsfully.reservation.type.ReservationState.ASSIGN;
 import static com.jhsfully.reservation.type.ReservationState.EXPIRED;
 import static com.jhsfully.reservation.type.ReservationState.READY;
-import static com.jhsfully.reservation.type.ReservationState.REJECT;
 import static com.jhsfully.reservation.type.ReservationState.VISITED;
 
+import com.jhsfully.reservation.cache.PageCountCache;
 import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.QMember;
 import com.jhsfully.reservation.domain.QReservation;
-import com.jhsfully.reservation.domain.Reservation;
+import com.jhsfully.reservation.domain.QShop;
 import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.repository.custom.ReservationCustomRepository;
-import com.querydsl.core.types.dsl.CaseBuilder;
+import com.jhsfully.reservation.type.ReservationState;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.querydsl.jpa.impl.JPAUpdateClause;
 import java.time.LocalDate;
@@ -22,9 +29,9 @@ import java.util.Objects;
 import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -32,56 +39,108 @@ public class ReservationCustomRepositoryImpl implements ReservationCustomReposit
 
   private final JPAQueryFactory jpaQueryFactory;
   private final EntityManager entityManager;
+  private final PageCountCache pageCountCache;
 
-  public void updateReservationState(LocalDate today){
+  /*
+      예약일과 상태가 일치하는 예약의 id를, afterId 이후부터 limit개씩 id 순으로 가져옴.
+      (res_day, reservation_state) 인덱스에 id가 포함되어 있으므로, 인덱스만으로 찾고 정렬함.
+   */
+  public List<Long> findIdsWithStateAndDay(ReservationState state, LocalDate day, Long afterId, int limit){
 
     QReservation reservation = QReservation.reservation;
 
-    new JPAUpdateClause(entityManager, reservation)
-        .set(reservation.reservationState,
-            new CaseBuilder()
-                .when(reservation.reservationState.eq(READY))
-                .then(REJECT)
-                .when(reservation.reservationState.eq(ASSIGN))
-                .then(EXPIRED)
-                .otherwise(reservation.reservationState))
+    return jpaQueryFactory.select(reservation.id)
+        .from(reservation)
         .where(
-            reservation.reservationState.eq(READY).and(reservation.resDay.eq(today))
-                .or(
-                    reservation.reservationState.eq(ASSIGN).and(reservation.resDay.eq(today.minusDays(1)))
-                )
+            reservation.resDay.eq(day),
+            reservation.reservationState.eq(state),
+            afterId == null ? null : reservation.id.gt(afterId)
         )
-        .execute();
-
+        .orderBy(reservation.id.asc())
+        .limit(limit)
+        .fetch();
   }
 
-  //리뷰를 위한 예약 찾기.
-  public Page<Reservation> findReservationForReview(Member member, LocalDate dateNow, Pageable pageable){
+  //조회 이후에 상태가 바뀐 예약은 건드리지 않도록, 상태를 다시 확인하며 변경함. (호출마다 커밋됨)
+  @Transactional
+  public long updateReservationState(List<Long> ids, ReservationState from, ReservationState to){
 
     QReservation reservation = QReservation.reservation;
 
-    List<Reservation> reservationList = jpaQueryFactory
-        .selectFrom(reservation)
+    return new JPAUpdateClause(entityManager, reservation)
+        .set(reservation.reservationState, to)
         .where(
-            reservation.member.eq(member),
-            reservation.reservationState.eq(VISITED),
-            reservation.review.isNull(),
-            reservation.resDay.goe(dateNow)
+            reservation.id.in(ids),
+            reservation.reservationState.eq(from)
         )
+        .execute();
+  }
+
+  /*
+      키오스크의 방문 처리. 승인된(ASSIGN) 예약이면서, 매장이 삭제되지 않았을 때만 VISITED로 변경함.
+      (다른 서버의 키오스크 인덱스에 삭제된 매장의 예약이 남아있더라도, 방문 처리되지 않도록 함)
+   */
+  @Transactional
+  public long updateReservationStateToVisited(Long reservationId){
+
+    QReservation reservation = QReservation.reservation;
+
+    return new JPAUpdateClause(entityManager, reservation)
+        .set(reservation.reservationState, VISITED)
+        .where(visitable(reservation, reservationId))
+        .execute();
+  }
+
+  //JPQL의 UPDATE는 조인할 수 없으므로, 매장의 삭제 여부는 서브쿼리로 확인함.
+  public static BooleanExpression visitable(QReservation reservation, Long reservationId){
+
+    QShop shop = new QShop("visitShop");
+
+    return reservation.id.eq(reservationId)
+        .and(reservation.reservationState.eq(ASSIGN))
+        .and(JPAExpressions.selectOne()
+            .from(shop)
+            .where(
+                shop.id.eq(reservation.shop.id),
+                shop.isDeleted.isFalse()
+            )
+            .exists());
+  }
+
+  /*
+      리뷰를 위한 예약 찾기. (전체 개수는 필요할 때만 세며, 세었다면 잠시 캐시해둠)
+      응답에 필요한 컬럼만 매장과 조인하여 한 번에 가져옴.
+   */
+  public Page<ReservationDto.ResponseForReview> findReservationForReview(Member member, LocalDate dateNow, Pageable pageable){
+
+    QReservation reservation = QReservation.reservation;
+    QShop shop = QShop.shop;
+
+    BooleanBuilder where = new BooleanBuilder()
+        .and(reservation.member.eq(member))
+        .and(reservation.reservationState.eq(VISITED))
+        .and(reservation.review.isNull())
+        .and(reservation.resDay.goe(dateNow));
+
+    List<ReservationDto.ResponseForReview> reservationList = jpaQueryFactory
+        .select(Projections.fields(ReservationDto.ResponseForReview.class,
+            reservation.id.as("reservationId"),
+            shop.name.as("shopName"),
+            reservation.resDay.as("visitDay"),
+            reservation.resTime.as("visitTime")))
+        .from(reservation)
+        .join(reservation.shop, shop)
+        .where(where)
         .offset(pageable.getOffset())
         .limit(pageable.getPageSize())
         .fetch();
 
-    long count = jpaQueryFactory.select(Wildcard.count)
-        .from(reservation)
-        .where(
-            reservation.member.eq(member),
-            reservation.reservationState.eq(VISITED),
-            reservation.review.isNull(),
-            reservation.resDay.goe(dateNow)
-        ).fetchFirst();
-
-    return new PageImpl<>(reservationList, pageable, count);
+    return pageCountCache.getPage("reservation-review:" + member.getId() + ":" + dateNow,
+        reservationList, pageable,
+        () -> jpaQueryFactory.select(Wildcard.count)
+            .from(reservation)
+            .where(where)
+            .fetchFirst());
   }
 
   public Integer getReservationCountWithShopAndDayForMember(Shop shop, Member member, LocalDate day) {
@@ -116,4 +175,147 @@ public class ReservationCustomRepositoryImpl implements ReservationCustomReposit
     return Objects.requireNonNullElse(result, 0);
   }
 
+  //해당 날짜에 매장의 ASSIGN or READY 상태의 예약을 가진 회원들의 id
+  public List<Long> findActiveMemberIdsWithShopAndDay(Shop shop, LocalDate day) {
+    QReservation reservation = QReservation.reservation;
+
+    return jpaQueryFactory.select(reservation.member.id)
+        .distinct()
+        .from(reservation)
+        .where(
+            reservation.shop.eq(shop),
+            reservation.reservationState.in(ASSIGN, READY),
+            reservation.resDay.eq(day)
+        )
+        .fetch();
+  }
+
+  /*
+      해당 날짜에 방문 조회가 가능한 예약(ASSIGN과, 그 이후 VISITED, EXPIRED로 바뀐 예약)을 한 번의 쿼리로 가져옴.
+      예약한 회원(전화번호), 매장, 매장 주인과 조인하며, 삭제된 매장의 예약은 제외함.
+   */
+  public List<ReservationDto.KioskReservation> findKioskReservationsWithDay(LocalDate day) {
+    QReservation reservation = QReservation.reservation;
+    QMember member = QMember.member;
+    QShop shop = QShop.shop;
+    QMember owner = new QMember("owner");
+
+    return jpaQueryFactory
+        .select(Projections.fields(ReservationDto.KioskReservation.class,
+            reservation.id,
+            shop.id.as("shopId"),
+            owner.id.as("ownerId"),
+            member.phone,
+            member.name.as("memberName"),
+            shop.name.as("shopName"),
+            reservation.resDay,
+            reservation.resTime,
+            reservation.count,
+            reservation.reservationState,
+            reservation.note))
+        .from(reservation)
+        .join(reservation.member, member)
+        .join(reservation.shop, shop)
+        .join(shop.member, owner)
+        .where(
+            reservation.resDay.eq(day),
+            reservation.reservationState.in(ASSIGN, VISITED, EXPIRED),
+            shop.isDeleted.isFalse()
+        )
+        .fetch();
+  }
+
+  //startDay ~ endDay 사이의 예약 인원을 (예약일, 예약시간)으로 그룹핑하여 한 번의 쿼리로 가져옴.
+  public List<ReservationDto.ReservedCount> getReservedCountsWithShopBetweenDays(Shop shop, LocalDate startDay, LocalDate endDay) {
+    QReservation reservation = QReservation.reservation;
+
+    return jpaQueryFactory.select(Projections.constructor(ReservationDto.ReservedCount.class,
+            reservation.resDay, reservation.resTime, reservation.count.sum()))
+        .from(reservation)
+        .where(
+            reservation.shop.eq(shop),
+            reservation.reservationState.in(ASSIGN, READY, VISITED),
+            reservation.resDay.between(startDay, endDay)
+        )
+        .groupBy(reservation.resDay, reservation.resTime)
+        .fetch();
+  }
+
+  //startDate 이후의 예약을 (resDay, id) 순으로 정렬하여 페이지 단위로 가져옴.
+  public List<ReservationDto.ReservationResponse> findResponsesByMember(Member member, LocalDate startDate, Pageable pageable) {
+    return findResponses(QReservation.reservation.member.eq(member), startDate, pageable);
+  }
+
+  public List<ReservationDto.ReservationResponse> findResponsesByShop(Shop shop, LocalDate startDate, Pageable pageable) {
+    return findResponses(QReservation.reservation.shop.eq(shop), startDate, pageable);
+  }
+
+  public List<ReservationDto.ReservationResponse> findByMemberAfterCursor(Member member, LocalDate startDate, LocalDate cursorDay, Long cursorId, int limit) {
+    return findAfterCursor(QReservation.reservation.member.eq(member), startDate, cursorDay, cursorId, limit);
+  }
+
+  public List<ReservationDto.ReservationResponse> findByShopAfterCursor(Shop shop, LocalDate startDate, LocalDate cursorDay, Long cursorId, int limit) {
+    return findAfterCursor(QReservation.reservation.shop.eq(shop), startDate, cursorDay, cursorId, limit);
+  }
+
+  private List<ReservationDto.ReservationResponse> findResponses(BooleanExpression owner, LocalDate startDate, Pageable pageable) {
+    QReservation reservation = QReservation.reservation;
+
+    return jpaQueryFactory
+        .select(reservationResponse())
+        .from(reservation)
+        .join(reservation.member, QMember.member)
+        .join(reservation.shop, QShop.shop)
+        .where(owner, reservation.resDay.goe(startDate))
+        .orderBy(reservation.resDay.asc(), reservation.id.asc())
+        .offset(pageable.getOffset())
+        .limit(pageable.getPageSize())
+        .fetch();
+  }
+
+  /*
+      (resDay, id) 순으로 정렬하여, 커서(이전 페이지의 마지막 예약) 이후의 예약을 limit개만큼 가져옴.
+      OFFSET으로 앞의 행들을 건너뛰지 않고, 커서 조건으로 바로 다음 위치부터 읽으며, COUNT 쿼리도 수행하지 않음.
+   */
+  private List<ReservationDto.ReservationResponse> findAfterCursor(BooleanExpression owner, LocalDate startDate, LocalDate cursorDay, Long cursorId, int limit) {
+    QReservation reservation = QReservation.reservation;
+
+    BooleanBuilder where = new BooleanBuilder(owner).and(reservation.resDay.goe(startDate));
+    if (cursorDay != null) {
+      where.and(
+          reservation.resDay.gt(cursorDay)
+              .or(reservation.resDay.eq(cursorDay).and(reservation.id.gt(cursorId)))
+      );
+    }
+
+    return jpaQueryFactory
+        .select(reservationResponse())
+        .from(reservation)
+        .join(reservation.member, QMember.member)
+        .join(reservation.shop, QShop.shop)
+        .where(where)
+        .orderBy(reservation.resDay.asc(), reservation.id.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  /*
+      예약 목록 응답에 필요한 컬럼만 가져오는 Projection. (회원, 매장과 조인하여 사용함)
+      엔티티를 가져오지 않으므로, 연관된 회원, 매장, 리뷰를 추가로 조회하지 않음.
+      reservationCount는 전체 개수를 알게 된 후에 채워짐.
+   */
+  private QBean<ReservationDto.ReservationResponse> reservationResponse() {
+    QReservation reservation = QReservation.reservation;
+
+    return Projections.fields(ReservationDto.ReservationResponse.class,
+        reservation.id,
+        QMember.member.name.as("memberName"),
+        QShop.shop.name.as("shopName"),
+        reservation.resDay,
+        reservation.resTime,
+        reservation.count,
+        reservation.reservationState,
+        reservation.note);
+  }
+
 }
@@ -0,0 +1,118 @@
+package com.jhsfully.reservation.repository.custom.impl;
+
+import com.jhsfully.reservation.domain.QReservationSlot;
+import com.jhsfully.reservation.domain.ReservationSlot;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.repository.custom.ReservationSlotCustomRepository;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class ReservationSlotCustomRepositoryImpl implements ReservationSlotCustomRepository {
+
+  private final JPAQueryFactory jpaQueryFactory;
+  private final EntityManager entityManager;
+
+  /*
+    처음 예약되는 시간대를 (매장의 수용인원 - 이미 예약된 인원)으로 생성함.
+    동시에 같은 시간대가 생성될 경우, unique 제약조건에 의해 한 쪽은 실패하게 되는데,
+    호출한 쪽의 트랜잭션까지 롤백되지 않도록 별도의 트랜잭션에서 수행함.
+
+    수용인원은 매장 row를 공유 lock으로 다시 읽어 사용하므로, 매장 수정(updateShop)과 순서대로 수행됨.
+    - 매장 수정이 먼저 커밋되었다면, 변경된 수용인원으로 생성함.
+    - 시간대가 먼저 커밋되었다면, 매장 수정의 adjustRemaining이 생성된 시간대에 변경량을 반영함.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void createSlot(Long shopId, LocalDate resDay, LocalTime resTime, int reservedCount){
+    Shop shop = entityManager.find(Shop.class, shopId, LockModeType.PESSIMISTIC_READ);
+
+    entityManager.persist(ReservationSlot.builder()
+        .shopId(shopId)
+        .resDay(resDay)
+        .resTime(resTime)
+        .remaining(shop.getResOpenCount() - reservedCount)
+        .build());
+    entityManager.flush();
+  }
+
+  //남은 인원이 count 이상일 때만 차감함. 차감되었다면 1, 인원이 부족하다면 0을 반환함.
+  @Transactional
+  public long claimSeats(Long shopId, LocalDate resDay, LocalTime resTime, int count){
+
+    QReservationSlot slot = QReservationSlot.reservationSlot;
+
+    return new JPAUpdateClause(entityManager, slot)
+        .set(slot.remaining, slot.remaining.subtract(count))
+        .where(
+            slot.shopId.eq(shopId),
+            slot.resDay.eq(resDay),
+            slot.resTime.eq(resTime),
+            slot.remaining.goe(count)
+        )
+        .execute();
+  }
+
+  //예약 취소, 거절, 파기 시에 차감했던 인원을 되돌려줌.
+  @Transactional
+  public long releaseSeats(Long shopId, LocalDate resDay, LocalTime resTime, int count){
+
+    QReservationSlot slot = QReservationSlot.reservationSlot;
+
+    return new JPAUpdateClause(entityManager, slot)
+        .set(slot.remaining, slot.remaining.add(count))
+        .where(
+            slot.shopId.eq(shopId),
+            slot.resDay.eq(resDay),
+            slot.resTime.eq(resTime)
+        )
+        .execute();
+  }
+
+  //매장의 시간대별 수용인원이 변경되었을 때, 이미 생성된 시간대에 변경된 만큼 반영함.
+  @Transactional
+  public long adjustRemaining(Long shopId, int delta){
+
+    QReservationSlot slot = QReservationSlot.reservationSlot;
+
+    return new JPAUpdateClause(entityManager, slot)
+        .set(slot.remaining, slot.remaining.add(delta))
+        .where(slot.shopId.eq(shopId))
+        .execute();
+  }
+
+  //오늘을 포함한 이전 날짜는 더 이상 예약할 수 없으므로, 정리할 시간대들을 id 순으로 limit개 찾음.
+  public List<Long> findClosedSlotIds(LocalDate today, int limit){
+
+    QReservationSlot slot = QReservationSlot.reservationSlot;
+
+    return jpaQueryFactory.select(slot.id)
+        .from(slot)
+        .where(slot.resDay.loe(today))
+        .orderBy(slot.id.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  //찾은 시간대들을 삭제함. (호출마다 커밋됨)
+  @Transactional
+  public long deleteSlots(List<Long> ids){
+
+    QReservationSlot slot = QReservationSlot.reservationSlot;
+
+    return new JPADeleteClause(entityManager, slot)
+        .where(slot.id.in(ids))
+        .execute();
+  }
+
+}
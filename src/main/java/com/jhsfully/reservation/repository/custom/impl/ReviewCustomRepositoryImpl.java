@@ -0,0 +1,81 @@
+package com.jhsfully.reservation.repository.custom.impl;
+
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.QMember;
+import com.jhsfully.reservation.domain.QReview;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ReviewDto;
+import com.jhsfully.reservation.repository.custom.ReviewCustomRepository;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class ReviewCustomRepositoryImpl implements ReviewCustomRepository {
+
+  private final JPAQueryFactory jpaQueryFactory;
+
+  //최신 리뷰부터(id 내림차순) 페이지 단위로 가져옴.
+  public List<ReviewDto.ReviewResponse> findResponsesByMember(Member member, Pageable pageable) {
+    return selectResponses(QReview.review.member.eq(member))
+        .offset(pageable.getOffset())
+        .limit(pageable.getPageSize())
+        .fetch();
+  }
+
+  public List<ReviewDto.ReviewResponse> findResponsesByShop(Shop shop, Pageable pageable) {
+    return selectResponses(QReview.review.shop.eq(shop))
+        .offset(pageable.getOffset())
+        .limit(pageable.getPageSize())
+        .fetch();
+  }
+
+  //커서(이전 페이지의 마지막 리뷰 id)보다 오래된 리뷰를 limit개만큼 가져옴.
+  public List<ReviewDto.ReviewResponse> findByMemberBeforeCursor(Member member, Long cursorId, int limit) {
+    return selectResponses(QReview.review.member.eq(member).and(QReview.review.id.lt(cursorId)))
+        .limit(limit)
+        .fetch();
+  }
+
+  public List<ReviewDto.ReviewResponse> findByShopBeforeCursor(Shop shop, Long cursorId, int limit) {
+    return selectResponses(QReview.review.shop.eq(shop).and(QReview.review.id.lt(cursorId)))
+        .limit(limit)
+        .fetch();
+  }
+
+  /*
+      리뷰 목록 응답에 필요한 컬럼만 작성자와 조인하여 가져옴.
+      엔티티를 가져오지 않으므로, 연관된 회원, 매장, 예약을 추가로 조회하지 않음.
+      reviewCount는 전체 개수를 알게 된 후에 채워짐.
+   */
+  private JPAQuery<ReviewDto.ReviewResponse> selectResponses(BooleanExpression where) {
+    QReview review = QReview.review;
+
+    return jpaQueryFactory
+        .select(reviewResponse())
+        .from(review)
+        .join(review.member, QMember.member)
+        .where(where)
+        .orderBy(review.id.desc());
+  }
+
+  private QBean<ReviewDto.ReviewResponse> reviewResponse() {
+    QReview review = QReview.review;
+
+    return Projections.fields(ReviewDto.ReviewResponse.class,
+        review.id,
+        QMember.member.name.as("memberName"),
+        review.star,
+        review.content,
+        review.createdAt,
+        review.updatedAt);
+  }
+
+}
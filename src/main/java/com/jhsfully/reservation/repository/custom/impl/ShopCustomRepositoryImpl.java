@@ -1,21 +1,31 @@
 package com.jhsfully.reservation.repository.custom.impl;
 
+import com.jhsfully.reservation.cache.PageCountCache;
 import com.jhsfully.reservation.domain.QShop;
+import com.jhsfully.reservation.model.ShopDto;
 import com.jhsfully.reservation.model.ShopTopResponse;
 import com.jhsfully.reservation.repository.custom.ShopCustomRepository;
 import com.jhsfully.reservation.type.SortingType;
+import com.jhsfully.reservation.util.DistanceUtil;
+import com.jhsfully.reservation.util.SearchTextUtil;
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
 import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
 import java.util.List;
+import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -23,8 +33,10 @@ public class ShopCustomRepositoryImpl implements ShopCustomRepository {
 
   private static final OrderSpecifier<?> INITIAL_ORDER_BY = null;
   private final JPAQueryFactory jpaQueryFactory;
+  private final EntityManager entityManager;
+  private final PageCountCache pageCountCache;
 
-  public Page<ShopTopResponse> findByNameAndOrdering(String searchValue, double latitude, double longitude, SortingType type, boolean isAsc, Pageable pageable) {
+  public Page<ShopTopResponse> findByNameAndOrdering(String searchValue, double latitude, double longitude, Double radiusMeters, SortingType type, boolean isAsc, Pageable pageable) {
     QShop shop = QShop.shop;
 
     OrderSpecifier<?> orderBy = INITIAL_ORDER_BY;
@@ -43,28 +55,95 @@ public class ShopCustomRepositoryImpl implements ShopCustomRepository {
         break;
     }
 
-    //거리 계산을 위한 NativeQuery
-    Expression<Double> distanceExpression = Expressions
-        .numberTemplate(Double.class,
-            "ST_Distance_Sphere(point({0}, {1}), point({2}, {3}))",
-            shop.longitude, shop.latitude, longitude, latitude).as("distance");
+    NumberExpression<Double> distance = distance(shop, latitude, longitude);
+    Expression<Double> distanceExpression = distance.as("distance");
+
+    //searchValue는 SearchTextUtil.likePrefix로 escape된 패턴임.
+    BooleanBuilder where = new BooleanBuilder(shop.name.like(searchValue, SearchTextUtil.LIKE_ESCAPE).and(shop.isDeleted.isFalse()));
+
+    if (radiusMeters != null) {
+      where.and(withinRadius(shop, distance, latitude, longitude, radiusMeters));
+    }
 
     List<ShopTopResponse> responseList = jpaQueryFactory.select(Projections.constructor(ShopTopResponse.class,
             shop.id, shop.name, shop.introduce, shop.address, distanceExpression, shop.star))
         .from(shop)
-        .where(shop.name.like(searchValue).and(shop.isDeleted.isFalse()))
+        .where(where)
         .orderBy(orderBy)
         .offset(pageable.getOffset())
         .limit(pageable.getPageSize())
         .fetch();
 
-    long count = jpaQueryFactory.select(Wildcard.count)
+    /*
+        전체 개수는 정렬과 무관하므로 검색 조건으로만 캐시하며,
+        반경이 없다면 위치와도 무관하므로, 검색어가 같다면 위치가 달라도 같은 값을 사용함.
+     */
+    String countKey = radiusMeters == null ?
+        "shop-search:" + searchValue :
+        "shop-search:" + searchValue + ":" + latitude + ":" + longitude + ":" + radiusMeters;
+
+    return pageCountCache.getPage(countKey, responseList, pageable,
+        () -> jpaQueryFactory.select(Wildcard.count)
+            .from(shop)
+            .where(where)
+            .fetchFirst());
+
+  }
+
+  //검색 인덱스를 만들기 위해, 삭제되지 않은 매장들의 검색에 필요한 컬럼만 가져옴.
+  public List<ShopDto.ShopSearchEntry> findAllForSearchIndex() {
+    QShop shop = QShop.shop;
+
+    return jpaQueryFactory.select(Projections.constructor(ShopDto.ShopSearchEntry.class,
+            shop.id, shop.name, shop.introduce, shop.address, shop.latitude, shop.longitude, shop.star))
         .from(shop)
-        .where(shop.name.like(searchValue).and(shop.isDeleted.isFalse()))
-        .fetchFirst();
+        .where(shop.isDeleted.isFalse())
+        .fetch();
+  }
+
+  /*
+      별점 변경량을 매장에 반영하고, 평균 별점(star_sum / review_count)도 같은 UPDATE에서 다시 계산함.
+      MySQL은 SET 절을 왼쪽부터 반영하므로, 변경 전의 값으로 계산되도록 평균 별점을 가장 먼저 변경함.
+      반영 후 별점 합계나 리뷰 수가 음수가 된다면 변경하지 않으며, 이 때는 0을 반환함.
+   */
+  @Transactional
+  public long applyStarDelta(Long shopId, long starDelta, long reviewCountDelta){
+
+    QShop shop = QShop.shop;
+
+    NumberExpression<Long> starSum = shop.starSum.add(starDelta);
+    NumberExpression<Long> reviewCount = shop.reviewCount.add(reviewCountDelta);
 
-    return new PageImpl<>(responseList, pageable, count);
+    return new JPAUpdateClause(entityManager, shop)
+        .set(shop.star, new CaseBuilder()
+            .when(reviewCount.loe(0L)).then(0.0)
+            .otherwise(starSum.doubleValue().divide(reviewCount)))
+        .set(shop.starSum, starSum)
+        .set(shop.reviewCount, reviewCount)
+        .where(
+            shop.id.eq(shopId),
+            starSum.goe(0L),
+            reviewCount.goe(0L)
+        )
+        .execute();
+  }
 
+  //거리 계산을 위한 NativeQuery (m 단위)
+  public static NumberExpression<Double> distance(QShop shop, double latitude, double longitude) {
+    return Expressions.numberTemplate(Double.class,
+        "ST_Distance_Sphere(point({0}, {1}), point({2}, {3}))",
+        shop.longitude, shop.latitude, longitude, latitude);
   }
 
+  /*
+      반경 검색 조건.
+      위경도 범위(인덱스)로 먼저 걸러낸 후에, 범위 안에 들어온 매장들만 실제 거리를 계산하여 반경 밖의 매장을 제외함.
+   */
+  public static BooleanExpression withinRadius(QShop shop, NumberExpression<Double> distance,
+      double latitude, double longitude, double radiusMeters) {
+    DistanceUtil.BoundingBox box = DistanceUtil.boundingBox(latitude, longitude, radiusMeters);
+    return shop.latitude.between(box.getMinLatitude(), box.getMaxLatitude())
+        .and(shop.longitude.between(box.getMinLongitude(), box.getMaxLongitude()))
+        .and(distance.loe(radiusMeters));
+  }
 }
@@ -0,0 +1,109 @@
+package com.jhsfully.reservation.scheduler;
+
+import com.jhsfully.reservation.type.ReservationState;
+import com.jhsfully.reservation.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+    예약마다 상태가 바뀌어야 하는 시각(deadline)을 보관하는 지연 큐. (Redis Sorted Set)
+    (key : reservation:deadlines, member : {예약 id}:{현재 상태}, score : deadline(epoch ms))
+
+    - 예약 신청 시 : READY 상태로 예약일 0시까지 승인되지 않으면 REJECT
+    - 예약 승인 시 : ASSIGN 상태로 예약시간까지 방문하지 않으면 EXPIRED
+
+    deadline이 지난 항목은 Lua 스크립트로 꺼내면서 지우므로, 여러 서버가 동시에 꺼내더라도 한 서버에만 전달됨.
+    꺼낸 예약의 상태가 이미 바뀌었다면(취소, 승인, 방문 등) 변경하지 않음.
+    큐에 등록되지 못한 예약은, 새벽의 스케줄러(ReservationScheduler)가 일괄로 처리함.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationDeadlineQueue {
+
+    private static final String KEY = "reservation:deadlines";
+
+    //deadline이 지난 항목을 최대 ARGV[2]개 꺼내고 지움.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POLL_SCRIPT = new DefaultRedisScript<>(
+            "local items = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+                    "if #items > 0 then redis.call('ZREM', KEYS[1], unpack(items)) end " +
+                    "return items",
+            List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    //트랜잭션 안이라면, 커밋된 후에 등록함.
+    public void schedule(Long reservationId, ReservationState state, LocalDateTime deadline){
+        if(reservationId == null){
+            return;
+        }
+
+        String member = reservationId + ":" + state;
+        double score = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        TransactionUtil.afterCommit(() -> {
+            try{
+                redisTemplate.opsForZSet().add(KEY, member, score);
+            }catch (DataAccessException e){
+                log.warn("failed to schedule reservation deadline, member : {}", member, e);
+            }
+        });
+    }
+
+    //now까지 deadline이 지난 항목을 최대 limit개 꺼냄.
+    public List<Deadline> poll(LocalDateTime now, int limit){
+        long nowMillis = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        List<?> items = redisTemplate.execute(POLL_SCRIPT, Collections.singletonList(KEY),
+                String.valueOf(nowMillis), String.valueOf(limit));
+        if(items == null || items.isEmpty()){
+            return Collections.emptyList();
+        }
+
+        List<Deadline> deadlines = new ArrayList<>(items.size());
+        for(Object item : items){
+            String[] values = item.toString().split(":");
+            deadlines.add(new Deadline(Long.parseLong(values[0]), ReservationState.valueOf(values[1])));
+        }
+        return deadlines;
+    }
+
+    //처리에 실패한 항목을 다시 등록하여, 다음 조회 때 다시 꺼내지도록 함.
+    public void retry(List<Deadline> deadlines, LocalDateTime retryAt){
+        double score = retryAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        try{
+            deadlines.forEach(x -> redisTemplate.opsForZSet().add(KEY, x.getReservationId() + ":" + x.getState(), score));
+        }catch (DataAccessException e){
+            log.warn("failed to reschedule reservation deadlines, size : {}", deadlines.size(), e);
+        }
+    }
+
+    public static class Deadline {
+        private final Long reservationId;
+        private final ReservationState state; //deadline이 지났을 때, 이 상태라면 변경함.
+
+        private Deadline(Long reservationId, ReservationState state) {
+            this.reservationId = reservationId;
+            this.state = state;
+        }
+
+        public Long getReservationId() {
+            return reservationId;
+        }
+
+        public ReservationState getState() {
+            return state;
+        }
+    }
+}
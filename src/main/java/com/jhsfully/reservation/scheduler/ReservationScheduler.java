@@ -8,21 +8,59 @@ READY => REJECT 로 상태 변경 (파트너가 미승인했으므로 거절했
 
 ASSIGN상태가 예약시간까지, VISITED가 되지 않았다면,
 ASSIGN => EXPIRE 로 상태 변경 (노쇼이므로, 사용자에게 좋지 않음)
+
+오늘을 포함한 이전 날짜의 예약 시간대(reservation_slot)는 더 이상 예약할 수 없으므로 정리함.
+상태가 일괄 변경된 날짜의 예약 인원 캐시(Redis)도 지워서, 다시 조회될 때 DB에서 채워지도록 함.
+
+여러 서버가 떠 있더라도, 날짜별 lease(SchedulerLock)를 취득한 하나의 서버만 작업을 수행함.
+
+예약마다 상태가 바뀌어야 하는 시각은 ReservationDeadlineQueue에 등록되어, 그 시각이 지나면 바로 처리되므로
+새벽의 일괄 처리는 큐에서 누락된 예약만 정정하게 됨.
 */
 
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.SchedulerLock;
 import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.repository.ReservationSlotRepository;
+import com.jhsfully.reservation.type.ReservationState;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import static com.jhsfully.reservation.type.ReservationState.*;
+
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class ReservationScheduler {
 
     private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository reservationSlotRepository;
+    private final ReservedCountCache reservedCountCache;
+    private final ReservationSweepCheckpoint reservationSweepCheckpoint;
+    private final SchedulerLock schedulerLock;
+    private final ReservationDeadlineQueue reservationDeadlineQueue;
+
+    //작업 중인 서버가 죽은 경우, 이 시간이 지나면 다른 서버가 이어서 수행할 수 있음.
+    private static final long LEASE_TIME = 30_000L;
+
+    private static final String HOST_NAME = hostName();
+
+    //한 번의 트랜잭션에서 상태를 변경할 예약 수
+    @Value("${reservation.scheduler.chunk-size:1000}")
+    private int chunkSize;
+
     /*
         매일 새벽 0시 0분 5초에 스케줄러 가동
         해당 스케줄은 예약에 대한 상태를 업데이트 하기위한 스케줄러임.
@@ -30,15 +68,178 @@ public class ReservationScheduler {
         예약일이 오늘이라면, READY => REJECT (자동으로 거절로 처리함)
 
         예약일 + 1 이 오늘이라면, ASSIGN => EXPIRED (자동으로 노쇼 및 예약 파기로 처리함.)
-     */
 
-    @Transactional
+        REJECT, EXPIRED로 바뀐 예약은 모두 오늘 이전의 시간대이므로, 인원을 되돌려주는 대신
+        해당 시간대들을 삭제함.
+     */
     @Scheduled(cron = "5 0 0 * * *")
     public void setReservationsState(){
+        sweep(LocalDate.now());
+    }
+
+    /*
+        오늘의 작업이 완료되지 않았다면, 체크포인트 이후부터 이어서 처리함.
+        (작업 도중 서버가 죽었거나, 0시에 Redis/DB 장애로 수행하지 못한 경우)
+        완료된 날짜는 완료 기록만 확인하고 바로 건너뜀.
+     */
+    @Scheduled(initialDelay = 60_000L, fixedDelay = 300_000L)
+    public void resumeReservationsState(){
+        sweep(LocalDate.now());
+    }
+
+    /*
+        deadline이 지난 예약들을 큐에서 꺼내 바로 상태를 변경함. (READY => REJECT, ASSIGN => EXPIRED)
+        꺼낸 후 변경에 실패하면, 1분 뒤에 다시 처리되도록 큐에 다시 등록함.
+     */
+    @Scheduled(fixedDelayString = "${reservation.scheduler.deadline-poll-millis:10000}")
+    public void expireDueReservations(){
+        while(true){
+            LocalDateTime now = LocalDateTime.now();
+
+            List<ReservationDeadlineQueue.Deadline> deadlines;
+            try{
+                deadlines = reservationDeadlineQueue.poll(now, chunkSize);
+            }catch (DataAccessException e){
+                log.warn("예약 deadline을 가져오지 못했습니다.", e);
+                return;
+            }
+            if(deadlines.isEmpty()){
+                return;
+            }
+
+            try{
+                long rejected = updateDueReservations(deadlines, READY, REJECT);
+                long expired = updateDueReservations(deadlines, ASSIGN, EXPIRED);
+                log.debug("deadline이 지난 예약 처리 - REJECT : {}건, EXPIRED : {}건", rejected, expired);
+            }catch (RuntimeException e){
+                log.warn("deadline이 지난 예약의 상태를 변경하지 못했습니다. ({}건)", deadlines.size(), e);
+                reservationDeadlineQueue.retry(deadlines, now.plusMinutes(1));
+                return;
+            }
+
+            if(deadlines.size() < chunkSize){
+                return;
+            }
+        }
+    }
+
+    //deadline 중에서 from 상태인 예약들을 to 상태로 변경함. (이미 상태가 바뀐 예약은 변경되지 않음)
+    private long updateDueReservations(List<ReservationDeadlineQueue.Deadline> deadlines,
+                                       ReservationState from, ReservationState to){
+        List<Long> ids = new ArrayList<>();
+        for(ReservationDeadlineQueue.Deadline deadline : deadlines){
+            if(deadline.getState() == from){
+                ids.add(deadline.getReservationId());
+            }
+        }
+        return ids.isEmpty() ? 0L : reservationRepository.updateReservationState(ids, from, to);
+    }
 
-        //쿼리에게 책임 위임.
-        reservationRepository.updateReservationState(LocalDate.now());
+    /*
+        하나의 큰 UPDATE 대신, 상태별로 (예약일, 상태) 인덱스를 사용하는 두 번의 작업으로 나누고,
+        각 작업은 id 순으로 chunkSize개씩 나누어 청크마다 커밋함.
+        (자정에 오랜 시간 lock을 잡지 않으며, 청크마다 체크포인트를 기록함)
+     */
+    private void sweep(LocalDate today){
+        if(reservationSweepCheckpoint.isCompleted(today)){
+            return;
+        }
+
+        //다른 서버가 수행 중이라면 건너뜀.
+        LockProvider.LockHandle lease;
+        try{
+            lease = schedulerLock.tryAcquire("reservation-state-" + today, LEASE_TIME);
+        }catch (RuntimeException e){
+            log.warn("예약 상태 변경 작업의 lease를 취득하지 못했습니다. ({})", today, e);
+            return;
+        }
+        if(lease == null){
+            log.debug("다른 서버가 예약 상태 변경 작업을 수행 중입니다. ({})", today);
+            return;
+        }
+
+        try{
+            //완료 기록을 확인한 후 lease를 취득하기 전에, 다른 서버가 완료했을 수 있으므로 다시 확인함.
+            if(!reservationSweepCheckpoint.isCompleted(today)){
+                sweepWithLease(today);
+            }
+        }finally {
+            lease.release();
+        }
+    }
+
+    private void sweepWithLease(LocalDate today){
+        long startedAt = System.currentTimeMillis();
+        reservationSweepCheckpoint.start(today);
+
+        long rejected = sweepState(today, READY, REJECT, today);
+        long expired = sweepState(today, ASSIGN, EXPIRED, today.minusDays(1));
+
+        long deleted = deleteClosedSlots(today);
+        reservedCountCache.evictDay(today);
+        reservedCountCache.evictDay(today.minusDays(1));
+
+        long duration = System.currentTimeMillis() - startedAt;
+        reservationSweepCheckpoint.complete(today, HOST_NAME, duration);
+        log.info("예약 상태 변경 완료 ({}) - 이번 실행의 REJECT : {}건, EXPIRED : {}건, 삭제된 시간대 : {}건, 소요시간 : {}ms",
+                today, rejected, expired, deleted, duration);
+    }
+
+    //resDay의 from 상태 예약들을 to 상태로 청크 단위로 변경하고, 변경된 예약 수를 반환함.
+    private long sweepState(LocalDate today, ReservationState from, ReservationState to, LocalDate resDay){
+        Long lastId = reservationSweepCheckpoint.getLastId(today, from);
+        long updated = 0L;
+        int chunks = 0;
+
+        while(true){
+            List<Long> ids = reservationRepository.findIdsWithStateAndDay(from, resDay, lastId, chunkSize);
+            if(ids.isEmpty()){
+                break;
+            }
+
+            long chunkUpdated = reservationRepository.updateReservationState(ids, from, to);
+            lastId = ids.get(ids.size() - 1);
+            updated += chunkUpdated;
+            chunks++;
+
+            reservationSweepCheckpoint.save(today, from, lastId, chunkUpdated);
+            log.debug("예약 상태 변경 진행 중 ({} -> {}) - 청크 : {}, 변경 : {}건, 마지막 id : {}",
+                    from, to, chunks, updated, lastId);
+
+            if(ids.size() < chunkSize){
+                break;
+            }
+        }
+
+        return updated;
+    }
+
+    //오늘을 포함한 이전 날짜의 시간대들을, 상태 변경과 같이 id 순으로 chunkSize개씩 나누어 삭제함.
+    private long deleteClosedSlots(LocalDate today){
+        long deleted = 0L;
+
+        while(true){
+            List<Long> ids = reservationSlotRepository.findClosedSlotIds(today, chunkSize);
+            if(ids.isEmpty()){
+                break;
+            }
+
+            deleted += reservationSlotRepository.deleteSlots(ids);
+
+            if(ids.size() < chunkSize){
+                break;
+            }
+        }
+
+        return deleted;
+    }
 
+    private static String hostName(){
+        try{
+            return InetAddress.getLocalHost().getHostName();
+        }catch (UnknownHostException e){
+            return "unknown";
+        }
     }
 
 }
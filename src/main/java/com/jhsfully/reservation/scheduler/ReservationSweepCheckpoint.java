@@ -0,0 +1,112 @@
+package com.jhsfully.reservation.scheduler;
+
+import com.jhsfully.reservation.type.ReservationState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.jhsfully.reservation.type.ReservationState.ASSIGN;
+import static com.jhsfully.reservation.type.ReservationState.READY;
+
+/*
+    예약 상태 스케줄러의 진행 상황을 Redis Hash에 기록하는 체크포인트.
+    (key : scheduler:reservation-state:{작업일})
+
+    - started : 작업 시작 시각(ms), done : 작업 완료 시각(ms)
+    - {변경 전 상태}.last-id : 마지막으로 처리한 청크의 마지막 예약 id
+    - {변경 전 상태}.updated : 지금까지 변경된 예약 수
+    - owner : 작업을 완료한 서버, duration-millis : 소요시간
+    - rejected / expired : 그날 변경된 예약 수 (중간에 이어서 처리했다면, 이전 실행에서 변경된 수도 포함함)
+
+    서버가 작업 도중 종료되었다면, 다른 서버(또는 다시 시작된 서버)가 last-id 이후부터 이어서 처리함.
+    완료 기록이 있는 날짜는, 다른 서버들이 lock을 잡지 않고 바로 건너뜀.
+    기록에 실패하더라도 작업은 계속 진행하며, 이어서 처리할 때 처음부터 다시 확인할 뿐임.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationSweepCheckpoint {
+
+    private static final String KEY_PREFIX = "scheduler:reservation-state:";
+    private static final String STARTED = "started";
+    private static final String DONE = "done";
+    private static final long EXPIRE_DAYS = 2L;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    //이미 완료된 날짜인지 확인함. 확인할 수 없다면 완료되지 않은 것으로 봄.
+    public boolean isCompleted(LocalDate day){
+        try{
+            return redisTemplate.opsForHash().hasKey(key(day), DONE);
+        }catch (DataAccessException e){
+            log.warn("failed to read reservation sweep checkpoint, day : {}", day, e);
+            return false;
+        }
+    }
+
+    public void start(LocalDate day){
+        String key = key(day);
+        try{
+            redisTemplate.opsForHash().putIfAbsent(key, STARTED, String.valueOf(System.currentTimeMillis()));
+            redisTemplate.opsForHash().delete(key, DONE);
+            redisTemplate.expire(key, EXPIRE_DAYS, TimeUnit.DAYS);
+        }catch (DataAccessException e){
+            log.warn("failed to write reservation sweep checkpoint, day : {}", day, e);
+        }
+    }
+
+    //이어서 처리할 위치, 처음이라면 null을 반환함.
+    public Long getLastId(LocalDate day, ReservationState from){
+        try{
+            Object lastId = redisTemplate.opsForHash().get(key(day), from + ".last-id");
+            return lastId == null ? null : Long.parseLong(lastId.toString());
+        }catch (DataAccessException e){
+            log.warn("failed to read reservation sweep checkpoint, day : {}", day, e);
+            return null;
+        }
+    }
+
+    //청크가 커밋된 후에 호출하여, 처리한 위치와 변경된 예약 수를 기록함.
+    public void save(LocalDate day, ReservationState from, Long lastId, long updated){
+        String key = key(day);
+        try{
+            redisTemplate.opsForHash().put(key, from + ".last-id", String.valueOf(lastId));
+            redisTemplate.opsForHash().increment(key, from + ".updated", updated);
+        }catch (DataAccessException e){
+            log.warn("failed to write reservation sweep checkpoint, day : {}", day, e);
+        }
+    }
+
+    /*
+        작업 결과를 기록함. done은 마지막에 기록하여, 결과가 모두 기록된 후에 완료로 보이도록 함.
+        변경된 예약 수는 이번 실행의 수가 아닌, 청크마다 누적된 {변경 전 상태}.updated를 기록함.
+     */
+    public void complete(LocalDate day, String owner, long durationMillis){
+        String key = key(day);
+        try{
+            redisTemplate.opsForHash().putAll(key, Map.of(
+                    "owner", owner,
+                    "duration-millis", String.valueOf(durationMillis),
+                    "rejected", updated(key, READY),
+                    "expired", updated(key, ASSIGN)));
+            redisTemplate.opsForHash().put(key, DONE, String.valueOf(System.currentTimeMillis()));
+        }catch (DataAccessException e){
+            log.warn("failed to write reservation sweep checkpoint, day : {}", day, e);
+        }
+    }
+
+    private String updated(String key, ReservationState from){
+        Object updated = redisTemplate.opsForHash().get(key, from + ".updated");
+        return updated == null ? "0" : updated.toString();
+    }
+
+    private static String key(LocalDate day){
+        return KEY_PREFIX + day;
+    }
+}
@@ -0,0 +1,458 @@
+package com.jhsfully.reservation.search;
+
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ShopDto;
+import com.jhsfully.reservation.model.ShopTopResponse;
+import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.type.SortingType;
+import com.jhsfully.reservation.util.DistanceUtil;
+import com.jhsfully.reservation.util.SearchTextUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/*
+    삭제되지 않은 매장들을 메모리에 올려두고, 검색 요청을 DB 조회 없이 처리하는 인덱스.
+
+    - 이름 인덱스 : 이름순으로 정렬된 Map으로, 검색어로 시작하는 범위(prefix)만 잘라서 조회함.
+        DB 검색(LIKE)과 같은 매장을 찾도록, 이름과 검색어 모두 SearchTextUtil.normalize로 변환하여 비교함.
+        이름이 같은 매장들도 모두 담기 위해, key는 (변환된 이름 + KEY_DELIMITER + 매장 번호)임.
+    - 격자 인덱스 : 위도/경도를 CELL_DEGREE 크기의 칸으로 나누어, 거리순 조회 시 가까운 칸부터 탐색함.
+
+    매장 등록/수정/삭제/별점 변경 시 ShopServiceImpl에서 바로 반영하고,
+    다른 서버에서 반영된 변경사항은 주기적으로 DB에서 다시 읽어 맞춤.
+    처음 DB에서 읽어오기 전까지는 isReady()가 false이므로, 검색은 DB에서 수행됨.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShopSearchIndex {
+
+    private static final double CELL_DEGREE = 0.05; //격자 한 칸의 크기 (약 5km)
+    private static final double METERS_PER_DEGREE = 111_000; //위도 1도당 거리(m), 하한값으로 쓰기 위해 내림함.
+    private static final int MAX_RING = 20; //이 이상 멀어지면, 격자 탐색 대신 전체를 계산함.
+    private static final char KEY_DELIMITER = '\u0000'; //어떤 문자보다도 앞서므로, 이름이 짧은 매장이 먼저 정렬됨.
+
+    private final ShopRepository shopRepository;
+
+    @Value("${shop.search-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile Index index = new Index();
+    private volatile boolean ready = false;
+
+    //다시 읽어오는 동안 반영된 쓰기들. (읽어오는 중이 아니라면 null, ShopSearchIndex의 synchronized 안에서만 사용함)
+    private List<Consumer<Index>> pendingWrites;
+
+    public boolean isReady(){
+        return enabled && ready;
+    }
+
+    //======================= 인덱스 적재 =========================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        reload();
+    }
+
+    /*
+        다른 서버에서 변경된 매장을 반영하기 위해, 주기적으로 전체를 다시 읽어옴.
+        읽어오는 동안 이 서버에서 반영된 쓰기(put, remove)는 기록해두었다가,
+        새 인덱스로 교체하기 직전에 다시 적용하므로, 읽어온 시점 이후의 변경사항이 사라지지 않음.
+     */
+    @Scheduled(initialDelayString = "${shop.search-index.refresh-millis:300000}",
+            fixedDelayString = "${shop.search-index.refresh-millis:300000}")
+    public void reload(){
+        if(!enabled){
+            return;
+        }
+
+        synchronized (this){
+            if(pendingWrites != null){
+                return; //이미 다시 읽어오는 중임.
+            }
+            pendingWrites = new ArrayList<>();
+        }
+
+        try{
+            Index loaded = new Index();
+            for(ShopDto.ShopSearchEntry entry : shopRepository.findAllForSearchIndex()){
+                loaded.put(entry);
+            }
+
+            synchronized (this){
+                pendingWrites.forEach(write -> write.accept(loaded));
+                index = loaded;
+            }
+            ready = true;
+            log.info("매장 검색 인덱스를 적재하였습니다. (" + loaded.byId.size() + "개)");
+        }catch (Exception e){
+            //적재에 실패하더라도, 기존 인덱스(혹은 DB 검색)를 그대로 사용함.
+            log.error("매장 검색 인덱스 적재에 실패하였습니다.", e);
+        }finally {
+            synchronized (this){
+                pendingWrites = null;
+            }
+        }
+    }
+
+    //======================= 인덱스 반영 =========================
+
+    public void put(Shop shop){
+        if(shop.isDeleted()){
+            remove(shop.getId());
+            return;
+        }
+
+        ShopDto.ShopSearchEntry entry = ShopDto.ShopSearchEntry.builder()
+                .id(shop.getId())
+                .name(shop.getName())
+                .introduce(shop.getIntroduce())
+                .address(shop.getAddress())
+                .latitude(shop.getLatitude())
+                .longitude(shop.getLongitude())
+                .star(shop.getStar())
+                .build();
+        write(x -> x.put(entry));
+    }
+
+    public void remove(Long shopId){
+        write(x -> x.remove(shopId));
+    }
+
+    private synchronized void write(Consumer<Index> write){
+        write.accept(index);
+        if(pendingWrites != null){
+            pendingWrites.add(write);
+        }
+    }
+
+    //======================= 검색 =========================
+
+    /*
+        searchValue로 시작하는 매장들을 type 기준으로 정렬하여, pageable에 해당하는 만큼만 반환함.
+        정렬 전체를 수행하지 않고, (offset + pageSize)개의 상위 결과만 구함.
+        radiusMeters가 지정되었다면, 반경 이내의 매장만 대상으로 함.
+     */
+    public Page<ShopTopResponse> search(String searchValue, double latitude, double longitude, Double radiusMeters,
+                                        SortingType type, boolean isAsc, Pageable pageable){
+        Index current = index;
+        String prefix = SearchTextUtil.normalize(searchValue);
+
+        ConcurrentNavigableMap<String, ShopDto.ShopSearchEntry> matches = prefix.isEmpty() ?
+                current.byName :
+                current.byName.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        long total = prefix.isEmpty() ? current.byId.size() : matches.size();
+
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        int limit = (int) Math.min((long) offset + pageable.getPageSize(), Integer.MAX_VALUE);
+
+        List<ShopDto.ShopSearchEntry> ordered;
+        if(radiusMeters != null){
+            List<ShopDto.ShopSearchEntry> within = prefix.isEmpty() ?
+                    withinRadius(current, current.byId.values(), latitude, longitude, radiusMeters) :
+                    withinRadius(null, matches.values(), latitude, longitude, radiusMeters);
+            total = within.size();
+            ordered = order(current, within, latitude, longitude, type, isAsc, limit);
+        }else{
+            switch (type){
+                case TEXT:
+                    ordered = firstN(isAsc ? matches.values() : matches.descendingMap().values(), limit);
+                    break;
+                case STAR:
+                    ordered = topN(matches.values(), isAsc, limit, ShopDto.ShopSearchEntry::getStar);
+                    break;
+                case DISTANCE:
+                    ordered = prefix.isEmpty() && isAsc ?
+                            nearest(current, latitude, longitude, limit) :
+                            topN(matches.values(), isAsc, limit, e -> distance(e, latitude, longitude));
+                    break;
+                default:
+                    ordered = Collections.emptyList();
+            }
+        }
+
+        List<ShopTopResponse> content = new ArrayList<>();
+        for(int i = offset; i < ordered.size(); i++){
+            ShopDto.ShopSearchEntry entry = ordered.get(i);
+            content.add(ShopTopResponse.builder()
+                    .id(entry.getId())
+                    .name(entry.getName())
+                    .introduce(entry.getIntroduce())
+                    .address(entry.getAddress())
+                    .distance(distance(entry, latitude, longitude))
+                    .star(entry.getStar())
+                    .build());
+        }
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /*
+        반경 이내의 매장들을 구함.
+        위경도 범위(bounding box)로 먼저 걸러낸 후에, 범위 안의 매장만 실제 거리를 계산함.
+        grid가 주어지면 범위에 걸친 칸들만 탐색하고, 칸의 수가 매장 수보다 많다면 전체를 탐색함.
+     */
+    private List<ShopDto.ShopSearchEntry> withinRadius(Index gridIndex, Collection<ShopDto.ShopSearchEntry> candidates,
+                                                       double latitude, double longitude, double radiusMeters){
+        DistanceUtil.BoundingBox box = DistanceUtil.boundingBox(latitude, longitude, radiusMeters);
+        List<ShopDto.ShopSearchEntry> result = new ArrayList<>();
+
+        if(gridIndex != null){
+            int minRow = cellOf(box.getMinLatitude()), maxRow = cellOf(box.getMaxLatitude());
+            int minCol = cellOf(box.getMinLongitude()), maxCol = cellOf(box.getMaxLongitude());
+            long cellCount = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+            if(cellCount <= gridIndex.byId.size()){
+                for(int row = minRow; row <= maxRow; row++){
+                    for(int col = minCol; col <= maxCol; col++){
+                        Set<Long> shopIds = gridIndex.grid.get(cellKey(row, col));
+                        if(shopIds == null){
+                            continue;
+                        }
+                        for(Long shopId : shopIds){
+                            ShopDto.ShopSearchEntry entry = gridIndex.byId.get(shopId);
+                            if(entry != null && isWithin(entry, box, latitude, longitude, radiusMeters)){
+                                result.add(entry);
+                            }
+                        }
+                    }
+                }
+                return result;
+            }
+        }
+
+        for(ShopDto.ShopSearchEntry entry : candidates){
+            if(isWithin(entry, box, latitude, longitude, radiusMeters)){
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private boolean isWithin(ShopDto.ShopSearchEntry entry, DistanceUtil.BoundingBox box,
+                             double latitude, double longitude, double radiusMeters){
+        return box.contains(entry.getLatitude(), entry.getLongitude()) &&
+                distance(entry, latitude, longitude) <= radiusMeters;
+    }
+
+    private List<ShopDto.ShopSearchEntry> order(Index current, List<ShopDto.ShopSearchEntry> entries,
+                                                double latitude, double longitude,
+                                                SortingType type, boolean isAsc, int n){
+        switch (type){
+            case TEXT:
+                //이름 인덱스와 같은 순서로 정렬함.
+                Comparator<ShopDto.ShopSearchEntry> byName = Comparator.comparing(current::nameKeyOf);
+                entries.sort(isAsc ? byName : byName.reversed());
+                return entries.subList(0, Math.min(n, entries.size()));
+            case STAR:
+                return topN(entries, isAsc, n, ShopDto.ShopSearchEntry::getStar);
+            case DISTANCE:
+                return topN(entries, isAsc, n, e -> distance(e, latitude, longitude));
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private List<ShopDto.ShopSearchEntry> firstN(Collection<ShopDto.ShopSearchEntry> entries, int n){
+        List<ShopDto.ShopSearchEntry> result = new ArrayList<>();
+        Iterator<ShopDto.ShopSearchEntry> iterator = entries.iterator();
+        while(result.size() < n && iterator.hasNext()){
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    //score 기준 상위 n개를 구함. (크기 n의 heap에 가장 나쁜 결과를 맨 위에 두고 교체함)
+    private List<ShopDto.ShopSearchEntry> topN(Collection<ShopDto.ShopSearchEntry> entries, boolean isAsc, int n,
+                                               Scorer scorer){
+        Comparator<Scored> order = Scored.order(isAsc);
+        PriorityQueue<Scored> heap = new PriorityQueue<>(order.reversed());
+        for(ShopDto.ShopSearchEntry entry : entries){
+            offer(heap, order, n, new Scored(entry, scorer.score(entry)));
+        }
+        return drain(heap, order);
+    }
+
+    /*
+        가까운 순으로 n개를 구함.
+        현재 위치의 칸에서부터 한 겹(ring)씩 넓혀가며 탐색하고,
+        다음 겹의 최소 거리가 지금까지 구한 n번째 거리보다 멀다면, 더 이상 탐색하지 않음.
+     */
+    private List<ShopDto.ShopSearchEntry> nearest(Index current, double latitude, double longitude, int n){
+        Comparator<Scored> order = Scored.order(true);
+        PriorityQueue<Scored> heap = new PriorityQueue<>(order.reversed());
+
+        int row = cellOf(latitude);
+        int col = cellOf(longitude);
+        int total = current.byId.size();
+        int visited = 0;
+
+        for(int ring = 0; visited < total; ring++){
+            if(heap.size() >= n && minDistanceOfRing(latitude, ring) > heap.peek().score){
+                break;
+            }
+            if(ring > MAX_RING){
+                //너무 멀리까지 흩어져 있으므로, 전체를 계산함.
+                return topN(current.byId.values(), true, n, e -> distance(e, latitude, longitude));
+            }
+
+            for(int dRow = -ring; dRow <= ring; dRow++){
+                for(int dCol = -ring; dCol <= ring; dCol++){
+                    if(Math.max(Math.abs(dRow), Math.abs(dCol)) != ring){
+                        continue; //이번 겹의 테두리에 있는 칸만 탐색함.
+                    }
+                    Set<Long> shopIds = current.grid.get(cellKey(row + dRow, col + dCol));
+                    if(shopIds == null){
+                        continue;
+                    }
+                    for(Long shopId : shopIds){
+                        ShopDto.ShopSearchEntry entry = current.byId.get(shopId);
+                        if(entry == null){
+                            continue;
+                        }
+                        visited++;
+                        offer(heap, order, n, new Scored(entry, distance(entry, latitude, longitude)));
+                    }
+                }
+            }
+        }
+        return drain(heap, order);
+    }
+
+    private void offer(PriorityQueue<Scored> heap, Comparator<Scored> order, int n, Scored scored){
+        if(n <= 0){
+            return;
+        }
+        if(heap.size() < n){
+            heap.add(scored);
+        }else if(order.compare(scored, heap.peek()) < 0){
+            heap.poll();
+            heap.add(scored);
+        }
+    }
+
+    private List<ShopDto.ShopSearchEntry> drain(PriorityQueue<Scored> heap, Comparator<Scored> order){
+        List<Scored> scoredList = new ArrayList<>(heap);
+        scoredList.sort(order);
+
+        List<ShopDto.ShopSearchEntry> result = new ArrayList<>(scoredList.size());
+        for(Scored scored : scoredList){
+            result.add(scored.entry);
+        }
+        return result;
+    }
+
+    /*
+        ring번째 겹에 있는 칸들의 최소 거리(m).
+        현재 위치는 칸 안의 어디든 될 수 있으므로 (ring - 1)칸 만큼을 최소 거리로 보고,
+        경도 방향은 위도가 높을수록 거리가 짧아지므로, 가장 높은 위도 기준으로 계산함.
+     */
+    private double minDistanceOfRing(double latitude, int ring){
+        if(ring <= 1){
+            return 0;
+        }
+        double maxLatitude = Math.min(Math.abs(latitude) + ring * CELL_DEGREE, 89.9);
+        return (ring - 1) * CELL_DEGREE * METERS_PER_DEGREE * Math.cos(Math.toRadians(maxLatitude));
+    }
+
+    //DB 검색(ST_Distance_Sphere)과 같이 m 단위로 반환함.
+    private static double distance(ShopDto.ShopSearchEntry entry, double latitude, double longitude){
+        return DistanceUtil.haversine(latitude, longitude, entry.getLatitude(), entry.getLongitude()) * 1000;
+    }
+
+    private static int cellOf(double degree){
+        return (int) Math.floor(degree / CELL_DEGREE);
+    }
+
+    private static long cellKey(int row, int col){
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static String nameKey(ShopDto.ShopSearchEntry entry){
+        //매장 번호는 자릿수를 맞추어, 이름이 같다면 매장 번호순으로 정렬되도록 함.
+        return String.format("%s%c%019d", SearchTextUtil.normalize(entry.getName()), KEY_DELIMITER, entry.getId());
+    }
+
+    //======================= 내부 자료구조 =========================
+
+    private interface Scorer{
+        double score(ShopDto.ShopSearchEntry entry);
+    }
+
+    private static class Scored{
+        private final ShopDto.ShopSearchEntry entry;
+        private final double score;
+
+        private Scored(ShopDto.ShopSearchEntry entry, double score){
+            this.entry = entry;
+            this.score = score;
+        }
+
+        //점수가 같다면 매장 번호순으로 정렬하여, 페이지가 바뀌어도 순서가 유지되도록 함.
+        private static Comparator<Scored> order(boolean isAsc){
+            Comparator<Scored> byScore = Comparator.comparingDouble(s -> s.score);
+            return (isAsc ? byScore : byScore.reversed())
+                    .thenComparing(s -> s.entry.getId());
+        }
+    }
+
+    //쓰기는 ShopSearchIndex의 synchronized 안에서만 수행하고, 읽기는 lock 없이 수행함.
+    private static class Index{
+        private final ConcurrentHashMap<Long, ShopDto.ShopSearchEntry> byId = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> nameKeys = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, ShopDto.ShopSearchEntry> byName = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<Long, Set<Long>> grid = new ConcurrentHashMap<>();
+
+        private void put(ShopDto.ShopSearchEntry entry){
+            remove(entry.getId());
+
+            String key = nameKey(entry);
+            byId.put(entry.getId(), entry);
+            nameKeys.put(entry.getId(), key);
+            byName.put(key, entry);
+            grid.computeIfAbsent(cellKey(cellOf(entry.getLatitude()), cellOf(entry.getLongitude())),
+                    k -> ConcurrentHashMap.newKeySet()).add(entry.getId());
+        }
+
+        private void remove(Long shopId){
+            ShopDto.ShopSearchEntry old = byId.remove(shopId);
+            if(old == null){
+                return;
+            }
+
+            byName.remove(nameKeys.remove(shopId), old);
+            grid.computeIfPresent(cellKey(cellOf(old.getLatitude()), cellOf(old.getLongitude())),
+                    (k, shopIds) -> {
+                        shopIds.remove(shopId);
+                        return shopIds.isEmpty() ? null : shopIds;
+                    });
+        }
+
+        //검색 도중에 제거된 매장이라면, 다시 계산함.
+        private String nameKeyOf(ShopDto.ShopSearchEntry entry){
+            String key = nameKeys.get(entry.getId());
+            return key != null ? key : nameKey(entry);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.jhsfully.reservation.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    검증이 끝난 AccessToken의 인증 객체를 토큰의 만료시각까지 보관하는 캐시.
+
+    같은 토큰으로 요청이 반복될 때마다 서명 검증(HS512)과 Claims 파싱을 다시 하지 않도록 함.
+    - key : 토큰의 서명 부분(마지막 "." 이후), 서명은 header.payload의 HMAC이므로 토큰마다 다름.
+        요청마다 해시를 계산하지 않으며, 찾은 항목의 토큰 원문과 한 번 더 비교하므로 다른 토큰과 섞이지 않음.
+    - 모든 요청이 하나의 lock을 두고 경쟁하지 않도록 ConcurrentHashMap을 사용함.
+    - 최대 maxEntries개를 넘으면, 한 스레드만 정리를 수행함. (만료된 항목을 먼저 지우고, 그래도 넘치면 임의의 항목을 지움)
+ */
+@Component
+public class AuthenticationCache {
+
+    private final int maxEntries;
+    private final Map<String, CachedAuthentication> authentications = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public AuthenticationCache(@Value("${spring.jwt.authentication-cache-size:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    //캐시된 인증 객체를 반환하며, 없거나 토큰이 만료되었다면 null을 반환함.
+    public Authentication get(String token){
+        String key = signature(token);
+        CachedAuthentication cached = authentications.get(key);
+        if(cached == null || !cached.token.equals(token)){
+            return null;
+        }
+        if(cached.expiredAt <= System.currentTimeMillis()){
+            authentications.remove(key, cached);
+            return null;
+        }
+        return cached.authentication;
+    }
+
+    public void put(String token, Authentication authentication, long expiredAt){
+        authentications.put(signature(token), new CachedAuthentication(token, authentication, expiredAt));
+        if(authentications.size() > maxEntries){
+            evict();
+        }
+    }
+
+    //======================= 내부 로직 =========================
+
+    private static String signature(String token){
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    //다른 스레드가 정리 중이라면 기다리지 않고 돌아감. (잠시 maxEntries를 넘을 수 있음)
+    private void evict(){
+        if(!evicting.compareAndSet(false, true)){
+            return;
+        }
+        try{
+            long now = System.currentTimeMillis();
+            authentications.values().removeIf(x -> x.expiredAt <= now);
+
+            Iterator<CachedAuthentication> iterator = authentications.values().iterator();
+            while(authentications.size() > maxEntries && iterator.hasNext()){
+                iterator.next();
+                iterator.remove();
+            }
+        }finally {
+            evicting.set(false);
+        }
+    }
+
+    private static class CachedAuthentication {
+        private final String token;
+        private final Authentication authentication;
+        private final long expiredAt;
+
+        private CachedAuthentication(String token, Authentication authentication, long expiredAt) {
+            this.token = token;
+            this.authentication = authentication;
+            this.expiredAt = expiredAt;
+        }
+    }
+}
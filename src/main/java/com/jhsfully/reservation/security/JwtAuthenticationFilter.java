@@ -1,12 +1,10 @@
 package com.jhsfully.reservation.security;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.servlet.FilterChain;
@@ -14,16 +12,28 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Arrays;
 
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     public static final String ACCESS_TOKEN_HEADER = "AccessToken";
     public static final String TOKEN_PREFIX = "Bearer ";
     private final TokenProvider tokenProvider;
 
+    private static final PathPrefixMatcher PUBLIC_PATHS = new PathPrefixMatcher(
+            "/auth/signin",
+            "/auth/user/signup",
+            "/auth/partner/signup",
+            "/auth/refresh",
+
+            //for Develop
+            "/h2-console",
+            "/swagger",
+            "/v2"
+    );
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         if(isSkip(request.getRequestURI())){
@@ -33,9 +43,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String accessToken = resolveTokenFromRequest(request, ACCESS_TOKEN_HEADER);
 
-        if (StringUtils.hasText(accessToken) && tokenProvider.validateToken(accessToken)) {
+        //토큰을 한 번만 파싱하여 검증과 인증 객체 생성을 함께 수행함. (검증된 토큰은 캐시됨)
+        Authentication authentication = tokenProvider.resolveAuthentication(accessToken);
+
+        if (authentication != null) {
 
-            Authentication authentication = tokenProvider.getAuthentication(accessToken);
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
         } else{ //로그인이 필요한 경우임.
@@ -55,16 +67,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private boolean isSkip(String requestURI){
-        log.info(requestURI);
-        if(requestURI.startsWith("/auth/signin"))return true;
-        if(requestURI.startsWith("/auth/user/signup"))return true;
-        if(requestURI.startsWith("/auth/partner/signup"))return true;
-        if(requestURI.startsWith("/auth/refresh"))return true;
-
-        //for Develop
-        if(requestURI.startsWith("/h2-console"))return true;
-        if(requestURI.startsWith("/swagger"))return true;
-        if(requestURI.startsWith("/v2"))return true;
-        return false;
+        return PUBLIC_PATHS.matches(requestURI);
+    }
+
+    /*
+        인증이 필요 없는 경로의 prefix들을, 첫 경로 문자('/' 다음 문자)별로 미리 나누어 둔 matcher.
+        요청마다 해당 문자의 prefix들만 비교하며, 객체를 만들지 않음.
+     */
+    private static class PathPrefixMatcher {
+        private final String[][] prefixesByFirstChar = new String[128][];
+
+        private PathPrefixMatcher(String... prefixes){
+            for(String prefix : prefixes){
+                int index = prefix.charAt(1);
+                String[] current = prefixesByFirstChar[index];
+                String[] next = current == null ? new String[1] : Arrays.copyOf(current, current.length + 1);
+                next[next.length - 1] = prefix;
+                prefixesByFirstChar[index] = next;
+            }
+        }
+
+        private boolean matches(String requestURI){
+            if(requestURI == null || requestURI.length() < 2){
+                return false;
+            }
+
+            char firstChar = requestURI.charAt(1);
+            if(firstChar >= prefixesByFirstChar.length || prefixesByFirstChar[firstChar] == null){
+                return false;
+            }
+
+            for(String prefix : prefixesByFirstChar[firstChar]){
+                if(requestURI.startsWith(prefix)){
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
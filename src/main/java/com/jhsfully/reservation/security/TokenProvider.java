@@ -17,7 +17,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,7 +37,13 @@ public class TokenProvider {
     private static final long ACCESS_TOKEN_EXPIRE_TIME = 1000 * 60 * 30;//1초 -> 1분 -> 30분
     private static final long REFRESH_TOKEN_EXPIRE_TIME = 1000 * 60 * 60 * 24 * 14;//1초 -> 1분 -> 1시간 -> 1일 -> 2주
 
+    private static final List<SimpleGrantedAuthority> USER_AUTHORITIES = authorities(RoleType.ROLE_USER);
+    private static final List<SimpleGrantedAuthority> USER_ADMIN_AUTHORITIES = authorities(RoleType.ROLE_USER, RoleType.ROLE_ADMIN);
+    private static final List<SimpleGrantedAuthority> PARTNER_AUTHORITIES = authorities(RoleType.ROLE_PARTNER);
+    private static final List<SimpleGrantedAuthority> PARTNER_ADMIN_AUTHORITIES = authorities(RoleType.ROLE_PARTNER, RoleType.ROLE_ADMIN);
+
     private final RefreshTokenRepository refreshTokenRepository;
+    private final AuthenticationCache authenticationCache;
 
 
     //Access 토큰 생성
@@ -95,44 +101,58 @@ public class TokenProvider {
         return refreshToken;
     }
 
-    //토큰을 통해, 인증 객체 생성.
-    public Authentication getAuthentication(String token){
+    /*
+        AccessToken을 검증하고, 인증 객체를 반환함. 토큰이 없거나 만료되었다면 null을 반환함.
+        토큰은 한 번만 파싱하며, 검증된 인증 객체는 토큰이 만료될 때까지 캐시하여 서명 검증을 반복하지 않음.
+     */
+    public Authentication resolveAuthentication(String token){
+        if(!StringUtils.hasText(token)){
+            return null;
+        }
 
-        Long memberId = getMemberId(token);
-        List<String> roles = getRoles(token);
+        Authentication cached = authenticationCache.get(token);
+        if(cached != null){
+            return cached;
+        }
 
-        List<SimpleGrantedAuthority> grantedAuthorities = roles.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        Claims claims = parseClaims(token);
+        if(isExpired(claims)){
+            return null;
+        }
 
-        return new UsernamePasswordAuthenticationToken(memberId, "", grantedAuthorities);
+        Authentication authentication = getAuthentication(claims);
+        authenticationCache.put(token, authentication, claims.getExpiration().getTime());
+        return authentication;
     }
 
-    //토큰으로부터 권한 가져오기.
-    private List<String> getRoles(String token){
-        Claims claims = parseClaims(token);
+    //토큰을 통해, 인증 객체 생성.
+    public Authentication getAuthentication(String token){
+        return getAuthentication(parseClaims(token));
+    }
+
+    private Authentication getAuthentication(Claims claims){
+        return new UsernamePasswordAuthenticationToken(getMemberId(claims), "", getAuthorities(claims));
+    }
+
+    //토큰으로부터 권한 가져오기. (권한 조합은 4가지뿐이므로, 미리 만들어둔 목록을 재사용함)
+    private List<SimpleGrantedAuthority> getAuthorities(Claims claims){
 
         boolean isPartner = claims.get(IS_PARTNER, Boolean.class);
         boolean isAdmin = claims.get(IS_ADMIN, Boolean.class);
 
-        List<String> roles = new ArrayList<>();
-
         if(isPartner){
-            roles.add(RoleType.ROLE_PARTNER.name());
-        }else{
-            roles.add(RoleType.ROLE_USER.name());
+            return isAdmin ? PARTNER_ADMIN_AUTHORITIES : PARTNER_AUTHORITIES;
         }
-
-        if(isAdmin){
-            roles.add(RoleType.ROLE_ADMIN.name());
-        }
-
-        return roles;
+        return isAdmin ? USER_ADMIN_AUTHORITIES : USER_AUTHORITIES;
     }
 
     //회원 번호 가져오기.
     private Long getMemberId(String token){
-        return this.parseClaims(token).get(MEMBER_ID, Long.class);
+        return getMemberId(this.parseClaims(token));
+    }
+
+    private Long getMemberId(Claims claims){
+        return claims.get(MEMBER_ID, Long.class);
     }
 
     //토큰 유효기간 검증.
@@ -141,8 +161,11 @@ public class TokenProvider {
             return false;
         }
 
-        Claims claims = parseClaims(token);
-        return !claims.getExpiration().before(new Date());
+        return !isExpired(parseClaims(token));
+    }
+
+    private boolean isExpired(Claims claims){
+        return claims.getExpiration().before(new Date());
     }
 
     //토큰 파싱
@@ -154,4 +177,10 @@ public class TokenProvider {
         }
     }
 
+    private static List<SimpleGrantedAuthority> authorities(RoleType... roles){
+        return Arrays.stream(roles)
+                .map(role -> new SimpleGrantedAuthority(role.name()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.jhsfully.reservation.service;
 
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 
 import java.time.LocalDate;
@@ -13,6 +14,10 @@ public interface ReservationService {
 
     List<ReservationDto.ReservationResponse> getReservationByShop(Long memberId, Long shopId, LocalDate startDate, int pageIndex);
 
+    CursorResponse<ReservationDto.ReservationResponse> getReservationForUserByCursor(Long memberId, LocalDate startDate, String cursor);
+
+    CursorResponse<ReservationDto.ReservationResponse> getReservationByShopByCursor(Long memberId, Long shopId, LocalDate startDate, String cursor);
+
     void deleteReservation(Long memberId, Long reservationId);
 
     void rejectReservation(Long memberId, Long reservationId, LocalDate dateNow);
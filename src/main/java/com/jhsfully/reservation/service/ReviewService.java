@@ -1,5 +1,6 @@
 package com.jhsfully.reservation.service;
 
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.model.ReviewDto;
 
@@ -19,4 +20,8 @@ public interface ReviewService {
     List<ReviewDto.ReviewResponse> getReviewsForUser(Long memberId, int pageIndex);
 
     List<ReviewDto.ReviewResponse> getReviewsForShop(Long shopId, int pageIndex);
+
+    CursorResponse<ReviewDto.ReviewResponse> getReviewsForUserByCursor(Long memberId, String cursor);
+
+    CursorResponse<ReviewDto.ReviewResponse> getReviewsForShopByCursor(Long shopId, String cursor);
 }
@@ -1,5 +1,10 @@
 package com.jhsfully.reservation.service.impl;
 
+import com.jhsfully.reservation.admission.ReservationAdmission;
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.cache.PageCountCache;
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.cache.ShopScheduleCache;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Reservation;
 import com.jhsfully.reservation.domain.Review;
@@ -8,23 +13,30 @@ import com.jhsfully.reservation.exception.AuthenticationException;
 import com.jhsfully.reservation.exception.ReservationException;
 import com.jhsfully.reservation.exception.ReviewException;
 import com.jhsfully.reservation.exception.ShopException;
+import com.jhsfully.reservation.lock.RedisLock;
+import com.jhsfully.reservation.lock.WaitStrategy;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.repository.MemberRepository;
 import com.jhsfully.reservation.repository.ReservationRepository;
 import com.jhsfully.reservation.repository.ReviewRepository;
 import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.scheduler.ReservationDeadlineQueue;
 import com.jhsfully.reservation.service.ReservationService;
-import com.jhsfully.reservation.type.Days;
+import com.jhsfully.reservation.type.ReservationState;
+import com.jhsfully.reservation.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.jhsfully.reservation.type.AuthenticationErrorType.AUTHENTICATION_USER_NOT_FOUND;
 import static com.jhsfully.reservation.type.ReservationErrorType.*;
@@ -40,10 +52,32 @@ public class ReservationServiceImpl implements ReservationService {
     private final ReviewRepository reviewRepository;
     private final ShopRepository shopRepository;
     private final MemberRepository memberRepository;
+    private final ReservationAdmission reservationAdmission;
+    private final PageCountCache pageCountCache;
+    private final ShopScheduleCache shopScheduleCache;
+    private final ReservedCountCache reservedCountCache;
+    private final ReservationDeadlineQueue reservationDeadlineQueue;
+    private final KioskReservationIndex kioskReservationIndex;
 
+    private static final int CURSOR_PAGE_SIZE = 10;
 
-    //예약을 수행함.
+
+    /*
+        예약을 수행함.
+        - 시간대의 남은 인원은 reservation_slot의 조건부 UPDATE로 차감하므로, lock 없이도 초과되지 않음.
+        - 같은 회원이 같은 매장, 같은 날에 동시에 보낸 요청(시간대가 달라도)은 하루 1회 예약 검증을 함께 통과할 수 있으므로,
+            memberId, shopId, resDay를 조합한 key로 lock을 걸어, 한 회원의 같은 날 요청만 순서대로 처리함.
+            (다른 회원의 예약은 같은 시간대라도 서로 기다리지 않음)
+        - lock은 트랜잭션보다 먼저 잡고, 커밋된 후에 반납함. (LockAspect가 가장 바깥에서 실행됨)
+        - 컨트롤러는 requestExecutor에서 호출하므로, lock을 기다리는 동안 Tomcat 스레드를 잡고 있지 않음.
+        - reservation.admission이 redis라면, 중복 신청 확인과 인원 차감을 하나의 Lua 스크립트로 수행하므로,
+            lock을 잡지 않음.
+     */
     @Override
+    @RedisLock(group = "reservation", keys = {"memberId", "request.shopId", "request.resDay"},
+            waitStrategy = WaitStrategy.PUBSUB,
+            condition = "#{'${reservation.admission:database}' == 'database'}")
+    @Transactional
     public void addReservation(Long memberId, ReservationDto.AddReservationRequest request, LocalDate dateNow) {
 
         //필요한 데이터 가져오기
@@ -54,7 +88,20 @@ public class ReservationServiceImpl implements ReservationService {
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
         //예약 가능 검증
-        validateAddReservation(request, shop, member, dateNow);
+        validateAddReservation(request, shop, dateNow);
+
+        /*
+            같은 날의 중복 예약 여부와 남은 인원을 확인하고, 해당 시간대의 자리를 확보함.
+            확보 후 예약 저장이 실패하여 롤백되면, 확보한 자리는 되돌려짐.
+         */
+        ReservationAdmission.AdmissionResult admission = reservationAdmission.admit(
+                shop, member, request.getResDay(), request.getResTime(), request.getCount());
+        if(admission == ReservationAdmission.AdmissionResult.GREEDY_USER){
+            throw new ReservationException(RESERVATION_CANNOT_ALLOW_GREEDY_USER);
+        }
+        if(admission == ReservationAdmission.AdmissionResult.OVERFLOW){
+            throw new ReservationException(RESERVATION_IS_OVERFLOW);
+        }
 
         //예약 수행
         Reservation reservation = Reservation.builder()
@@ -68,6 +115,10 @@ public class ReservationServiceImpl implements ReservationService {
                 .build();
 
         reservationRepository.save(reservation);
+        reservedCountCache.increase(shop.getId(), request.getResDay(), request.getResTime(), request.getCount());
+
+        //예약일 0시까지 승인되지 않으면, 자동으로 거절 처리됨.
+        reservationDeadlineQueue.schedule(reservation.getId(), READY, request.getResDay().atStartOfDay());
     }
 
     //자신이 예약한 정보를 가져오는 함수(start 날의 이후의 데이터를 paging 하여 가져옴)
@@ -77,40 +128,59 @@ public class ReservationServiceImpl implements ReservationService {
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
-        Page<Reservation> reservations = reservationRepository.findByMemberAndResDayGreaterThanEqual(member, startDate, PageRequest.of(pageIndex, 10));
+        Pageable pageable = PageRequest.of(pageIndex, 10);
+        Page<ReservationDto.ReservationResponse> reservations = pageCountCache.getPage(
+                "reservation-member:" + member.getId() + ":" + startDate,
+                reservationRepository.findResponsesByMember(member, startDate, pageable),
+                pageable,
+                () -> reservationRepository.countByMemberAndResDayGreaterThanEqual(member, startDate));
 
-        return reservations
-                .getContent()
-                .stream()
-                .map(x -> Reservation.toDto(x, reservations.getTotalElements()))
-                .collect(Collectors.toList());
+        return withReservationCount(reservations);
     }
 
     //shop을 기준으로 파트너가 자신의 shop에 요청된 reservation들을 조회할 수 있음(start부터 조회되고, pageIndex로 페이징처리됨)
     @Override
     public List<ReservationDto.ReservationResponse> getReservationByShop(Long memberId, Long shopId, LocalDate startDate, int pageIndex) {
-        Shop shop = shopRepository.findById(shopId)
-                .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
+        Shop shop = getShopForPartner(memberId, shopId);
+
+        Pageable pageable = PageRequest.of(pageIndex, 10);
+        Page<ReservationDto.ReservationResponse> reservations = pageCountCache.getPage(
+                "reservation-shop:" + shop.getId() + ":" + startDate,
+                reservationRepository.findResponsesByShop(shop, startDate, pageable),
+                pageable,
+                () -> reservationRepository.countByShopAndResDayGreaterThanEqual(shop, startDate));
+
+        return withReservationCount(reservations);
+    }
+
+    /*
+        커서 기반으로 유저의 예약을 조회함. (resDay, id 순)
+        cursor가 비어있다면 첫 페이지를, 아니라면 cursor 이후의 예약들을 조회하며,
+        전체 개수를 세지 않으므로, reservationCount는 0으로 응답함.
+     */
+    @Override
+    public CursorResponse<ReservationDto.ReservationResponse> getReservationForUserByCursor(Long memberId, LocalDate startDate, String cursor) {
 
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
-        //이미 삭제된 shop임.
-        if(shop.isDeleted()){
-            throw new ShopException(SHOP_IS_DELETED);
-        }
+        ReservationCursor position = decodeReservationCursor(cursor);
+        List<ReservationDto.ReservationResponse> reservations = reservationRepository.findByMemberAfterCursor(
+                member, startDate, position.resDay, position.id, CURSOR_PAGE_SIZE + 1);
 
-        if(!Objects.equals(member.getId(), shop.getMember().getId())){
-            throw new ShopException(SHOP_NOT_MATCH_USER);
-        }
+        return toCursorResponse(reservations);
+    }
 
-        Page<Reservation> reservations = reservationRepository.findByShopAndResDayGreaterThanEqual(shop, startDate, PageRequest.of(pageIndex, 10));
+    //커서 기반으로 파트너가 자신의 shop에 요청된 예약을 조회함.
+    @Override
+    public CursorResponse<ReservationDto.ReservationResponse> getReservationByShopByCursor(Long memberId, Long shopId, LocalDate startDate, String cursor) {
+        Shop shop = getShopForPartner(memberId, shopId);
 
-        return reservations
-                .getContent()
-                .stream()
-                .map(x -> Reservation.toDto(x, reservations.getTotalElements()))
-                .collect(Collectors.toList());
+        ReservationCursor position = decodeReservationCursor(cursor);
+        List<ReservationDto.ReservationResponse> reservations = reservationRepository.findByShopAfterCursor(
+                shop, startDate, position.resDay, position.id, CURSOR_PAGE_SIZE + 1);
+
+        return toCursorResponse(reservations);
     }
 
     /*
@@ -120,6 +190,7 @@ public class ReservationServiceImpl implements ReservationService {
         ASSIGN의 경우에는 => EXPIRED로 바꾸어 예약을 파기 했다는 사실을 알림.
      */
     @Override
+    @Transactional
     public void deleteReservation(Long memberId, Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ReservationException(RESERVATION_NOT_FOUND));
@@ -135,13 +206,17 @@ public class ReservationServiceImpl implements ReservationService {
         }else{ //증거를 남기기 위해, 파기 처리만 수행함. 데이터를 삭제하지는 않음.
             reservation.setReservationState(EXPIRED);
             reservationRepository.save(reservation);
+            kioskReservationIndex.changeState(reservation.getId(), reservation.getResDay(), EXPIRED);
         }
 
+        //취소된 예약의 인원을 해당 시간대에 되돌려줌.
+        releaseReservationSlot(reservation);
     }
 
     //파트너가 자신의 shop에 들어온 예약을 거절하는 함수임. READY -> REJECT
     //당일날 해당되는 예약은 REJECT처리할 수 없음. (단, 스케줄러에 의해 이미 REJECT로 자동처리됨.)
     @Override
+    @Transactional
     public void rejectReservation(Long memberId, Long reservationId, LocalDate dateNow) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ReservationException(RESERVATION_NOT_FOUND));
@@ -153,6 +228,9 @@ public class ReservationServiceImpl implements ReservationService {
 
         reservation.setReservationState(REJECT);
         reservationRepository.save(reservation);
+
+        //거절된 예약의 인원을 해당 시간대에 되돌려줌.
+        releaseReservationSlot(reservation);
     }
 
 
@@ -160,6 +238,7 @@ public class ReservationServiceImpl implements ReservationService {
     //파트너가 자신의 shop에 들어온 예약을 승인하는 함수임, READY -> ASSIGN
     //단, 오늘에 해당되는 예약은 승인 불가, (스케줄러에 의해, 당일날 예약이 READY시에는 자동으로 REJECT로 처리됨)
     @Override
+    @Transactional
     public void assignReservation(Long memberId, Long reservationId, LocalDate dateNow) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ReservationException(RESERVATION_NOT_FOUND));
@@ -171,6 +250,11 @@ public class ReservationServiceImpl implements ReservationService {
 
         reservation.setReservationState(ASSIGN);
         reservationRepository.save(reservation);
+
+        //예약시간까지 방문하지 않으면, 자동으로 노쇼 및 예약 파기로 처리됨.
+        reservationDeadlineQueue.schedule(reservation.getId(), ASSIGN,
+                reservation.getResDay().atTime(reservation.getResTime()));
+        kioskReservationIndex.assigned(reservation);
     }
 
     /*
@@ -180,9 +264,21 @@ public class ReservationServiceImpl implements ReservationService {
         매개변수로 가져오는 memberId는 파트너의 멤버를 조회하고, shop과 매칭되는지 확인하기 위함임.
         visitMember 는 방문하려는 사람이, 조회하는 핸드폰 번호로 member를 찾아줌.
         reservation의 member는 reservation을 생성한 member의 데이터가 포함되어있음.
+
+        오늘의 키오스크 인덱스(KioskReservationIndex)에 있는 예약이라면, DB를 조회하지 않고 메모리에서 응답함.
     */
     @Override
     public ReservationDto.ReservationResponse getReservationForVisit(Long memberId, Long shopId, ReservationDto.GetReservationParam param, LocalDate dateNow, LocalTime timeNow) {
+        KioskReservationIndex.Entry indexed = kioskReservationIndex.find(shopId, param.getPhone(), dateNow, timeNow);
+        if(indexed != null){
+            //API가 조작되었는지 검증함. (삭제된 shop은 인덱스에서 제외됨)
+            if(!Objects.equals(memberId, indexed.getOwnerId())){
+                throw new ShopException(SHOP_NOT_MATCH_USER);
+            }
+            validateVisitableTime(indexed.getReservationState(), indexed.getResTime(), timeNow);
+            return indexed.toDto(1);
+        }
+
         Shop shop = shopRepository.findById(shopId)
                 .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
 
@@ -207,30 +303,43 @@ public class ReservationServiceImpl implements ReservationService {
                 .findByMemberAndShopAndResDayAndResTimeGreaterThanEqual(visitMember, shop, dateNow, timeNow)
                 .orElseThrow(() -> new ReservationException(RESERVATION_NOT_FOUND));
 
-        if(reservation.getReservationState() != ASSIGN){
-            throw new ReservationException(RESERVATION_CANNOT_VISIT_NOT_ASSIGN);
-        }
-
-        if(!timeNow.isAfter(reservation.getResTime().minusMinutes(10))){
-            throw new ReservationException(RESERVATION_CANNOT_VISIT_TIME_OVER);
-        }
+        validateVisitableTime(reservation.getReservationState(), reservation.getResTime(), timeNow);
 
         return Reservation.toDto(reservation, 1);
     }
 
     //방문 수행.
     @Override
+    @Transactional
     public void visitReservation(Long memberId, Long reservationId, LocalDate dateNow, LocalTime timeNow) {
+
+        //오늘의 키오스크 인덱스에 있다면, 예약과 회원을 조회하지 않고 메모리에서 검증함.
+        KioskReservationIndex.Entry indexed = kioskReservationIndex.get(reservationId, dateNow);
+        if(indexed != null){
+            validateForVisit(memberId, indexed.getOwnerId(), indexed.getReservationState(),
+                    indexed.getResDay(), indexed.getResTime(), dateNow, timeNow);
+
+            //다른 서버에서 이미 상태가 바뀌었거나 매장이 삭제되었다면 변경되지 않으므로, 인덱스에서 지우고 DB에서 다시 찾도록 함.
+            if(reservationRepository.updateReservationStateToVisited(reservationId) == 0){
+                kioskReservationIndex.evict(reservationId, dateNow);
+                throw new ReservationException(RESERVATION_CANNOT_VISIT_NOT_ASSIGN);
+            }
+            kioskReservationIndex.changeState(reservationId, dateNow, VISITED);
+            return;
+        }
+
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ReservationException(RESERVATION_NOT_FOUND));
 
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
-        validateForVisit(member, reservation, dateNow, timeNow);
+        validateForVisit(member.getId(), reservation.getShop().getMember().getId(), reservation.getReservationState(),
+                reservation.getResDay(), reservation.getResTime(), dateNow, timeNow);
 
         reservation.setReservationState(VISITED);
         reservationRepository.save(reservation);
+        kioskReservationIndex.changeState(reservation.getId(), reservation.getResDay(), VISITED);
     }
 
     //파서드 단에서 호출되는, 리뷰 할당 함수.
@@ -258,10 +367,87 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
 
+    //=======================   예약 시간대 인원 처리   ==========================
+
+    //취소, 거절, 파기된 예약의 인원을 해당 시간대에 되돌려줌.
+    private void releaseReservationSlot(Reservation reservation){
+        reservationAdmission.release(
+                reservation.getShop().getId(),
+                reservation.getMember().getId(),
+                reservation.getResDay(),
+                reservation.getResTime(),
+                reservation.getCount());
+        reservedCountCache.increase(
+                reservation.getShop().getId(),
+                reservation.getResDay(),
+                reservation.getResTime(),
+                -reservation.getCount());
+    }
+
+
+    //=======================   커서 처리   ====================================
+
+    private static class ReservationCursor{
+        private final LocalDate resDay;
+        private final Long id;
+
+        private ReservationCursor(LocalDate resDay, Long id){
+            this.resDay = resDay;
+            this.id = id;
+        }
+    }
+
+    //커서는 (resDay, id)를 인코딩한 값임. 비어있다면 첫 페이지를 의미함.
+    private ReservationCursor decodeReservationCursor(String cursor){
+        if(cursor == null || cursor.isBlank()){
+            return new ReservationCursor(null, null);
+        }
+
+        try{
+            String[] values = CursorUtil.decode(cursor, 2);
+            return new ReservationCursor(LocalDate.parse(values[0]), Long.parseLong(values[1]));
+        }catch (IllegalArgumentException | DateTimeParseException e){
+            throw new ReservationException(RESERVATION_INVALID_CURSOR);
+        }
+    }
+
+    private CursorResponse<ReservationDto.ReservationResponse> toCursorResponse(List<ReservationDto.ReservationResponse> reservations){
+        return CursorResponse.of(reservations, CURSOR_PAGE_SIZE,
+                x -> x,
+                x -> CursorUtil.encode(x.getResDay(), x.getId()));
+    }
+
+    //Projection으로 조회된 응답에는 전체 개수가 없으므로, 페이지의 전체 개수를 채워서 반환함.
+    private List<ReservationDto.ReservationResponse> withReservationCount(Page<ReservationDto.ReservationResponse> reservations){
+        List<ReservationDto.ReservationResponse> content = reservations.getContent();
+        content.forEach(x -> x.setReservationCount(reservations.getTotalElements()));
+        return content;
+    }
+
+
     //=======================   검증 로직   ====================================
 
+    //파트너가 자신의 shop을 조회하는지 검증하고, shop을 반환함.
+    private Shop getShopForPartner(Long memberId, Long shopId){
+        Shop shop = shopRepository.findById(shopId)
+                .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
+
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
+
+        //이미 삭제된 shop임.
+        if(shop.isDeleted()){
+            throw new ShopException(SHOP_IS_DELETED);
+        }
+
+        if(!Objects.equals(member.getId(), shop.getMember().getId())){
+            throw new ShopException(SHOP_NOT_MATCH_USER);
+        }
+        return shop;
+    }
+
     //예약 신청을 위한 검증 로직
-    private void validateAddReservation(ReservationDto.AddReservationRequest request, Shop shop, Member member, LocalDate dateNow){
+    private void validateAddReservation(ReservationDto.AddReservationRequest request, Shop shop, LocalDate dateNow){
 
         //0명은 신청 불가능함
         if(request.getCount() == 0){
@@ -273,58 +459,25 @@ public class ReservationServiceImpl implements ReservationService {
             throw new ShopException(SHOP_IS_DELETED);
         }
 
-        //예약 가능일 여부(오늘 + 1 ~ N주뒤 까지)
-        // .plusDays 는 isBefore()함수를 통해 범위를 계산할 때, N주뒤에 해당되는 날까지 포함하기 위함임.
-        if( !( request.getResDay().isAfter(dateNow) &&
-                request.getResDay().isBefore(dateNow.plusWeeks(shop.getResOpenWeek()).plusDays(1)) ) ){
+        //오픈 요일, 시간대는 캐시된 일정에서 확인하므로, shop의 컬렉션을 조회하지 않음.
+        ShopScheduleCache.ShopSchedule schedule = shopScheduleCache.get(shop);
 
+        //예약 가능일 여부(오늘 + 1 ~ N주뒤 까지)
+        if(!schedule.isReservableDay(request.getResDay(), dateNow)){
             throw new ReservationException(RESERVATION_NOT_OPENED_DAY);
         }
 
-        //오픈된 요일이 맞는지 확인
-        boolean isGO = false;
-        for(Days day : shop.getResOpenDays()){
-            if(day.getValue() == request.getResDay().getDayOfWeek().getValue()){
-                isGO = true;
-                break;
-            }
-        }
-
         //오픈된 요일이 아닌 경우, Exception 날리기.
-        if(!isGO){
+        if(!schedule.isOpenDay(request.getResDay().getDayOfWeek())){
             throw new ReservationException(RESERVATION_NOT_OPENED_DAY);
         }
 
-        isGO = false;
-
-        //오픈된 시간대 확인
-        for(LocalTime time : shop.getResOpenTimes()){
-            if(time.equals(request.getResTime())){
-                isGO = true;
-                break;
-            }
-        }
-
         //오픈된 시간대가 아닌 경우 Exception 날리기
-        if(!isGO){
+        if(!schedule.isOpenTime(request.getResTime())){
             throw new ReservationException(RESERVATION_NOT_OPENED_TIME);
         }
 
-        //같은 날에 이미 해당유저의 ASSIGN or READY 상태의 예약이 있으면 신청 못함
-        int alreadyReservedCountForMember = reservationRepository.getReservationCountWithShopAndDayForMember(shop, member, request.getResDay());
-        if(alreadyReservedCountForMember > 0){
-            throw new ReservationException(RESERVATION_CANNOT_ALLOW_GREEDY_USER);
-        }
-
-        //reservation 들을 가져와서 해당 예약의 카운트를 확인.
-        int alreadyReservedCount = reservationRepository
-                .getReservationCountWithShopAndTime(shop, request.getResDay(), request.getResTime());
-
-        //기존의 예약된 횟수에서 요청된 예약을 더하면, 허용하는 시간대별 예약 수용인원을 넘긴다면, 에러 발생.
-        if(alreadyReservedCount + request.getCount() > shop.getResOpenCount()){
-            throw new ReservationException(RESERVATION_IS_OVERFLOW);
-        }
-
+        //같은 날의 중복 예약 여부와 시간대별 수용인원 초과 여부는 ReservationAdmission에서 자리를 확보하면서 확인함.
     }
 
     //예약 취소를 위한 검증 로직.
@@ -397,26 +550,39 @@ public class ReservationServiceImpl implements ReservationService {
 
     }
 
-    //방문하기 위한, 검증 로직임.
-    private void validateForVisit(Member member, Reservation reservation, LocalDate dateNow, LocalTime timeNow){
+    //키오스크에서 조회한 예약이 방문 가능한 상태, 시간인지 검증함.
+    private void validateVisitableTime(ReservationState state, LocalTime resTime, LocalTime timeNow){
+
+        if(state != ASSIGN){
+            throw new ReservationException(RESERVATION_CANNOT_VISIT_NOT_ASSIGN);
+        }
+
+        if(!timeNow.isAfter(resTime.minusMinutes(10))){
+            throw new ReservationException(RESERVATION_CANNOT_VISIT_TIME_OVER);
+        }
+    }
+
+    //방문하기 위한, 검증 로직임. (DB에서 조회한 예약과 키오스크 인덱스의 예약에 함께 사용함)
+    private void validateForVisit(Long memberId, Long ownerId, ReservationState state,
+                                  LocalDate resDay, LocalTime resTime, LocalDate dateNow, LocalTime timeNow){
 
         //해당 점주의 계정으로 로그인된 키오스크 장치가 아님.
-        if(!Objects.equals(reservation.getShop().getMember().getId(), member.getId())){
+        if(!Objects.equals(ownerId, memberId)){
             throw new ShopException(SHOP_NOT_MATCH_USER);
         }
 
         //승인 되지 않은 예약임.
-        if(reservation.getReservationState() != ASSIGN){
+        if(state != ASSIGN){
             throw new ReservationException(RESERVATION_CANNOT_VISIT_NOT_ASSIGN);
         }
 
         //방문일과 예약일이 일치하지 않음.
-        if(!dateNow.equals(reservation.getResDay())){
+        if(!dateNow.equals(resDay)){
             throw new ReservationException(RESERVATION_CANNOT_VISIT_DAY_NOT_EQUAL);
         }
 
         //현재 시간이 예약시간대의 이전이 아님.
-        if(timeNow.isAfter(reservation.getResTime())){
+        if(timeNow.isAfter(resTime)){
             throw new ReservationException(RESERVATION_CANNOT_VISIT_TIME_OVER);
         }
     }
@@ -1,5 +1,6 @@
 package com.jhsfully.reservation.service.impl;
 
+import com.jhsfully.reservation.cache.PageCountCache;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Reservation;
 import com.jhsfully.reservation.domain.Review;
@@ -8,6 +9,7 @@ import com.jhsfully.reservation.exception.AuthenticationException;
 import com.jhsfully.reservation.exception.ReservationException;
 import com.jhsfully.reservation.exception.ReviewException;
 import com.jhsfully.reservation.exception.ShopException;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.model.ReviewDto;
 import com.jhsfully.reservation.repository.MemberRepository;
@@ -16,10 +18,11 @@ import com.jhsfully.reservation.repository.ReviewRepository;
 import com.jhsfully.reservation.repository.ShopRepository;
 import com.jhsfully.reservation.service.ReviewService;
 import com.jhsfully.reservation.type.ReservationState;
+import com.jhsfully.reservation.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +30,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.jhsfully.reservation.type.AuthenticationErrorType.AUTHENTICATION_USER_NOT_FOUND;
 import static com.jhsfully.reservation.type.ReservationErrorType.RESERVATION_NOT_FOUND;
@@ -43,6 +45,9 @@ public class ReviewServiceImpl implements ReviewService {
     private final MemberRepository memberRepository;
     private final ReservationRepository reservationRepository;
     private final ShopRepository shopRepository;
+    private final PageCountCache pageCountCache;
+
+    private static final int CURSOR_PAGE_SIZE = 10;
 
     //작성 가능한 리뷰 조회 서비스
     @Override
@@ -54,19 +59,11 @@ public class ReviewServiceImpl implements ReviewService {
         //해당 회원의 예약을 가져오는데, VISITED로 처리된 항목을 가져옴.
         //아직 예약일보다 일주일 이전이면, 조회할 수 있도록 해줌.
 
-        Page<Reservation> reservations = reservationRepository.findReservationForReview(member, dateNow.minusWeeks(1), PageRequest.of(pageIndex, 10));
+        Page<ReservationDto.ResponseForReview> reservations = reservationRepository.findReservationForReview(member, dateNow.minusWeeks(1), PageRequest.of(pageIndex, 10));
 
-        return reservations
-                .getContent()
-                .stream()
-                .map(x -> ReservationDto.ResponseForReview.builder()
-                        .reservationCount(reservations.getTotalElements())
-                        .reservationId(x.getId())
-                        .shopName(x.getShop().getName())
-                        .visitDay(x.getResDay())
-                        .visitTime(x.getResTime())
-                        .build()
-                ).collect(Collectors.toList());
+        List<ReservationDto.ResponseForReview> content = reservations.getContent();
+        content.forEach(x -> x.setReservationCount(reservations.getTotalElements()));
+        return content;
 
     }
 
@@ -161,11 +158,12 @@ public class ReviewServiceImpl implements ReviewService {
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
-        Page<Review> reviews = reviewRepository.findByMember(member, PageRequest.of(pageIndex, 10, Sort.by("id").descending()));
-        return reviews.getContent()
-                .stream()
-                .map(x -> Review.toDto(x, reviews.getTotalElements()))
-                .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(pageIndex, 10);
+        Page<ReviewDto.ReviewResponse> reviews = pageCountCache.getPage("review-member:" + member.getId(),
+                reviewRepository.findResponsesByMember(member, pageable),
+                pageable,
+                () -> reviewRepository.countByMember(member));
+        return withReviewCount(reviews);
     }
 
     @Override
@@ -173,11 +171,67 @@ public class ReviewServiceImpl implements ReviewService {
         Shop shop = shopRepository.findById(shopId)
                 .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
 
-        Page<Review> reviews = reviewRepository.findByShop(shop, PageRequest.of(pageIndex, 10, Sort.by("id").descending()));
-        return reviews.getContent()
-                .stream()
-                .map(x -> Review.toDto(x, reviews.getTotalElements()))
-                .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(pageIndex, 10);
+        Page<ReviewDto.ReviewResponse> reviews = pageCountCache.getPage("review-shop:" + shop.getId(),
+                reviewRepository.findResponsesByShop(shop, pageable),
+                pageable,
+                () -> reviewRepository.countByShop(shop));
+        return withReviewCount(reviews);
+    }
+
+    /*
+        커서 기반으로 리뷰를 조회함. (id 내림차순)
+        cursor가 비어있다면 첫 페이지를, 아니라면 cursor(이전 페이지의 마지막 리뷰) 이후의 리뷰들을 조회하며,
+        전체 개수를 세지 않으므로, reviewCount는 0으로 응답함.
+     */
+    @Override
+    public CursorResponse<ReviewDto.ReviewResponse> getReviewsForUserByCursor(Long memberId, String cursor) {
+
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
+
+        List<ReviewDto.ReviewResponse> reviews = reviewRepository.findByMemberBeforeCursor(
+                member, decodeReviewCursor(cursor), CURSOR_PAGE_SIZE + 1);
+        return toCursorResponse(reviews);
+    }
+
+    @Override
+    public CursorResponse<ReviewDto.ReviewResponse> getReviewsForShopByCursor(Long shopId, String cursor) {
+        Shop shop = shopRepository.findById(shopId)
+                .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
+
+        List<ReviewDto.ReviewResponse> reviews = reviewRepository.findByShopBeforeCursor(
+                shop, decodeReviewCursor(cursor), CURSOR_PAGE_SIZE + 1);
+        return toCursorResponse(reviews);
+    }
+
+
+    //======================= 커서 처리 ================================
+
+    //커서는 마지막 리뷰의 id를 인코딩한 값임. 비어있다면 첫 페이지이므로, 모든 id보다 큰 값을 사용함.
+    private Long decodeReviewCursor(String cursor){
+        if(cursor == null || cursor.isBlank()){
+            return Long.MAX_VALUE;
+        }
+
+        try{
+            return Long.parseLong(CursorUtil.decode(cursor, 1)[0]);
+        }catch (IllegalArgumentException e){
+            throw new ReviewException(REVIEW_INVALID_CURSOR);
+        }
+    }
+
+    private CursorResponse<ReviewDto.ReviewResponse> toCursorResponse(List<ReviewDto.ReviewResponse> reviews){
+        return CursorResponse.of(reviews, CURSOR_PAGE_SIZE,
+                x -> x,
+                x -> CursorUtil.encode(x.getId()));
+    }
+
+    //Projection으로 조회된 응답에는 전체 개수가 없으므로, 페이지의 전체 개수를 채워서 반환함.
+    private List<ReviewDto.ReviewResponse> withReviewCount(Page<ReviewDto.ReviewResponse> reviews){
+        List<ReviewDto.ReviewResponse> content = reviews.getContent();
+        content.forEach(x -> x.setReviewCount(reviews.getTotalElements()));
+        return content;
     }
 
 
@@ -5,28 +5,36 @@ import static com.jhsfully.reservation.type.ShopErrorType.SHOP_IS_DELETED;
 import static com.jhsfully.reservation.type.ShopErrorType.SHOP_NOT_FOUND;
 import static com.jhsfully.reservation.type.ShopErrorType.SHOP_NOT_MATCH_USER;
 
+import com.jhsfully.reservation.admission.ReservationAdmission;
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.cache.PageCountCache;
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.cache.ShopScheduleCache;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Shop;
 import com.jhsfully.reservation.exception.AuthenticationException;
 import com.jhsfully.reservation.exception.ShopException;
-import com.jhsfully.reservation.lock.RedisLock;
 import com.jhsfully.reservation.model.ShopDto;
 import com.jhsfully.reservation.model.ShopTopResponse;
 import com.jhsfully.reservation.repository.MemberRepository;
-import com.jhsfully.reservation.repository.ReservationRepository;
 import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.search.ShopSearchIndex;
 import com.jhsfully.reservation.service.ShopService;
+import com.jhsfully.reservation.util.SearchTextUtil;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -34,7 +42,12 @@ public class ShopServiceImpl implements ShopService {
 
     private final ShopRepository shopRepository;
     private final MemberRepository memberRepository;
-    private final ReservationRepository reservationRepository;
+    private final ReservationAdmission reservationAdmission;
+    private final ShopSearchIndex shopSearchIndex;
+    private final PageCountCache pageCountCache;
+    private final ShopScheduleCache shopScheduleCache;
+    private final ReservedCountCache reservedCountCache;
+    private final KioskReservationIndex kioskReservationIndex;
 
     @Override
     public Long addShop(Long memberId, ShopDto.AddShopRequest request) {
@@ -58,7 +71,9 @@ public class ShopServiceImpl implements ShopService {
                 .isDeleted(false)
                 .build();
 
-        return shopRepository.save(shop).getId();
+        Shop savedShop = shopRepository.save(shop);
+        shopSearchIndex.put(savedShop);
+        return savedShop.getId();
     }
 
     /*
@@ -66,14 +81,18 @@ public class ShopServiceImpl implements ShopService {
         id와 createdAt을 제외한, 나머지 값들이 한 번에 수정되므로,
         클라이언트에서 조회된 값을 그대로 다시 보내야하는 로직이 필요하다는 것을 의미한다.
         수정하고 싶은 데이터만 넣어서 보내게 되면, 나머지 값들이 없어짐에 유의해야함.
+
+        수용인원의 변경은 매장과 이미 생성된 시간대에 한 트랜잭션으로 반영함.
+        매장 row에 lock을 걸어두므로, 그 사이에 시간대가 생성되더라도 변경량이 빠지거나 두 번 반영되지 않음.
      */
     @Override
+    @Transactional
     public void updateShop(Long memberId, Long shopId, ShopDto.AddShopRequest request) {
 
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
-        Shop shop = shopRepository.findById(shopId)
+        Shop shop = shopRepository.findByIdForUpdate(shopId)
                 .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
 
         //이미 삭제된 shop.
@@ -86,6 +105,9 @@ public class ShopServiceImpl implements ShopService {
             throw new ShopException(SHOP_NOT_MATCH_USER);
         }
 
+        //시간대별 수용인원의 변경량
+        int resOpenCountDelta = request.getResOpenCount() - shop.getResOpenCount();
+
         //수정 로직 적용
         shop.setName(request.getName());
         shop.setIntroduce(request.getIntroduce());
@@ -99,6 +121,15 @@ public class ShopServiceImpl implements ShopService {
         shop.setUpdatedAt(LocalDateTime.now());
 
         shopRepository.save(shop);
+
+        //수용인원이 변경되었다면, 이미 생성된 예약 시간대의 남은 인원에도 반영함. (실패하면 매장 수정도 롤백됨)
+        if(resOpenCountDelta != 0){
+            reservationAdmission.adjustCapacity(shopId, resOpenCountDelta);
+        }
+
+        shopSearchIndex.put(shop);
+        shopScheduleCache.invalidate(shopId);
+        kioskReservationIndex.evictShop(shopId);
     }
 
     /*
@@ -130,6 +161,9 @@ public class ShopServiceImpl implements ShopService {
             shop.setDeleted(true);
             shopRepository.save(shop);
         }
+        shopSearchIndex.remove(shopId);
+        shopScheduleCache.invalidate(shopId);
+        kioskReservationIndex.evictShop(shopId);
 
     }
 
@@ -139,14 +173,32 @@ public class ShopServiceImpl implements ShopService {
         sortingType을 지정하여, TEXT(문자순), DISTANCE(거리순), STAR(별점) 순으로 정렬을 수행할 수 있음.
         isAsc의 값이 True이면, 지정된 sortingType필드를 기준으로 오름차순, False일 경우에는 내림차순으로 결과를 반환함.
         pageIndex를 사용하여, 10개씩 잘라서 응답하도록함.
+        radiusMeters가 지정되었다면, 현재 위치에서 해당 반경(m) 이내의 매장만 결과에 포함함.
+        검색 인덱스가 준비되어 있다면, DB를 조회하지 않고 메모리에서 결과를 만들어냄.
+        두 경로 모두 대소문자, 악센트를 구분하지 않고, 검색어의 %, _ 는 문자 그대로 찾음. (SearchTextUtil)
      */
     @Override
     public Page<ShopTopResponse> searchShops(ShopDto.SearchShopParam param, int pageIndex) {
 
+        //0 이하의 반경은 요청 검증(@Positive)에서 거절됨.
+        Double radiusMeters = param.getRadiusMeters();
+
+        if(shopSearchIndex.isReady()){
+            return shopSearchIndex.search(
+                    param.getSearchValue(),
+                    param.getLatitude(),
+                    param.getLongitude(),
+                    radiusMeters,
+                    param.getSortingType(),
+                    param.isAscending(),
+                    PageRequest.of(pageIndex, 10));
+        }
+
         return shopRepository.findByNameAndOrdering(
-                param.getSearchValue() + "%", //like 문을 사용하기 위한 % 전방 문자 탐색을 수행함 (INDEX을 사용하기 위함)
+                SearchTextUtil.likePrefix(param.getSearchValue()), //like 문을 사용하기 위한 % 전방 문자 탐색을 수행함 (INDEX을 사용하기 위함)
                 param.getLatitude(),
                 param.getLongitude(),
+                radiusMeters,
                 param.getSortingType(),
                 param.isAscending(),
                 PageRequest.of(pageIndex, 10));
@@ -163,7 +215,11 @@ public class ShopServiceImpl implements ShopService {
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new AuthenticationException(AUTHENTICATION_USER_NOT_FOUND));
 
-        Page<Shop> shopList = shopRepository.findByMemberAndIsDeletedFalse(member, PageRequest.of(pageIndex, 10));
+        Pageable pageable = PageRequest.of(pageIndex, 10);
+        Page<Shop> shopList = pageCountCache.getPage("shop-partner:" + member.getId(),
+                shopRepository.findByMemberAndIsDeletedFalse(member, pageable),
+                pageable,
+                () -> shopRepository.countByMemberAndIsDeletedFalse(member));
 
         return shopList.map(Shop::toTopResponse);
     }
@@ -223,23 +279,25 @@ public class ShopServiceImpl implements ShopService {
             throw new ShopException(SHOP_IS_DELETED);
         }
 
-        //오픈된 요일 데이터 가져오기.
-        HashSet<Integer> openDays = new HashSet<>();
-        shop.getResOpenDays().stream()
-                .forEach(x -> openDays.add(x.getValue()));
+        //오픈된 요일, 시간대는 캐시된 일정에서 가져옴.
+        ShopScheduleCache.ShopSchedule schedule = shopScheduleCache.get(shop);
 
         //예약 관련 데이터 조회
         List<ShopDto.ReservationDateTimeSet> dateTimeSets = new ArrayList<>();
 
-        LocalDate limitResDate = dateNow.plusWeeks(shop.getResOpenWeek()); //N주뒤 예약 일.
+        LocalDate limitResDate = dateNow.plusWeeks(schedule.getOpenWeeks()); //N주뒤 예약 일.
 
         LocalDate presentDate = dateNow.plusDays(1); //오늘은 예약 가능일에 포함되지 말아야 함!
 
+        //예약 가능 기간의 예약 인원을 (날짜 -> 시간대 -> 예약 인원) 형태로 가져옴. (Redis에 없는 날짜만 DB에서 집계함)
+        Map<LocalDate, Map<LocalTime, Integer>> reservedCounts =
+                reservedCountCache.getReservedCounts(shop, presentDate, limitResDate);
+
         //presentDate가 하나씩 올라가면서, 날짜별로 데이터를 그룹핑함. ~ limit reservation date까지 수행함. 이를 넘으면 탈출.
         while(!presentDate.isAfter(limitResDate)){
 
             //오픈된 요일이 아닌 경우, 날짜만 올리고 다음으로 넘어감.
-            if(!openDays.contains(presentDate.getDayOfWeek().getValue())){
+            if(!schedule.isOpenDay(presentDate.getDayOfWeek())){
                 presentDate = presentDate.plusDays(1);
                 continue;
             }
@@ -250,9 +308,10 @@ public class ShopServiceImpl implements ShopService {
             dateTimeSet.setReservationTimeSets(new ArrayList<>());
 
             //오픈된 시간대를 for문으로 순회하면서, 예약된 데이터를 확인하여, 이를 차감하여 제공함.
-            for(LocalTime time : shop.getResOpenTimes()){
-                int count = reservationRepository.getReservationCountWithShopAndTime(shop, presentDate, time);
-                ShopDto.ReservationTimeSet timeSet = new ShopDto.ReservationTimeSet(time, shop.getResOpenCount() - count);
+            Map<LocalTime, Integer> reservedCountsOfDay = reservedCounts.getOrDefault(presentDate, Collections.emptyMap());
+            for(LocalTime time : schedule.getOpenTimes()){
+                int count = reservedCountsOfDay.getOrDefault(time, 0);
+                ShopDto.ReservationTimeSet timeSet = new ShopDto.ReservationTimeSet(time, schedule.getCapacity() - count);
                 dateTimeSet.getReservationTimeSets().add(timeSet);
             }
 
@@ -271,40 +330,4 @@ public class ShopServiceImpl implements ShopService {
                 .resOpenDateTimes(dateTimeSets)
                 .build();
     }
-
-    //======================= 파서드 단에서 호출되는 함수들 =========================
-
-    /*
-        add, update, sub 3종류의 함수가 사용되며,
-        동시성 이슈를 고려하고자, Redis Locking을 사용하여, 수정중이면 제한이 걸린다.
-     */
-    @Override
-    @RedisLock(group = "review-shop", key = "shopId")
-    public void addShopStar(Long shopId, int star){
-        Shop shop = shopRepository.findById(shopId)
-                        .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
-        shop.addStar(star);
-        shop.calculateStar();
-        shopRepository.save(shop);
-    }
-    @Override
-    @RedisLock(group = "review-shop", key = "shopId")
-    public void subShopStar(Long shopId, int star){
-        Shop shop = shopRepository.findById(shopId)
-                .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
-        shop.subStar(star);
-        shop.calculateStar();
-        shopRepository.save(shop);
-    }
-
-    @Override
-    @RedisLock(group = "review-shop", key = "shopId")
-    public void updateShopStar(Long shopId, int originStar, int newStar){
-        Shop shop = shopRepository.findById(shopId)
-                .orElseThrow(() -> new ShopException(SHOP_NOT_FOUND));
-        shop.subStar(originStar);
-        shop.addStar(newStar);
-        shop.calculateStar();
-        shopRepository.save(shop);
-    }
 }
@@ -20,6 +20,7 @@ public enum ReservationErrorType {
     RESERVATION_CANNOT_ASSIGN_NOW_EQUAL_BEFORE("오늘을 포함한 이전 예약은 승인할 수 없습니다."),
     RESERVATION_CANNOT_VISIT_DAY_NOT_EQUAL("방문일과 예약일이 맞지 않습니다."),
     RESERVATION_CANNOT_VISIT_NOT_ASSIGN("승인되지 않은 예약은 방문할 수 없습니다."),
-    RESERVATION_CANNOT_VISIT_TIME_OVER("예약 일시를 넘어서 방문이 불가능합니다.");
+    RESERVATION_CANNOT_VISIT_TIME_OVER("예약 일시를 넘어서 방문이 불가능합니다."),
+    RESERVATION_INVALID_CURSOR("올바르지 않은 커서입니다.");
     private final String message;
 }
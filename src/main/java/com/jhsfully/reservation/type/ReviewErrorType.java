@@ -10,6 +10,7 @@ public enum ReviewErrorType {
     REVIEW_NOT_MATCH_USER("해당 회원의 리뷰가 아닙니다."),
     REVIEW_STATE_NOT_VISITED("방문된 상태의 리뷰만 작성이 가능합니다."),
     REVIEW_ALREADY_WRITTEN("이미 리뷰가 작성되어있습니다."),
-    REVIEW_TIME_OVER("방문일로 부터 일주일 안에만 리뷰를 작성할 있습니다.");
+    REVIEW_TIME_OVER("방문일로 부터 일주일 안에만 리뷰를 작성할 있습니다."),
+    REVIEW_INVALID_CURSOR("올바르지 않은 커서입니다.");
     private final String message;
 }
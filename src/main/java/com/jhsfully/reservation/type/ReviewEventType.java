@@ -0,0 +1,10 @@
+package com.jhsfully.reservation.type;
+
+public enum ReviewEventType {
+    /*
+    WRITTEN : 리뷰 작성
+    UPDATED : 리뷰 수정 (별점이 바뀌었을 수 있음)
+    DELETED : 리뷰 삭제
+     */
+    WRITTEN, UPDATED, DELETED
+}
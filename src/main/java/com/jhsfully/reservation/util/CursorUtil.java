@@ -0,0 +1,36 @@
+package com.jhsfully.reservation.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+    커서 기반 페이징에 사용하는 커서를 만들고 해석하는 유틸.
+    클라이언트는 커서의 내용을 알 필요가 없으므로, 값들을 "_"로 이어붙인 후 Base64(URL-safe)로 인코딩함.
+    ex) (2023-07-16, 15) => "MjAyMy0wNy0xNl8xNQ"
+ */
+public class CursorUtil {
+
+    private static final String DELIMITER = "_";
+
+    public static String encode(Object... values){
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < values.length; i++){
+            if(i > 0){
+                builder.append(DELIMITER);
+            }
+            builder.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    //올바르지 않은 커서라면 IllegalArgumentException을 던짐.
+    public static String[] decode(String cursor, int size){
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] values = decoded.split(DELIMITER, -1);
+        if(values.length != size){
+            throw new IllegalArgumentException("커서의 형식이 올바르지 않습니다.");
+        }
+        return values;
+    }
+}
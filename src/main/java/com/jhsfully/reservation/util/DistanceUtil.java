@@ -1,5 +1,8 @@
 package com.jhsfully.reservation.util;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
 public class DistanceUtil {
     private static final double RADIUS = 6371;
     private static final double TORADIAN = Math.PI / 180;
@@ -28,4 +31,49 @@ public class DistanceUtil {
         return distance;
     }
 
+    /*
+        중심점에서 radiusMeters 이내의 점들을 모두 포함하는 위경도 범위를 반환함.
+        거리 계산 전에 latitude, longitude 컬럼(인덱스)으로 먼저 걸러내기 위해 사용함.
+        범위가 극점이나 날짜변경선(경도 ±180)을 넘는 경우, 경도는 제한하지 않음.
+        radiusMeters는 0보다 커야 함.
+     */
+    public static BoundingBox boundingBox(double latitude, double longitude, double radiusMeters){
+        if(!(radiusMeters > 0)){
+            throw new IllegalArgumentException("반경은 0보다 커야 합니다. : " + radiusMeters);
+        }
+
+        double deltaLatitude = radiusMeters / (RADIUS * 1000) / TORADIAN;
+
+        double minLatitude = Math.max(latitude - deltaLatitude, -90);
+        double maxLatitude = Math.min(latitude + deltaLatitude, 90);
+
+        if(minLatitude <= -90 || maxLatitude >= 90){
+            return new BoundingBox(minLatitude, maxLatitude, -180, 180);
+        }
+
+        double deltaLongitude = deltaLatitude / Math.cos(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude)) * TORADIAN);
+        double minLongitude = longitude - deltaLongitude;
+        double maxLongitude = longitude + deltaLongitude;
+
+        if(minLongitude < -180 || maxLongitude > 180){
+            return new BoundingBox(minLatitude, maxLatitude, -180, 180);
+        }
+
+        return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BoundingBox{
+        private final double minLatitude;
+        private final double maxLatitude;
+        private final double minLongitude;
+        private final double maxLongitude;
+
+        public boolean contains(double latitude, double longitude){
+            return latitude >= minLatitude && latitude <= maxLatitude &&
+                    longitude >= minLongitude && longitude <= maxLongitude;
+        }
+    }
+
 }
@@ -0,0 +1,27 @@
+package com.jhsfully.reservation.util;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Redis의 key를 다루는 유틸.
+    KEYS는 모든 key를 한 번에 탐색하여 Redis를 멈추게 하므로, SCAN으로 나누어 탐색함.
+ */
+public class RedisKeyUtil {
+
+    private static final long SCAN_COUNT = 1000;
+
+    //pattern에 맞는 key들을 반환함. (RedisCallback 안에서 사용함)
+    public static List<String> scanKeys(RedisConnection connection, String pattern){
+        List<String> keys = new ArrayList<>();
+        try(Cursor<byte[]> cursor = connection.keyCommands().scan(ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build())){
+            cursor.forEachRemaining(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,45 @@
+package com.jhsfully.reservation.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+    매장 이름 검색에서, 검색 인덱스(ShopSearchIndex)와 DB 검색(LIKE)이 같은 매장을 찾도록 맞추는 유틸.
+
+    - normalize : MySQL의 기본 collation(utf8mb4_0900_ai_ci)과 같이, 대소문자와 악센트를 구분하지 않도록 변환함.
+        ex) "Café" => "cafe"
+        (NFD로 분해하여 결합 문자를 제거한 후 다시 NFC로 합치므로, 한글 음절은 그대로 유지됨)
+    - likePrefix : 검색어로 시작하는 LIKE 패턴을 만듦.
+        검색어의 %, _ 는 와일드카드가 아닌 문자 그대로 찾도록 LIKE_ESCAPE로 escape함.
+        ex) "50%" => "50!%%"
+ */
+public class SearchTextUtil {
+
+    //MySQL 문자열 안에서 '\'는 따로 escape가 필요하므로, 다른 문자를 사용함.
+    public static final char LIKE_ESCAPE = '!';
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    public static String normalize(String text){
+        if(text == null || text.isEmpty()){
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return Normalizer.normalize(stripped, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+
+    public static String likePrefix(String searchValue){
+        StringBuilder builder = new StringBuilder();
+        if(searchValue != null){
+            for(char c : searchValue.toCharArray()){
+                if(c == '%' || c == '_' || c == LIKE_ESCAPE){
+                    builder.append(LIKE_ESCAPE);
+                }
+                builder.append(c);
+            }
+        }
+        return builder.append('%').toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.jhsfully.reservation.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+    트랜잭션의 결과에 맞추어 작업을 실행하는 유틸.
+    캐시나 Redis처럼 DB 트랜잭션에 묶이지 않는 저장소에, 커밋된 변경만 반영하기 위해 사용함.
+ */
+public class TransactionUtil {
+
+    //트랜잭션 안이라면 커밋된 후에 실행하고, 트랜잭션 밖이라면 바로 실행함.
+    public static void afterCommit(Runnable task){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+            return;
+        }
+        task.run();
+    }
+
+    //트랜잭션이 커밋되지 않았을 때만 실행함. 트랜잭션 밖이라면, 호출한 쪽에서 실패를 처리해야 함.
+    public static void afterRollback(Runnable task){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status != STATUS_COMMITTED){
+                        task.run();
+                    }
+                }
+            });
+        }
+    }
+}
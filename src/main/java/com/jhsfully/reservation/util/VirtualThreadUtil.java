@@ -0,0 +1,48 @@
+package com.jhsfully.reservation.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+    가상 스레드(JDK 21+)를 사용하기 위한 유틸.
+
+    프로젝트는 JDK 11로 컴파일되므로, 가상 스레드 API(Thread.ofVirtual, Executors.newThreadPerTaskExecutor)를
+    리플렉션으로 호출함. JDK 21 이상에서 실행될 때만 사용할 수 있으며, 그 외에는 isSupported()가 false임.
+ */
+public class VirtualThreadUtil {
+
+    private static final boolean SUPPORTED = factory("virtual-") != null;
+
+    public static boolean isSupported(){
+        return SUPPORTED;
+    }
+
+    //이름이 prefix + 번호인 가상 스레드를 만드는 ThreadFactory, 지원하지 않는다면 null을 반환함.
+    public static ThreadFactory factory(String prefix){
+        try{
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }catch (ReflectiveOperationException e){
+            return null;
+        }
+    }
+
+    //작업마다 새 가상 스레드에서 실행하는 ExecutorService, 지원하지 않는다면 IllegalStateException을 던짐.
+    public static ExecutorService newThreadPerTaskExecutor(String prefix){
+        ThreadFactory threadFactory = factory(prefix);
+        if(threadFactory == null){
+            throw new IllegalStateException("가상 스레드를 지원하지 않는 JDK 입니다. : " + System.getProperty("java.version"));
+        }
+        try{
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, threadFactory);
+        }catch (ReflectiveOperationException e){
+            throw new IllegalStateException("가상 스레드 Executor를 만들지 못했습니다.", e);
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.jhsfully.reservation.event.ReviewOutboxRelay;
 import com.jhsfully.reservation.exception.ReservationException;
 import com.jhsfully.reservation.exception.ReviewException;
 import com.jhsfully.reservation.facade.ReviewFacade;
@@ -108,6 +109,9 @@ public class IntegrationTest {
     @Autowired
     private ReviewFacade reviewFacade;
 
+    @Autowired
+    private ReviewOutboxRelay reviewOutboxRelay;
+
     @BeforeAll
     static void setup(@Autowired DataSource dataSource){
         try(Connection connection = dataSource.getConnection()){
@@ -531,6 +535,9 @@ public class IntegrationTest {
         @Test
         @DisplayName("7/15 에 매장 예약 데이터 조회함.")
         void getShopData_0715(){
+            //given (리뷰 이벤트를 발행하여 매장 별점에 반영함)
+            reviewOutboxRelay.relay();
+
             //when
             ShopDto.ShopDetailUserResponse response = shopService
                     .getShopDetailForUser(1L,
@@ -568,6 +575,9 @@ public class IntegrationTest {
         @Order(2)
         @DisplayName("파트너가 별점 조회해본다.")
         void getShopDataForStar(){
+            //given (리뷰 이벤트를 발행하여 매장 별점에 반영함)
+            reviewOutboxRelay.relay();
+
             //when
             Page<ShopTopResponse> responses = shopService.getShopsByPartner(1L, 0);
             //then
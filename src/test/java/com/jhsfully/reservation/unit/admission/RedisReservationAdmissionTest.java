@@ -0,0 +1,227 @@
+package com.jhsfully.reservation.unit.admission;
+
+import com.jhsfully.reservation.admission.RedisReservationAdmission;
+import com.jhsfully.reservation.admission.ReservationAdmission;
+import com.jhsfully.reservation.domain.Member;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/*
+    Redis를 띄우지 않고, Lua 스크립트의 결과를 mock으로 대신하여
+    자리 확보(admit)의 흐름과 트랜잭션 결과에 따른 자리 반납을 검증함.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RedisReservationAdmissionTest {
+
+    private static final LocalDate RES_DAY = LocalDate.of(2023, 7, 15);
+    private static final LocalTime RES_TIME = LocalTime.of(12, 0);
+    private static final List<String> KEYS = List.of("admission:{1:2023-07-15}:seats", "admission:{1:2023-07-15}:members");
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ReservationRepository reservationRepository;
+    private RedisReservationAdmission admission;
+
+    private final Shop shop = Shop.builder().id(1L).resOpenCount(3).build();
+    private final Member member = Member.builder().id(2L).build();
+
+    @BeforeEach
+    void setUp(){
+        admission = new RedisReservationAdmission(redisTemplate, reservationRepository);
+    }
+
+    @AfterEach
+    void tearDown(){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    //스크립트의 내용으로 어떤 Lua 스크립트가 실행되었는지 구분함.
+    private static RedisScript<Long> script(String fragment){
+        return argThat(x -> x != null && x.getScriptAsString().contains(fragment));
+    }
+
+    private static RedisScript<Long> admitScript(){
+        return script("SISMEMBER', KEYS[2], ARGV[2]");
+    }
+
+    private static RedisScript<Long> loadScript(){
+        return script("HSETNX");
+    }
+
+    private static RedisScript<Long> releaseScript(){
+        return script("SREM");
+    }
+
+    private static RedisScript<Long> adjustScript(){
+        return script("HKEYS");
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 확보 - 성공")
+    void admitSuccess(){
+        //given
+        given(redisTemplate.execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3")))
+                .willReturn(1L);
+        //when
+        ReservationAdmission.AdmissionResult result = admission.admit(shop, member, RES_DAY, RES_TIME, 3);
+        //then
+        assertEquals(ReservationAdmission.AdmissionResult.ADMITTED, result);
+        verify(reservationRepository, never()).getReservationCountWithShopAndTime(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 확보 - 채워지지 않은 key는 DB에서 채운 후 다시 시도")
+    void admitAfterLoad(){
+        //given
+        given(redisTemplate.execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("1")))
+                .willReturn(-1L, 1L);
+        given(reservationRepository.getReservationCountWithShopAndTime(shop, RES_DAY, RES_TIME))
+                .willReturn(2);
+        given(reservationRepository.findActiveMemberIdsWithShopAndDay(shop, RES_DAY))
+                .willReturn(List.of(7L, 8L));
+        given(redisTemplate.execute(loadScript(), eq(KEYS), eq("12:00"), eq("1"), anyString(), eq("7"), eq("8")))
+                .willReturn(1L);
+        //when
+        ReservationAdmission.AdmissionResult result = admission.admit(shop, member, RES_DAY, RES_TIME, 1);
+        //then
+        assertEquals(ReservationAdmission.AdmissionResult.ADMITTED, result);
+        //남은 인원(3 - 2)과 회원들을 채우며, 이미 채워진 값은 덮어쓰지 않음. (HSETNX)
+        verify(redisTemplate, times(1)).execute(loadScript(), eq(KEYS), eq("12:00"), eq("1"), anyString(), eq("7"), eq("8"));
+        verify(redisTemplate, times(2)).execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("1"));
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 확보 - 같은 날 중복 예약")
+    void admitGreedyUser(){
+        //given
+        given(redisTemplate.execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("1")))
+                .willReturn(-2L);
+        //when
+        ReservationAdmission.AdmissionResult result = admission.admit(shop, member, RES_DAY, RES_TIME, 1);
+        //then
+        assertEquals(ReservationAdmission.AdmissionResult.GREEDY_USER, result);
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 확보 - 남은 인원 부족")
+    void admitOverflow(){
+        //given
+        given(redisTemplate.execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("4")))
+                .willReturn(-3L);
+        //when
+        ReservationAdmission.AdmissionResult result = admission.admit(shop, member, RES_DAY, RES_TIME, 4);
+        //then
+        assertEquals(ReservationAdmission.AdmissionResult.OVERFLOW, result);
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 확보 후 롤백 - 확보한 자리를 되돌려줌")
+    void admitRollbackReleaseSeats(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        given(redisTemplate.execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3")))
+                .willReturn(1L);
+        given(redisTemplate.execute(releaseScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3")))
+                .willReturn(1L);
+        //when
+        admission.admit(shop, member, RES_DAY, RES_TIME, 3);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(x -> x.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        //then
+        verify(redisTemplate, times(1)).execute(releaseScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3"));
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 확보 후 커밋 - 자리를 되돌려주지 않음")
+    void admitCommitKeepSeats(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        given(redisTemplate.execute(admitScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3")))
+                .willReturn(1L);
+        //when
+        admission.admit(shop, member, RES_DAY, RES_TIME, 3);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(x -> x.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        //then
+        verify(redisTemplate, never()).execute(releaseScript(), eq(KEYS), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 반납 - 커밋된 후에 반영")
+    void releaseAfterCommit(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        //when
+        admission.release(1L, 2L, RES_DAY, RES_TIME, 3);
+        //then
+        verify(redisTemplate, never()).execute(releaseScript(), eq(KEYS), any(), any(), any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate, times(1)).execute(releaseScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3"));
+    }
+
+    @Test
+    @DisplayName("[ADMISSION]자리 반납 실패 - key를 지워 DB에서 다시 채우도록 함")
+    void releaseFailEvictKeys(){
+        //given
+        given(redisTemplate.execute(releaseScript(), eq(KEYS), eq("12:00"), eq("2"), eq("3")))
+                .willThrow(new RedisSystemException("down", new RuntimeException()));
+        //when
+        admission.release(1L, 2L, RES_DAY, RES_TIME, 3);
+        //then
+        verify(redisTemplate, times(1)).delete(KEYS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("[ADMISSION]수용인원 변경 - 확보된 시간대들의 남은 인원에 반영")
+    void adjustCapacity(){
+        //given
+        given(redisTemplate.execute(any(RedisCallback.class)))
+                .willReturn(List.of("admission:{1:2023-07-15}:seats", "admission:{1:2023-07-16}:seats"));
+        //when
+        admission.adjustCapacity(1L, 2);
+        //then
+        verify(redisTemplate, times(1)).execute(adjustScript(), eq(List.of("admission:{1:2023-07-15}:seats")), eq("2"));
+        verify(redisTemplate, times(1)).execute(adjustScript(), eq(List.of("admission:{1:2023-07-16}:seats")), eq("2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("[ADMISSION]수용인원 변경 - 변경량이 0이면 수행하지 않음")
+    void adjustCapacityZero(){
+        //when
+        admission.adjustCapacity(1L, 0);
+        //then
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+    }
+}
@@ -0,0 +1,138 @@
+package com.jhsfully.reservation.unit.cache;
+
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.model.ReservationDto;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static com.jhsfully.reservation.cache.KioskReservationIndex.SHOP_EVICT_CHANNEL;
+import static com.jhsfully.reservation.type.ReservationState.ASSIGN;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class KioskReservationIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 7, 15);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    private KioskReservationIndex kioskReservationIndex;
+
+    //매장 1의 예약 1, 매장 2의 예약 2로 인덱스를 만듦.
+    @BeforeEach
+    void setUp(){
+        kioskReservationIndex = new KioskReservationIndex(reservationRepository, redisTemplate);
+        given(reservationRepository.findKioskReservationsWithDay(DAY))
+                .willReturn(List.of(reservation(1L, 1L), reservation(2L, 2L)));
+        kioskReservationIndex.build(DAY);
+    }
+
+    @AfterEach
+    void tearDown(){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ReservationDto.KioskReservation reservation(Long id, Long shopId){
+        return ReservationDto.KioskReservation.builder()
+                .id(id)
+                .shopId(shopId)
+                .ownerId(1L)
+                .phone("010-1111-1111")
+                .memberName("user")
+                .shopName("aaa")
+                .resDay(DAY)
+                .resTime(LocalTime.of(12, 0))
+                .count(1)
+                .reservationState(ASSIGN)
+                .build();
+    }
+
+    @Test
+    @DisplayName("[CACHE]키오스크 매장 제거 - 이 서버의 인덱스에서 지우고, 다른 서버에 알림")
+    void evictShop(){
+        //when
+        kioskReservationIndex.evictShop(1L);
+        //then
+        assertNull(kioskReservationIndex.get(1L, DAY));
+        assertNull(kioskReservationIndex.find(1L, "010-1111-1111", DAY, LocalTime.of(11, 55)));
+        assertNotNull(kioskReservationIndex.get(2L, DAY));
+        verify(redisTemplate, times(1)).convertAndSend(SHOP_EVICT_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("[CACHE]키오스크 매장 제거 - 트랜잭션이 커밋된 후에 지움")
+    void evictShopAfterCommit(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        //when
+        kioskReservationIndex.evictShop(1L);
+        //then
+        assertNotNull(kioskReservationIndex.get(1L, DAY));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(kioskReservationIndex.get(1L, DAY));
+        verify(redisTemplate, times(1)).convertAndSend(SHOP_EVICT_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("[CACHE]키오스크 매장 제거 - Redis 장애에도 이 서버의 인덱스에서는 지움")
+    void evictShopPublishFail(){
+        //given
+        given(redisTemplate.convertAndSend(SHOP_EVICT_CHANNEL, "1"))
+                .willThrow(new RedisConnectionFailureException("down"));
+        //when
+        kioskReservationIndex.evictShop(1L);
+        //then
+        assertNull(kioskReservationIndex.get(1L, DAY));
+    }
+
+    @Test
+    @DisplayName("[CACHE]키오스크 매장 제거 - 다른 서버의 메세지를 받아 지움")
+    void onMessage(){
+        //when
+        kioskReservationIndex.onMessage(new DefaultMessage(
+                SHOP_EVICT_CHANNEL.getBytes(StandardCharsets.UTF_8), "2".getBytes(StandardCharsets.UTF_8)), null);
+        //then
+        assertNotNull(kioskReservationIndex.get(1L, DAY));
+        assertNull(kioskReservationIndex.get(2L, DAY));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("[CACHE]키오스크 매장 제거 - 잘못된 메세지는 무시함")
+    void onMessageInvalid(){
+        //when
+        kioskReservationIndex.onMessage(new DefaultMessage(
+                SHOP_EVICT_CHANNEL.getBytes(StandardCharsets.UTF_8), "shop".getBytes(StandardCharsets.UTF_8)), null);
+        //then
+        assertNotNull(kioskReservationIndex.get(1L, DAY));
+        assertNotNull(kioskReservationIndex.get(2L, DAY));
+    }
+}
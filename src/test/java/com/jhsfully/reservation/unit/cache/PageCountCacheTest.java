@@ -0,0 +1,139 @@
+package com.jhsfully.reservation.unit.cache;
+
+import com.jhsfully.reservation.cache.PageCountCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PageCountCacheTest {
+
+    //호출될 때마다 횟수를 세고, count를 반환하는 COUNT 쿼리
+    private static LongSupplier countQuery(AtomicInteger calls, long count){
+        return () -> {
+            calls.incrementAndGet();
+            return count;
+        };
+    }
+
+    @Test
+    @DisplayName("[CACHE]전체 개수 - ttl 동안은 같은 조건의 COUNT 쿼리를 다시 수행하지 않음")
+    void getCountHit(){
+        //given
+        PageCountCache pageCountCache = new PageCountCache(10_000L);
+        AtomicInteger calls = new AtomicInteger();
+        //when
+        long first = pageCountCache.getCount("key", countQuery(calls, 30));
+        long second = pageCountCache.getCount("key", countQuery(calls, 40));
+        long other = pageCountCache.getCount("other", countQuery(calls, 50));
+        //then
+        assertEquals(30, first);
+        assertEquals(30, second);
+        assertEquals(50, other);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("[CACHE]전체 개수 - ttl이 지나면 다시 조회함")
+    void getCountExpired() throws InterruptedException {
+        //given
+        PageCountCache pageCountCache = new PageCountCache(20L);
+        AtomicInteger calls = new AtomicInteger();
+        pageCountCache.getCount("key", countQuery(calls, 30));
+        //when
+        Thread.sleep(50);
+        long count = pageCountCache.getCount("key", countQuery(calls, 40));
+        //then
+        assertEquals(40, count);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("[CACHE]전체 개수 - ttl이 0이라면 캐시하지 않음")
+    void getCountDisabled(){
+        //given
+        PageCountCache pageCountCache = new PageCountCache(0L);
+        AtomicInteger calls = new AtomicInteger();
+        //when
+        pageCountCache.getCount("key", countQuery(calls, 30));
+        pageCountCache.getCount("key", countQuery(calls, 30));
+        //then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("[CACHE]전체 개수 - 항목이 MAX_ENTRIES(10,000)만큼 쌓이면, 만료된 항목을 정리함")
+    void evictExpired() throws InterruptedException {
+        //given
+        PageCountCache pageCountCache = new PageCountCache(50L);
+        AtomicInteger calls = new AtomicInteger();
+        for(int i = 0; i < 10_000; i++){
+            pageCountCache.getCount("key" + i, countQuery(calls, i));
+        }
+        Thread.sleep(100); //모두 만료됨.
+        pageCountCache.getCount("fresh", countQuery(calls, 1)); //만료된 항목들을 정리하고 추가됨.
+        calls.set(0);
+        //when
+        long fresh = pageCountCache.getCount("fresh", countQuery(calls, 2));
+        //then
+        assertEquals(1, fresh);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("[CACHE]전체 개수 - 만료되지 않은 항목으로 가득 차 있다면 전부 비움")
+    void evictAllWhenFull(){
+        //given
+        PageCountCache pageCountCache = new PageCountCache(10_000L);
+        AtomicInteger calls = new AtomicInteger();
+        for(int i = 0; i < 10_000; i++){
+            pageCountCache.getCount("key" + i, countQuery(calls, i));
+        }
+        pageCountCache.getCount("overflow", countQuery(calls, 1));
+        calls.set(0);
+        //when
+        long first = pageCountCache.getCount("key0", countQuery(calls, 100));
+        long overflow = pageCountCache.getCount("overflow", countQuery(calls, 200));
+        //then
+        assertEquals(100, first); //비워졌으므로 다시 조회함.
+        assertEquals(1, overflow); //비운 후에 추가된 항목은 남아있음.
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("[CACHE]페이지 - 마지막 페이지라면 결과만으로 전체 개수를 계산하고, COUNT 쿼리를 수행하지 않음")
+    void getPageShortLastPage(){
+        //given
+        PageCountCache pageCountCache = new PageCountCache(10_000L);
+        AtomicInteger calls = new AtomicInteger();
+        //when
+        Page<Integer> first = pageCountCache.getPage("key", List.of(1, 2, 3), PageRequest.of(0, 10), countQuery(calls, 99));
+        Page<Integer> last = pageCountCache.getPage("key", List.of(1, 2, 3), PageRequest.of(2, 10), countQuery(calls, 99));
+        //then
+        assertEquals(3, first.getTotalElements());
+        assertEquals(23, last.getTotalElements());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("[CACHE]페이지 - 페이지가 가득 찼다면 COUNT 쿼리(또는 캐시)로 전체 개수를 구함")
+    void getPageFull(){
+        //given
+        PageCountCache pageCountCache = new PageCountCache(10_000L);
+        AtomicInteger calls = new AtomicInteger();
+        List<Integer> content = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        //when
+        Page<Integer> first = pageCountCache.getPage("key", content, PageRequest.of(0, 10), countQuery(calls, 35));
+        Page<Integer> second = pageCountCache.getPage("key", content, PageRequest.of(1, 10), countQuery(calls, 35));
+        //then
+        assertEquals(35, first.getTotalElements());
+        assertEquals(35, second.getTotalElements());
+        assertEquals(1, calls.get());
+    }
+}
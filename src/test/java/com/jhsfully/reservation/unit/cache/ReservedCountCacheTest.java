@@ -0,0 +1,185 @@
+package com.jhsfully.reservation.unit.cache;
+
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ReservationDto;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservedCountCacheTest {
+
+    //ttl(600초)보다 멀리 있는 날짜이므로, 만료 시간은 항상 ttl이 됨.
+    private static final LocalDate DAY1 = LocalDate.of(2999, 7, 15);
+    private static final LocalDate DAY2 = LocalDate.of(2999, 7, 16);
+    private static final LocalTime TIME = LocalTime.of(12, 0);
+    private static final Shop SHOP = Shop.builder().id(1L).build();
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ReservationRepository reservationRepository;
+    private ReservedCountCache reservedCountCache;
+
+    @BeforeEach
+    void setUp(){
+        reservedCountCache = new ReservedCountCache(redisTemplate, reservationRepository);
+        ReflectionTestUtils.setField(reservedCountCache, "ttlSeconds", 600L);
+    }
+
+    @AfterEach
+    void tearDown(){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Map<String, String> hash(String... fieldAndValues){
+        Map<String, String> hash = new HashMap<>();
+        for(int i = 0; i < fieldAndValues.length; i += 2){
+            hash.put(fieldAndValues[i], fieldAndValues[i + 1]);
+        }
+        return hash;
+    }
+
+    //채워넣기 pipeline을 실행하여, key별로 FILL_SCRIPT에 전달된 인자(만료 시간, field, value...)를 반환함.
+    @SuppressWarnings("unchecked")
+    private static Map<String, List<Object>> runFill(SessionCallback<?> fill){
+        RedisOperations<String, String> operations = mock(RedisOperations.class);
+        fill.execute(operations);
+
+        Map<String, List<Object>> scripts = new HashMap<>();
+        for(Invocation invocation : mockingDetails(operations).getInvocations()){
+            Object[] args = invocation.getArguments(); //(script, keys, 가변인자들...)
+            String key = ((List<String>) args[1]).get(0);
+            scripts.put(key, Arrays.asList(args).subList(2, args.length));
+        }
+        return scripts;
+    }
+
+    @Test
+    @DisplayName("[CACHE]예약 인원 조회 - 없는 날짜만 DB에서 집계하여, _loaded와 함께 채워넣음")
+    @SuppressWarnings("unchecked")
+    void getReservedCountsMissedDay(){
+        //given
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willReturn(List.of(hash("_loaded", "1", "12:00", "3"), Collections.emptyMap()));
+        given(reservationRepository.getReservedCountsWithShopBetweenDays(SHOP, DAY2, DAY2))
+                .willReturn(List.of(new ReservationDto.ReservedCount(DAY2, TIME, 2)));
+        //when
+        Map<LocalDate, Map<LocalTime, Integer>> counts = reservedCountCache.getReservedCounts(SHOP, DAY1, DAY2);
+        //then
+        assertEquals(Map.of(TIME, 3), counts.get(DAY1));
+        assertEquals(Map.of(TIME, 2), counts.get(DAY2));
+
+        //읽기와 채워넣기, 두 번의 pipeline을 실행하고, 채워넣기는 없던 날짜만 수행함.
+        ArgumentCaptor<SessionCallback<?>> callbackCaptor = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate, times(2)).executePipelined(callbackCaptor.capture());
+        Map<String, List<Object>> fills = runFill(callbackCaptor.getAllValues().get(1));
+        assertEquals(Map.of("reserved:2999-07-16:1", List.of("600", "12:00", "2", "_loaded", "1")), fills);
+    }
+
+    @Test
+    @DisplayName("[CACHE]예약 인원 조회 - _loaded가 없는 Hash(채워지기 전에 변경됨)는 DB에서 조회함")
+    void getReservedCountsDirty(){
+        //given
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willReturn(List.of(hash("_dirty", "1")));
+        given(reservationRepository.getReservedCountsWithShopBetweenDays(SHOP, DAY1, DAY1))
+                .willReturn(List.of(new ReservationDto.ReservedCount(DAY1, TIME, 4)));
+        //when
+        Map<LocalDate, Map<LocalTime, Integer>> counts = reservedCountCache.getReservedCounts(SHOP, DAY1, DAY1);
+        //then
+        assertEquals(Map.of(TIME, 4), counts.get(DAY1));
+    }
+
+    @Test
+    @DisplayName("[CACHE]예약 인원 조회 - Redis 장애라면 DB에서 조회하고, 채워넣지 않음")
+    void getReservedCountsRedisFail(){
+        //given
+        given(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .willThrow(new RedisConnectionFailureException("down"));
+        given(reservationRepository.getReservedCountsWithShopBetweenDays(SHOP, DAY1, DAY2))
+                .willReturn(List.of(new ReservationDto.ReservedCount(DAY1, TIME, 1)));
+        //when
+        Map<LocalDate, Map<LocalTime, Integer>> counts = reservedCountCache.getReservedCounts(SHOP, DAY1, DAY2);
+        //then
+        assertEquals(Map.of(DAY1, Map.of(TIME, 1)), counts);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("[CACHE]예약 인원 변경 - 채워진 Hash일 때만 증감하고, 아니라면 _dirty만 표시함")
+    void increaseGuardedByLoaded(){
+        //when
+        reservedCountCache.increase(1L, DAY1, TIME, 2);
+        //then
+        //증감 여부는 스크립트에서 _loaded로 판단하고, 없다면 _dirty를 DIRTY_SECONDS(10초) 동안 표시함.
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("reserved:2999-07-15:1")),
+                eq("_loaded"), eq("12:00"), eq("2"), eq("_dirty"), eq("10"));
+        verify(redisTemplate, never()).delete(any(String.class));
+    }
+
+    @Test
+    @DisplayName("[CACHE]예약 인원 변경 - 트랜잭션 안이라면, 커밋된 후에 반영함")
+    void increaseAfterCommit(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        //when
+        reservedCountCache.increase(1L, DAY1, TIME, -1);
+        //then
+        verifyNoInteractions(redisTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("reserved:2999-07-15:1")),
+                eq("_loaded"), eq("12:00"), eq("-1"), eq("_dirty"), eq("10"));
+    }
+
+    @Test
+    @DisplayName("[CACHE]예약 인원 변경 실패 - Hash를 지워서 DB에서 다시 채워지도록 함")
+    void increaseFailEvict(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .willThrow(new RedisConnectionFailureException("down"));
+        //when
+        reservedCountCache.increase(1L, DAY1, TIME, 1);
+        //then
+        verify(redisTemplate, times(1)).delete("reserved:2999-07-15:1");
+    }
+}
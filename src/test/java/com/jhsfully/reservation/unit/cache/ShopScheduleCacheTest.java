@@ -0,0 +1,115 @@
+package com.jhsfully.reservation.unit.cache;
+
+import com.jhsfully.reservation.cache.ShopScheduleCache;
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.type.Days;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShopScheduleCacheTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2023, 7, 1, 12, 0);
+
+    private static Shop shop(){
+        return Shop.builder()
+                .id(1L)
+                .resOpenWeek(1)
+                .resOpenCount(4)
+                .resOpenDays(List.of(Days.MON, Days.SUN))
+                .resOpenTimes(List.of(LocalTime.of(12, 0), LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(9, 0)))
+                .updatedAt(UPDATED_AT)
+                .build();
+    }
+
+    @Test
+    @DisplayName("[CACHE]매장 일정 - 오픈 요일은 bitmask로 확인함")
+    void isOpenDay(){
+        //when
+        ShopScheduleCache.ShopSchedule schedule = ShopScheduleCache.ShopSchedule.of(shop());
+        //then
+        assertTrue(schedule.isOpenDay(DayOfWeek.MONDAY));
+        assertTrue(schedule.isOpenDay(DayOfWeek.SUNDAY));
+        assertFalse(schedule.isOpenDay(DayOfWeek.TUESDAY));
+        assertFalse(schedule.isOpenDay(DayOfWeek.SATURDAY));
+    }
+
+    @Test
+    @DisplayName("[CACHE]매장 일정 - 오픈 시간대는 정렬된 배열에서 이진 탐색하여 index를 찾음")
+    void slotIndex(){
+        //when
+        ShopScheduleCache.ShopSchedule schedule = ShopScheduleCache.ShopSchedule.of(shop());
+        //then
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(12, 0)), schedule.getOpenTimes());
+        assertEquals(0, schedule.slotIndex(LocalTime.of(9, 0)));
+        assertEquals(2, schedule.slotIndex(LocalTime.of(12, 0)));
+        assertEquals(-1, schedule.slotIndex(LocalTime.of(11, 0)));
+        assertFalse(schedule.isOpenTime(LocalTime.of(8, 0)));
+    }
+
+    @Test
+    @DisplayName("[CACHE]매장 일정 - 예약 가능일은 내일부터 오픈 주까지임")
+    void isReservableDay(){
+        //given
+        LocalDate today = LocalDate.of(2023, 7, 15);
+        //when
+        ShopScheduleCache.ShopSchedule schedule = ShopScheduleCache.ShopSchedule.of(shop());
+        //then
+        assertFalse(schedule.isReservableDay(today, today));
+        assertTrue(schedule.isReservableDay(today.plusDays(1), today));
+        assertTrue(schedule.isReservableDay(today.plusWeeks(1), today));
+        assertFalse(schedule.isReservableDay(today.plusWeeks(1).plusDays(1), today));
+    }
+
+    @Test
+    @DisplayName("[CACHE]매장 일정 캐시 - 매장이 수정되지 않았다면 캐시된 일정을 재사용함")
+    void getCached(){
+        //given
+        ShopScheduleCache shopScheduleCache = new ShopScheduleCache();
+        //when
+        ShopScheduleCache.ShopSchedule first = shopScheduleCache.get(shop());
+        ShopScheduleCache.ShopSchedule second = shopScheduleCache.get(shop());
+        //then
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("[CACHE]매장 일정 캐시 - updatedAt이 달라지면(다른 서버에서 수정됨) 다시 만듦")
+    void getRebuildOnUpdatedAt(){
+        //given
+        ShopScheduleCache shopScheduleCache = new ShopScheduleCache();
+        ShopScheduleCache.ShopSchedule cached = shopScheduleCache.get(shop());
+        Shop updated = shop();
+        updated.setResOpenCount(8);
+        updated.setUpdatedAt(UPDATED_AT.plusMinutes(1));
+        //when
+        ShopScheduleCache.ShopSchedule rebuilt = shopScheduleCache.get(updated);
+        //then
+        assertNotSame(cached, rebuilt);
+        assertEquals(8, rebuilt.getCapacity());
+        assertSame(rebuilt, shopScheduleCache.get(updated));
+    }
+
+    @Test
+    @DisplayName("[CACHE]매장 일정 캐시 - 무효화되면 다시 만듦")
+    void invalidate(){
+        //given
+        ShopScheduleCache shopScheduleCache = new ShopScheduleCache();
+        ShopScheduleCache.ShopSchedule cached = shopScheduleCache.get(shop());
+        //when
+        shopScheduleCache.invalidate(1L);
+        //then
+        assertNotSame(cached, shopScheduleCache.get(shop()));
+    }
+}
@@ -1,36 +1,45 @@
 package com.jhsfully.reservation.unit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhsfully.reservation.config.ExecutionConfiguration;
 import com.jhsfully.reservation.config.SecurityConfiguration;
 import com.jhsfully.reservation.controller.ReservationController;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.security.JwtAuthenticationFilter;
 import com.jhsfully.reservation.service.ReservationService;
 import com.jhsfully.reservation.type.ReservationState;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(value = ReservationController.class, excludeFilters =
@@ -38,6 +47,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
             SecurityConfiguration.class, JwtAuthenticationFilter.class
     })
 )
+@Import(ExecutionConfiguration.class)
 public class ReservationControllerTest {
 
     @MockBean
@@ -62,11 +72,15 @@ public class ReservationControllerTest {
                 .count(1)
                 .note("note")
                 .build();
-        mockMvc.perform(post("/reservation")
+        MvcResult result = mockMvc.perform(post("/reservation")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request))
                 .with(csrf())
-        ).andDo(print())
+        )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
                 .andExpect(status().isOk());
 
         verify(reservationService, times(1)).addReservation(anyLong(), any(), any());
@@ -78,7 +92,10 @@ public class ReservationControllerTest {
     @DisplayName("[CONTROLLER]예약 삭제 테스트")
     void deleteReservationTest() throws Exception {
         //when & then
-        mockMvc.perform(delete("/reservation/1").with(csrf()))
+        MvcResult result = mockMvc.perform(delete("/reservation/1").with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reservationService, times(1)).deleteReservation(anyLong(), anyLong());
@@ -122,6 +139,37 @@ public class ReservationControllerTest {
     }
 
 
+    @Test
+    @WithMockUser
+    @DisplayName("[CONTROLLER]예약 조회 for 유저(커서) 테스트")
+    void getReservationsForUserByCursorTest() throws Exception {
+        //given
+        given(reservationService.getReservationForUserByCursor(anyLong(), any(), any()))
+                .willReturn(
+                        CursorResponse.<ReservationDto.ReservationResponse>builder()
+                                .content(Arrays.asList(
+                                        ReservationDto.ReservationResponse.builder()
+                                                .id(1L)
+                                                .shopName("name")
+                                                .resDay(LocalDate.of(2023, 7, 15))
+                                                .resTime(LocalTime.of(9, 0))
+                                                .reservationState(ReservationState.READY)
+                                                .build()
+                                ))
+                                .hasNext(false)
+                                .build()
+                );
+        //when & then
+        mockMvc.perform(get("/reservation/user/cursor?startDate=2023-07-15"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].shopName").value("name"))
+                .andExpect(jsonPath("$.content[0].resDay").value(LocalDate.of(2023, 7, 15).toString()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        verify(reservationService, times(1)).getReservationForUserByCursor(anyLong(), eq(LocalDate.of(2023, 7, 15)), isNull());
+    }
+
     @Test
     @WithMockUser
     @DisplayName("[CONTROLLER]예약 조회 for 매장 테스트")
@@ -164,7 +212,10 @@ public class ReservationControllerTest {
     @DisplayName("[CONTROLLER]예약 거절 테스트")
     void rejectReservationTest() throws Exception {
         //when & then
-        mockMvc.perform(patch("/reservation/reject/1").with(csrf()))
+        MvcResult result = mockMvc.perform(patch("/reservation/reject/1").with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reservationService, times(1)).rejectReservation(anyLong(), anyLong(), any());
@@ -176,7 +227,10 @@ public class ReservationControllerTest {
     @DisplayName("[CONTROLLER]예약 승인 테스트")
     void assignReservationTest() throws Exception {
         //when & then
-        mockMvc.perform(patch("/reservation/assign/1").with(csrf()))
+        MvcResult result = mockMvc.perform(patch("/reservation/assign/1").with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reservationService, times(1)).assignReservation(anyLong(), anyLong(), any());
@@ -219,9 +273,73 @@ public class ReservationControllerTest {
     @DisplayName("[CONTROLLER]키오스크 예약 방문 테스트")
     void visitShopByReservationTest() throws Exception {
         //when & then
-        mockMvc.perform(patch("/reservation/kiosk/visit/1").with(csrf()))
+        MvcResult result = mockMvc.perform(patch("/reservation/kiosk/visit/1").with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reservationService, times(1)).visitReservation(anyLong(), anyLong(), any(), any());
     }
+
+    //requestExecutor의 스레드 1개가 작업 중이고, 대기열이 없으므로 다음 요청은 바로 거절됨.
+    @Nested
+    @TestPropertySource(properties = {
+            "execution.request-executor.pool-size=1",
+            "execution.request-executor.queue-capacity=0"
+    })
+    class requestExecutorFullCases {
+
+        //바깥 클래스의 필드는 기본 설정의 컨텍스트에서 주입되므로, 이 설정의 빈을 따로 주입받음.
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ReservationService reservationService;
+
+        @Test
+        @WithMockUser
+        @DisplayName("[CONTROLLER]requestExecutor가 가득 차면 503")
+        void addReservationRejectedTest() throws Exception {
+            //given
+            CountDownLatch release = new CountDownLatch(1);
+            willAnswer(invocation -> {
+                release.await();
+                return null;
+            }).given(reservationService).addReservation(anyLong(), any(), any());
+
+            ReservationDto.AddReservationRequest request = ReservationDto
+                    .AddReservationRequest.builder()
+                    .shopId(1L)
+                    .resDay(LocalDate.now())
+                    .resTime(LocalTime.now())
+                    .count(1)
+                    .note("note")
+                    .build();
+            String content = objectMapper.writeValueAsString(request);
+
+            //when & then
+            MvcResult running = mockMvc.perform(post("/reservation")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(content)
+                    .with(csrf())
+            )
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            try{
+                mockMvc.perform(post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content)
+                        .with(csrf())
+                )
+                        .andDo(print())
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(jsonPath("$.code").value(503));
+            }finally {
+                release.countDown();
+            }
+            mockMvc.perform(asyncDispatch(running))
+                    .andExpect(status().isOk());
+        }
+    }
 }
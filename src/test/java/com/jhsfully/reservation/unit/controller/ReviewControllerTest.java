@@ -1,9 +1,11 @@
 package com.jhsfully.reservation.unit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhsfully.reservation.config.ExecutionConfiguration;
 import com.jhsfully.reservation.config.SecurityConfiguration;
 import com.jhsfully.reservation.controller.ReviewController;
 import com.jhsfully.reservation.facade.ReviewFacade;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.model.ReviewDto;
 import com.jhsfully.reservation.security.JwtAuthenticationFilter;
@@ -15,9 +17,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,6 +37,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(value = ReviewController.class, excludeFilters =
@@ -40,6 +45,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
             SecurityConfiguration.class, JwtAuthenticationFilter.class
     })
 )
+@Import(ExecutionConfiguration.class)
 public class ReviewControllerTest {
 
     @MockBean
@@ -95,11 +101,14 @@ public class ReviewControllerTest {
                 .star(4)
                 .content("content")
                 .build();
-        mockMvc.perform(post("/review/1")
+        MvcResult result = mockMvc.perform(post("/review/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
                         .with(csrf())
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reviewFacade, times(1)).writeReviewAndAddShopStar(any(), anyLong(), anyLong(), any());
@@ -115,11 +124,14 @@ public class ReviewControllerTest {
                 .star(4)
                 .content("content")
                 .build();
-        mockMvc.perform(put("/review/1")
+        MvcResult result = mockMvc.perform(put("/review/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
                         .with(csrf())
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reviewFacade, times(1)).updateReviewAndUpdateShopStar(any(), anyLong(), anyLong(), any());
@@ -131,9 +143,12 @@ public class ReviewControllerTest {
     @DisplayName("[CONTROLLER]리뷰 삭제")
     void deleteReviewTest() throws Exception {
         //when & then
-        mockMvc.perform(delete("/review/1")
+        MvcResult result = mockMvc.perform(delete("/review/1")
                         .with(csrf())
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk());
         verify(reviewFacade, times(1)).deleteReviewAndSubShopStar(anyLong(), anyLong());
@@ -209,4 +224,34 @@ public class ReviewControllerTest {
                 .andExpect(jsonPath("$[0].updatedAt").value("2023-07-15T09:00:00"));
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("[CONTROLLER]리뷰 조회 For 매장(커서)")
+    void getReviewsForShopByCursorTest() throws Exception {
+        //given
+        given(reviewService.getReviewsForShopByCursor(anyLong(), anyString()))
+                .willReturn(
+                        CursorResponse.<ReviewDto.ReviewResponse>builder()
+                                .content(Arrays.asList(
+                                        ReviewDto.ReviewResponse.builder()
+                                                .id(1L)
+                                                .memberName("name")
+                                                .star(5)
+                                                .build()
+                                ))
+                                .hasNext(true)
+                                .nextCursor("MQ")
+                                .build()
+                );
+        //when & then
+        mockMvc.perform(get("/review/shop/1/cursor?cursor=Mg"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].memberName").value("name"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("MQ"));
+        verify(reviewService, times(1)).getReviewsForShopByCursor(1L, "Mg");
+    }
+
 }
@@ -4,6 +4,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -89,6 +90,20 @@ public class ShopControllerTest {
                 .andExpect(jsonPath("$.content.[0].star").value(5));
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("[Controller]매장 검색 - 0 이하의 반경은 거절")
+    void searchShopsNotPositiveRadiusTest() throws Exception {
+        //when & then
+        mockMvc.perform(get("/shop/user/0?searchValue=n&sortingType=DISTANCE&radiusMeters=0"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("검색 반경은 0보다 커야 합니다."));
+        mockMvc.perform(get("/shop/user/0?searchValue=n&sortingType=DISTANCE&radiusMeters=-100"))
+                .andExpect(status().isBadRequest());
+        verify(shopService, never()).searchShops(any(), anyInt());
+    }
+
     @Test
     @WithMockUser
     @DisplayName("[CONTROLLER]매장 조회 By 파트너")
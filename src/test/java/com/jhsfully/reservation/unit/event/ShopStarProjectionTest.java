@@ -0,0 +1,127 @@
+package com.jhsfully.reservation.unit.event;
+
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.event.ReviewDeleted;
+import com.jhsfully.reservation.event.ReviewUpdated;
+import com.jhsfully.reservation.event.ReviewWritten;
+import com.jhsfully.reservation.event.ShopStarProjection;
+import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.search.ShopSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ShopStarProjectionTest {
+
+    @Mock
+    private ShopRepository shopRepository;
+    @Mock
+    private ShopSearchIndex shopSearchIndex;
+    @InjectMocks
+    private ShopStarProjection shopStarProjection;
+
+    @Test
+    @DisplayName("[EVENT]리뷰 작성 - 별점 추가")
+    void reviewWrittenAddStar(){
+        //given
+        Shop shop = Shop.builder().id(1L).build();
+        given(shopRepository.findAllById(List.of(1L)))
+                .willReturn(List.of(shop));
+        //when
+        shopStarProjection.on(new ReviewWritten(1L, 10L, 1L, 5));
+        //then
+        verify(shopRepository, times(1)).applyStarDelta(1L, 5L, 1L);
+        verify(shopSearchIndex, times(1)).put(shop);
+    }
+
+    @Test
+    @DisplayName("[EVENT]리뷰 수정 - 별점 변경량만 반영")
+    void reviewUpdatedChangeStar(){
+        //when
+        shopStarProjection.on(new ReviewUpdated(1L, 10L, 1L, 5, 2));
+        //then
+        verify(shopRepository, times(1)).applyStarDelta(1L, -3L, 0L);
+    }
+
+    @Test
+    @DisplayName("[EVENT]리뷰 삭제 - 별점 차감")
+    void reviewDeletedSubStar(){
+        //when
+        shopStarProjection.on(new ReviewDeleted(1L, 10L, 1L, 5));
+        //then
+        verify(shopRepository, times(1)).applyStarDelta(1L, -5L, -1L);
+    }
+
+    @Test
+    @DisplayName("[EVENT]잘못된 별점은 반영하지 않음")
+    void invalidStarIgnored(){
+        //when
+        shopStarProjection.on(new ReviewWritten(1L, 10L, 1L, 0));
+        shopStarProjection.on(new ReviewUpdated(2L, 10L, 1L, 3, 3));
+        //then
+        verify(shopRepository, never()).applyStarDelta(anyLong(), anyLong(), anyLong());
+        verify(shopRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("[EVENT]트랜잭션 안에서는 매장별로 합산하여 커밋 직전에 한 번 반영함")
+    void sumDeltasBeforeCommit(){
+        //given
+        given(shopRepository.applyStarDelta(1L, 8L, 2L))
+                .willReturn(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try{
+            //when
+            shopStarProjection.on(new ReviewWritten(1L, 10L, 1L, 5));
+            shopStarProjection.on(new ReviewWritten(2L, 11L, 1L, 3));
+            verify(shopRepository, never()).applyStarDelta(anyLong(), anyLong(), anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(x -> x.beforeCommit(false));
+            //then
+            verify(shopRepository, times(1)).applyStarDelta(1L, 8L, 2L);
+        }finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(x -> x.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("[EVENT]합산한 변경량이 거절되면 하나씩 반영함")
+    void replayDeltasWhenSumRejected(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        try{
+            //when
+            shopStarProjection.on(new ReviewDeleted(1L, 10L, 1L, 5));
+            shopStarProjection.on(new ReviewWritten(2L, 11L, 1L, 3));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(x -> x.beforeCommit(false));
+            //then
+            verify(shopRepository, times(1)).applyStarDelta(1L, -2L, 0L);
+            verify(shopRepository, times(1)).applyStarDelta(1L, -5L, -1L);
+            verify(shopRepository, times(1)).applyStarDelta(1L, 3L, 1L);
+        }finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(x -> x.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.jhsfully.reservation.unit.facade;
 
+import com.jhsfully.reservation.event.ReviewEventOutbox;
 import com.jhsfully.reservation.facade.ReviewFacade;
 import com.jhsfully.reservation.model.ReviewDto;
 import com.jhsfully.reservation.service.ReservationService;
 import com.jhsfully.reservation.service.ReviewService;
-import com.jhsfully.reservation.service.ShopService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,7 +26,7 @@ public class ReviewFacadeTest {
     @Mock
     private ReviewService reviewService;
     @Mock
-    private ShopService shopService;
+    private ReviewEventOutbox reviewEventOutbox;
     @Mock
     private ReservationService reservationService;
     @InjectMocks
@@ -61,8 +61,8 @@ public class ReviewFacadeTest {
         verify(reservationService, times(1)).setReview(
                 1L, 1L
         );
-        verify(shopService, times(1)).addShopStar(
-                1L, 5
+        verify(reviewEventOutbox, times(1)).written(
+                1L, 1L, 5
         );
     }
 
@@ -93,8 +93,8 @@ public class ReviewFacadeTest {
         verify(reviewService, times(1)).updateReview(
                 request, 1L, 1L, LocalDate.of(2023, 7, 15)
         );
-        verify(shopService, times(1)).updateShopStar(
-                1L, 5, 3
+        verify(reviewEventOutbox, times(1)).updated(
+                1L, 1L, 5, 3
         );
     }
 
@@ -121,8 +121,8 @@ public class ReviewFacadeTest {
         verify(reviewService, times(1)).deleteReviewComplete(
                 2L
         );
-        verify(shopService, times(1)).subShopStar(
-                1L, 5
+        verify(reviewEventOutbox, times(1)).deleted(
+                2L, 1L, 5
         );
     }
 
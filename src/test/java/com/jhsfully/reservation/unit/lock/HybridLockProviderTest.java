@@ -0,0 +1,133 @@
+package com.jhsfully.reservation.unit.lock;
+
+import com.jhsfully.reservation.lock.HybridLockProvider;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.WaitStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class HybridLockProviderTest {
+
+    private static final String KEY = "lock:reservation-1";
+    private static final long LEASE = 3000L;
+
+    @Mock
+    private LockProvider localLockProvider;
+    @Mock
+    private LockProvider redisLockProvider;
+    @Mock
+    private LockProvider.LockHandle localHandle;
+    @Mock
+    private LockProvider.LockHandle redisHandle;
+    private HybridLockProvider hybridLockProvider;
+
+    @BeforeEach
+    void setUp(){
+        hybridLockProvider = new HybridLockProvider(localLockProvider, redisLockProvider);
+    }
+
+    @Test
+    @DisplayName("[LOCK]Hybrid lock 취득 - 반납 시 Redis lock을 먼저 반납함")
+    void tryLockSuccess() throws InterruptedException {
+        //given
+        given(localLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.PUBSUB)).willReturn(localHandle);
+        given(redisLockProvider.tryLock(eq(KEY), anyLong(), eq(LEASE), eq(WaitStrategy.PUBSUB))).willReturn(redisHandle);
+        //when
+        LockProvider.LockHandle handle = hybridLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.PUBSUB);
+        assertNotNull(handle);
+        handle.release();
+        //then
+        InOrder inOrder = inOrder(redisHandle, localHandle);
+        inOrder.verify(redisHandle, times(1)).release();
+        inOrder.verify(localHandle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]Hybrid lock 취득 실패 - 서버 내부 lock을 얻지 못하면 Redis에 요청하지 않음")
+    void tryLockFailLocal() throws InterruptedException {
+        //given
+        given(localLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.PUBSUB)).willReturn(null);
+        //when
+        LockProvider.LockHandle handle = hybridLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.PUBSUB);
+        //then
+        assertNull(handle);
+        verify(redisLockProvider, never()).tryLock(anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("[LOCK]Hybrid lock 취득 실패 - Redis lock을 얻지 못하면 서버 내부 lock을 반납함")
+    void tryLockFailRedis() throws InterruptedException {
+        //given
+        given(localLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.SPIN)).willReturn(localHandle);
+        given(redisLockProvider.tryLock(eq(KEY), anyLong(), eq(LEASE), eq(WaitStrategy.SPIN))).willReturn(null);
+        //when
+        LockProvider.LockHandle handle = hybridLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.SPIN);
+        //then
+        assertNull(handle);
+        verify(localHandle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]Hybrid lock 취득 실패 - Redis 장애라면 서버 내부 lock을 반납하고 예외를 그대로 던짐")
+    void tryLockRedisThrow() throws InterruptedException {
+        //given
+        given(localLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.SPIN)).willReturn(localHandle);
+        given(redisLockProvider.tryLock(eq(KEY), anyLong(), eq(LEASE), eq(WaitStrategy.SPIN)))
+                .willThrow(new RedisConnectionFailureException("down"));
+        //when & then
+        assertThrows(RedisConnectionFailureException.class,
+                () -> hybridLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.SPIN));
+        verify(localHandle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]Hybrid lock 취득 실패 - 기다리는 중에 인터럽트되면 서버 내부 lock을 반납함")
+    void tryLockInterrupted() throws InterruptedException {
+        //given
+        given(localLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.PUBSUB)).willReturn(localHandle);
+        given(redisLockProvider.tryLock(eq(KEY), anyLong(), eq(LEASE), eq(WaitStrategy.PUBSUB)))
+                .willThrow(new InterruptedException());
+        //when & then
+        assertThrows(InterruptedException.class,
+                () -> hybridLockProvider.tryLock(KEY, 1000L, LEASE, WaitStrategy.PUBSUB));
+        verify(localHandle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]Hybrid lock 취득 - 남은 대기시간이 없어도 Redis lock은 한 번 시도함")
+    void tryLockNoRemainingWait() throws InterruptedException {
+        //given
+        //서버 내부 lock을 기다리는 동안 대기시간을 모두 사용함.
+        given(localLockProvider.tryLock(KEY, 50L, LEASE, WaitStrategy.SPIN)).willAnswer(invocation -> {
+            Thread.sleep(100);
+            return localHandle;
+        });
+        given(redisLockProvider.tryLock(KEY, 0L, LEASE, WaitStrategy.SPIN)).willReturn(redisHandle);
+        //when
+        LockProvider.LockHandle handle = hybridLockProvider.tryLock(KEY, 50L, LEASE, WaitStrategy.SPIN);
+        //then
+        assertNotNull(handle);
+        verify(redisLockProvider, times(1)).tryLock(KEY, 0L, LEASE, WaitStrategy.SPIN);
+        verify(localHandle, never()).release();
+    }
+}
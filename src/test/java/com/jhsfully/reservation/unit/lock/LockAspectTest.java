@@ -0,0 +1,140 @@
+package com.jhsfully.reservation.unit.lock;
+
+import com.jhsfully.reservation.exception.RedisLockException;
+import com.jhsfully.reservation.lock.LockAspect;
+import com.jhsfully.reservation.lock.LockKeyResolver;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.RedisLock;
+import com.jhsfully.reservation.lock.WaitStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.config.EmbeddedValueResolver;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.expression.StandardBeanExpressionResolver;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.mock.env.MockEnvironment;
+
+import static com.jhsfully.reservation.type.RedisLockErrorType.REDIS_ALREADY_LOCKED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class LockAspectTest {
+
+    @Mock
+    private LockProvider lockProvider;
+
+    //ReservationServiceImpl.addReservation과 같은 condition을 사용함.
+    public static class Target {
+        @RedisLock(group = "reservation", keys = {"memberId", "shopId"},
+                condition = "#{'${reservation.admission:database}' == 'database'}")
+        public String conditional(Long memberId, Long shopId){
+            return "done";
+        }
+
+        @RedisLock(group = "shop", key = "shopId")
+        public String always(Long shopId){
+            return "done";
+        }
+    }
+
+    //실제 컨테이너와 같이, 설정값(${...})과 SpEL(#{...})을 모두 해석하는 resolver로 aspect를 적용함.
+    private Target proxy(String admission){
+        MockEnvironment environment = new MockEnvironment();
+        if(admission != null){
+            environment.withProperty("reservation.admission", admission);
+        }
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.addEmbeddedValueResolver(environment::resolvePlaceholders);
+        beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver());
+
+        LockAspect aspect = new LockAspect(new LockKeyResolver(new DefaultParameterNameDiscoverer()), lockProvider);
+        aspect.setEmbeddedValueResolver(new EmbeddedValueResolver(beanFactory));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("[LOCK]condition이 false라면 lock 없이 수행")
+    void conditionFalseSkipLock() throws InterruptedException {
+        //given
+        Target target = proxy("redis");
+        //when
+        String result = target.conditional(3L, 1L);
+        //then
+        assertEquals("done", result);
+        verify(lockProvider, never()).tryLock(anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("[LOCK]condition이 true라면 lock을 잡고 반납함")
+    void conditionTrueLock() throws InterruptedException {
+        //given
+        Target target = proxy("database");
+        LockProvider.LockHandle handle = mock(LockProvider.LockHandle.class);
+        given(lockProvider.tryLock("lock:reservation-3-1", 2_000L, 5_000L, WaitStrategy.SPIN))
+                .willReturn(handle);
+        //when
+        String result = target.conditional(3L, 1L);
+        //then
+        assertEquals("done", result);
+        verify(handle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]설정이 없다면 condition의 기본값(database)으로 lock을 잡음")
+    void conditionDefaultLock() throws InterruptedException {
+        //given
+        Target target = proxy(null);
+        LockProvider.LockHandle handle = mock(LockProvider.LockHandle.class);
+        given(lockProvider.tryLock(eq("lock:reservation-3-1"), anyLong(), anyLong(), any()))
+                .willReturn(handle);
+        //when
+        target.conditional(3L, 1L);
+        //then
+        verify(handle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]condition이 없다면 항상 lock을 잡음")
+    void noConditionLock() throws InterruptedException {
+        //given
+        Target target = proxy("redis");
+        LockProvider.LockHandle handle = mock(LockProvider.LockHandle.class);
+        given(lockProvider.tryLock(eq("lock:shop-1"), anyLong(), anyLong(), any()))
+                .willReturn(handle);
+        //when
+        target.always(1L);
+        //then
+        verify(handle, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[LOCK]lock 취득 실패 - REDIS_ALREADY_LOCKED")
+    void lockFail() throws InterruptedException {
+        //given
+        Target target = proxy("database");
+        given(lockProvider.tryLock(eq("lock:reservation-3-1"), anyLong(), anyLong(), any()))
+                .willReturn(null);
+        //when
+        RedisLockException exception = assertThrows(RedisLockException.class,
+                () -> target.conditional(3L, 1L));
+        //then
+        assertEquals(REDIS_ALREADY_LOCKED, exception.getRedisLockErrorType());
+    }
+}
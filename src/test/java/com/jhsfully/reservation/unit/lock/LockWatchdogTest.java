@@ -0,0 +1,104 @@
+package com.jhsfully.reservation.unit.lock;
+
+import com.jhsfully.reservation.lock.LockWatchdog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.verification.VerificationMode;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class LockWatchdogTest {
+
+    private static final String KEY = "lock:reservation-1";
+    private static final String TOKEN = "token";
+    private static final long LEASE = 30L; //10ms마다 연장함.
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    private LockWatchdog lockWatchdog;
+
+    @BeforeEach
+    void setUp(){
+        lockWatchdog = new LockWatchdog(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown(){
+        lockWatchdog.shutdown();
+    }
+
+    private void verifyRenew(VerificationMode mode){
+        verify(redisTemplate, mode).execute(any(RedisScript.class), eq(List.of(KEY)), eq(TOKEN), eq(String.valueOf(LEASE)));
+    }
+
+    @Test
+    @DisplayName("[LOCK]만료시간 연장 - 반납(cancel)할 때까지 주기적으로 연장함")
+    void renewUntilCancelled() throws InterruptedException {
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(TOKEN), eq(String.valueOf(LEASE))))
+                .willReturn(1L);
+        //when
+        ScheduledFuture<?> renewal = lockWatchdog.watch(KEY, TOKEN, LEASE);
+        verifyRenew(timeout(1000).atLeast(2));
+        renewal.cancel(false);
+        //then
+        assertTrue(renewal.isCancelled());
+        Thread.sleep(LEASE); //취소 직전에 시작된 연장이 끝나기를 기다림.
+        clearInvocations(redisTemplate);
+        verifyRenew(after(100).never());
+    }
+
+    @Test
+    @DisplayName("[LOCK]만료시간 연장 - 소유권을 잃었다면 더 이상 연장하지 않음")
+    void renewStopOnOwnershipLost(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(TOKEN), eq(String.valueOf(LEASE))))
+                .willReturn(0L);
+        //when
+        ScheduledFuture<?> renewal = lockWatchdog.watch(KEY, TOKEN, LEASE);
+        //then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> renewal.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        verifyRenew(after(100).times(1));
+    }
+
+    @Test
+    @DisplayName("[LOCK]만료시간 연장 - 일시적인 Redis 장애라면 다음 주기에 다시 연장함")
+    void renewRetryOnRedisFail(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(TOKEN), eq(String.valueOf(LEASE))))
+                .willThrow(new RedisConnectionFailureException("down"))
+                .willReturn(1L);
+        //when
+        ScheduledFuture<?> renewal = lockWatchdog.watch(KEY, TOKEN, LEASE);
+        //then
+        verifyRenew(timeout(1000).atLeast(2));
+        assertFalse(renewal.isDone());
+        renewal.cancel(false);
+    }
+}
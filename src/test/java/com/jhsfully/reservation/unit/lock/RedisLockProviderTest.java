@@ -0,0 +1,156 @@
+package com.jhsfully.reservation.unit.lock;
+
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.LockReleaseListener;
+import com.jhsfully.reservation.lock.LockWatchdog;
+import com.jhsfully.reservation.lock.RedisLockProvider;
+import com.jhsfully.reservation.lock.WaitStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static com.jhsfully.reservation.lock.LockReleaseListener.LOCK_RELEASE_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisLockProviderTest {
+
+    private static final String KEY = "lock:reservation-1";
+    private static final long LEASE = 3000L;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private LockWatchdog lockWatchdog;
+    @Mock
+    private ScheduledFuture<Object> renewal;
+    private LockReleaseListener lockReleaseListener;
+    private RedisLockProvider redisLockProvider;
+
+    @BeforeEach
+    void setUp(){
+        lockReleaseListener = new LockReleaseListener();
+        redisLockProvider = new RedisLockProvider(redisTemplate, lockReleaseListener, lockWatchdog);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    }
+
+    //lock을 취득하고, 취득 시 저장한 owner token을 반환함.
+    private String acquire(LockProvider.LockHandle[] handle) throws InterruptedException {
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(LEASE)))).willReturn(true);
+        willReturn(renewal).given(lockWatchdog).watch(eq(KEY), anyString(), eq(LEASE));
+
+        handle[0] = redisLockProvider.tryLock(KEY, 0L, LEASE, WaitStrategy.SPIN);
+
+        ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(eq(KEY), tokenCaptor.capture(), eq(Duration.ofMillis(LEASE)));
+        verify(lockWatchdog).watch(KEY, tokenCaptor.getValue(), LEASE);
+        return tokenCaptor.getValue();
+    }
+
+    @Test
+    @DisplayName("[LOCK]Redis lock 반납 - 내 token이라면 삭제하고 반납을 알림")
+    void releaseOwner() throws InterruptedException {
+        //given
+        LockProvider.LockHandle[] handle = new LockProvider.LockHandle[1];
+        String token = acquire(handle);
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(token))).willReturn(1L);
+        //when
+        handle[0].release();
+        //then
+        verify(redisTemplate, times(1)).convertAndSend(LOCK_RELEASE_CHANNEL, KEY);
+    }
+
+    @Test
+    @DisplayName("[LOCK]Redis lock 반납 - token이 다르다면(만료되어 다른 곳에서 가져감) 반납을 알리지 않음")
+    void releaseNotOwner() throws InterruptedException {
+        //given
+        LockProvider.LockHandle[] handle = new LockProvider.LockHandle[1];
+        String token = acquire(handle);
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(token))).willReturn(0L);
+        //when
+        handle[0].release();
+        //then
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("[LOCK]Redis lock 반납 - 만료시간 연장을 먼저 멈춘 후에 삭제함")
+    void releaseCancelRenewal() throws InterruptedException {
+        //given
+        LockProvider.LockHandle[] handle = new LockProvider.LockHandle[1];
+        String token = acquire(handle);
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(token))).willReturn(1L);
+        //when
+        handle[0].release();
+        //then
+        InOrder inOrder = inOrder(renewal, redisTemplate);
+        inOrder.verify(renewal, times(1)).cancel(false);
+        inOrder.verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of(KEY)), eq(token));
+    }
+
+    @Test
+    @DisplayName("[LOCK]Redis lock 취득 실패 - 대기시간이 0이어도 한 번은 시도하고, 연장하지 않음")
+    void tryLockFail() throws InterruptedException {
+        //given
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(LEASE)))).willReturn(false);
+        //when
+        LockProvider.LockHandle handle = redisLockProvider.tryLock(KEY, 0L, LEASE, WaitStrategy.SPIN);
+        //then
+        assertNull(handle);
+        verify(valueOperations, times(1)).setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(LEASE)));
+        verify(lockWatchdog, never()).watch(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("[LOCK]Redis lock 취득 - PUBSUB 방식은 반납 메세지를 받으면 바로 재시도함")
+    void tryLockPubSub() throws InterruptedException {
+        //given
+        given(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(LEASE)))).willReturn(false, true);
+        willReturn(renewal).given(lockWatchdog).watch(eq(KEY), anyString(), eq(LEASE));
+        Thread releaser = new Thread(() -> {
+            try{
+                Thread.sleep(100);
+            }catch (InterruptedException ignored){
+            }
+            lockReleaseListener.onMessage(new DefaultMessage(
+                    LOCK_RELEASE_CHANNEL.getBytes(StandardCharsets.UTF_8), KEY.getBytes(StandardCharsets.UTF_8)), null);
+        });
+        //when
+        long start = System.currentTimeMillis();
+        releaser.start();
+        LockProvider.LockHandle handle = redisLockProvider.tryLock(KEY, 10_000L, LEASE, WaitStrategy.PUBSUB);
+        //then
+        assertNotNull(handle);
+        assertTrue(System.currentTimeMillis() - start < 10_000L);
+        verify(valueOperations, times(2)).setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(LEASE)));
+        releaser.join();
+    }
+}
@@ -0,0 +1,29 @@
+package com.jhsfully.reservation.unit.repository;
+
+import com.jhsfully.reservation.domain.QReservation;
+import com.jhsfully.reservation.repository.custom.impl.ReservationCustomRepositoryImpl;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    키오스크의 방문 처리 UPDATE의 조건을 검증함.
+ */
+public class ReservationCustomRepositoryImplTest {
+
+    @Test
+    @DisplayName("[REPOSITORY]방문 조건 - 승인된 예약이면서, 매장이 삭제되지 않았을 때만 변경함")
+    void visitable(){
+        //when
+        BooleanExpression where = ReservationCustomRepositoryImpl.visitable(QReservation.reservation, 1L);
+        //then
+        String condition = where.toString();
+        assertTrue(condition.contains("reservation.id = 1"), condition);
+        assertTrue(condition.contains("reservation.reservationState = ASSIGN"), condition);
+        assertTrue(condition.contains("exists"), condition);
+        assertTrue(condition.contains("visitShop.id = reservation.shop.id"), condition);
+        assertTrue(condition.contains("visitShop.isDeleted = false"), condition);
+    }
+}
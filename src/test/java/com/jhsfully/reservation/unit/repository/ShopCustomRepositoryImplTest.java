@@ -0,0 +1,48 @@
+package com.jhsfully.reservation.unit.repository;
+
+import com.jhsfully.reservation.domain.QShop;
+import com.jhsfully.reservation.repository.custom.impl.ShopCustomRepositoryImpl;
+import com.jhsfully.reservation.util.DistanceUtil;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    DB 검색의 반경 조건을 검증함.
+    거리 계산(ST_Distance_Sphere)은 MySQL 함수이므로, 실행하지 않고 만들어진 조건만 확인함.
+ */
+public class ShopCustomRepositoryImplTest {
+
+    private static final double LATITUDE = 37.5665;
+    private static final double LONGITUDE = 126.978;
+
+    @Test
+    @DisplayName("[REPOSITORY]반경 조건 - 위경도 범위로 먼저 거르고, 실제 거리가 반경 이내인 매장만 남김")
+    void withinRadius(){
+        //given
+        QShop shop = QShop.shop;
+        NumberExpression<Double> distance = ShopCustomRepositoryImpl.distance(shop, LATITUDE, LONGITUDE);
+        DistanceUtil.BoundingBox box = DistanceUtil.boundingBox(LATITUDE, LONGITUDE, 500);
+        //when
+        BooleanExpression where = ShopCustomRepositoryImpl.withinRadius(shop, distance, LATITUDE, LONGITUDE, 500);
+        //then
+        String condition = where.toString();
+        assertTrue(condition.contains("shop.latitude between " + box.getMinLatitude() + " and " + box.getMaxLatitude()), condition);
+        assertTrue(condition.contains("shop.longitude between " + box.getMinLongitude() + " and " + box.getMaxLongitude()), condition);
+        assertTrue(condition.contains(
+                "ST_Distance_Sphere(point(shop.longitude, shop.latitude), point(" + LONGITUDE + ", " + LATITUDE + ")) <= 500.0"), condition);
+    }
+
+    @Test
+    @DisplayName("[REPOSITORY]반경 조건 - 0 이하의 반경은 거절")
+    void withinRadiusNotPositive(){
+        QShop shop = QShop.shop;
+        NumberExpression<Double> distance = ShopCustomRepositoryImpl.distance(shop, LATITUDE, LONGITUDE);
+        assertThrows(IllegalArgumentException.class,
+                () -> ShopCustomRepositoryImpl.withinRadius(shop, distance, LATITUDE, LONGITUDE, 0));
+    }
+}
@@ -0,0 +1,163 @@
+package com.jhsfully.reservation.unit.scheduler;
+
+import com.jhsfully.reservation.scheduler.ReservationDeadlineQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.jhsfully.reservation.type.ReservationState.ASSIGN;
+import static com.jhsfully.reservation.type.ReservationState.READY;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationDeadlineQueueTest {
+
+    private static final String KEY = "reservation:deadlines";
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 7, 15, 12, 0);
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    private ReservationDeadlineQueue reservationDeadlineQueue;
+
+    @BeforeEach
+    void setUp(){
+        reservationDeadlineQueue = new ReservationDeadlineQueue(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown(){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static double millis(LocalDateTime dateTime){
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 조회 - {예약 id}:{상태} 형태를 해석함")
+    @SuppressWarnings("unchecked")
+    void pollParseMembers(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)),
+                eq(String.valueOf((long) millis(NOW))), eq("100")))
+                .willReturn(List.of("1:READY", "22:ASSIGN"));
+        //when
+        List<ReservationDeadlineQueue.Deadline> deadlines = reservationDeadlineQueue.poll(NOW, 100);
+        //then
+        assertAll(
+                () -> assertEquals(2, deadlines.size()),
+                () -> assertEquals(1L, deadlines.get(0).getReservationId()),
+                () -> assertEquals(READY, deadlines.get(0).getState()),
+                () -> assertEquals(22L, deadlines.get(1).getReservationId()),
+                () -> assertEquals(ASSIGN, deadlines.get(1).getState())
+        );
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 조회 - 지난 항목이 없음")
+    @SuppressWarnings("unchecked")
+    void pollEmpty(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), anyString(), anyString()))
+                .willReturn(null);
+        //when
+        List<ReservationDeadlineQueue.Deadline> deadlines = reservationDeadlineQueue.poll(NOW, 100);
+        //then
+        assertTrue(deadlines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 등록 - 트랜잭션 밖이라면 바로 등록")
+    void scheduleWithoutTransaction(){
+        //given
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        //when
+        reservationDeadlineQueue.schedule(1L, READY, NOW);
+        //then
+        verify(zSetOperations, times(1)).add(KEY, "1:READY", millis(NOW));
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 등록 - 트랜잭션이 커밋된 후에 등록")
+    void scheduleAfterCommit(){
+        //given
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        TransactionSynchronizationManager.initSynchronization();
+        //when
+        reservationDeadlineQueue.schedule(1L, ASSIGN, NOW);
+        //then
+        verify(zSetOperations, never()).add(anyString(), anyString(), anyDouble());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(zSetOperations, times(1)).add(KEY, "1:ASSIGN", millis(NOW));
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 등록 - 롤백되면 등록하지 않음")
+    void scheduleRollback(){
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        //when
+        reservationDeadlineQueue.schedule(1L, READY, NOW);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(x -> x.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        //then
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 등록 - Redis 장애는 무시함 (새벽 스케줄러가 처리함)")
+    void scheduleRedisFail(){
+        //given
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(zSetOperations.add(anyString(), anyString(), anyDouble()))
+                .willThrow(new RedisConnectionFailureException("down"));
+        //when
+        reservationDeadlineQueue.schedule(1L, READY, NOW);
+        //then
+        verify(zSetOperations, times(1)).add(KEY, "1:READY", millis(NOW));
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 재등록 - retryAt에 다시 꺼내지도록 등록")
+    @SuppressWarnings("unchecked")
+    void retry(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), anyString(), anyString()))
+                .willReturn(List.of("1:READY", "2:ASSIGN"));
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        List<ReservationDeadlineQueue.Deadline> deadlines = reservationDeadlineQueue.poll(NOW, 100);
+        //when
+        reservationDeadlineQueue.retry(deadlines, NOW.plusMinutes(1));
+        //then
+        verify(zSetOperations, times(1)).add(KEY, "1:READY", millis(NOW.plusMinutes(1)));
+        verify(zSetOperations, times(1)).add(KEY, "2:ASSIGN", millis(NOW.plusMinutes(1)));
+    }
+}
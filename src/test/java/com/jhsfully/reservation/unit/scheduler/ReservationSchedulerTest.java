@@ -0,0 +1,302 @@
+package com.jhsfully.reservation.unit.scheduler;
+
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.lock.LockProvider;
+import com.jhsfully.reservation.lock.SchedulerLock;
+import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.repository.ReservationSlotRepository;
+import com.jhsfully.reservation.scheduler.ReservationDeadlineQueue;
+import com.jhsfully.reservation.scheduler.ReservationScheduler;
+import com.jhsfully.reservation.scheduler.ReservationSweepCheckpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.jhsfully.reservation.type.ReservationState.ASSIGN;
+import static com.jhsfully.reservation.type.ReservationState.EXPIRED;
+import static com.jhsfully.reservation.type.ReservationState.READY;
+import static com.jhsfully.reservation.type.ReservationState.REJECT;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/*
+    새벽의 일괄 처리(sweep)와, deadline 큐의 처리를 검증함.
+    deadline 큐는 실제 객체(ReservationDeadlineQueue)를 사용하고, Redis만 mock으로 대신함.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReservationSchedulerTest {
+
+    private static final String KEY = "reservation:deadlines";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ReservationSlotRepository reservationSlotRepository;
+    @Mock
+    private ReservedCountCache reservedCountCache;
+    @Mock
+    private ReservationSweepCheckpoint reservationSweepCheckpoint;
+    @Mock
+    private SchedulerLock schedulerLock;
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    @Mock
+    private LockProvider.LockHandle lease;
+    private ReservationScheduler reservationScheduler;
+
+    @BeforeEach
+    void setUp(){
+        reservationScheduler = new ReservationScheduler(reservationRepository, reservationSlotRepository,
+                reservedCountCache, reservationSweepCheckpoint, schedulerLock, new ReservationDeadlineQueue(redisTemplate));
+        ReflectionTestUtils.setField(reservationScheduler, "chunkSize", 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDeadlines(List<String> first, List<String> second){
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), anyString(), eq("3")))
+                .willReturn(first, second);
+    }
+
+    //오늘의 작업 lease를 취득함.
+    private void givenLease(LocalDate today){
+        given(schedulerLock.tryAcquire("reservation-state-" + today, 30_000L)).willReturn(lease);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - 상태별로 청크마다 변경하고, 청크마다 체크포인트를 기록함")
+    void sweepChunks(){
+        //given
+        LocalDate today = LocalDate.now();
+        given(reservationSweepCheckpoint.isCompleted(today)).willReturn(false);
+        givenLease(today);
+        given(reservationRepository.findIdsWithStateAndDay(READY, today, null, 3)).willReturn(List.of(1L, 2L, 3L));
+        given(reservationRepository.updateReservationState(List.of(1L, 2L, 3L), READY, REJECT)).willReturn(3L);
+        given(reservationRepository.findIdsWithStateAndDay(READY, today, 3L, 3)).willReturn(List.of(4L));
+        given(reservationRepository.updateReservationState(List.of(4L), READY, REJECT)).willReturn(1L);
+        given(reservationRepository.findIdsWithStateAndDay(ASSIGN, today.minusDays(1), null, 3)).willReturn(List.of(5L));
+        //이미 다른 곳에서 상태가 바뀐 예약은 변경되지 않음.
+        given(reservationRepository.updateReservationState(List.of(5L), ASSIGN, EXPIRED)).willReturn(0L);
+        given(reservationSlotRepository.findClosedSlotIds(today, 3))
+                .willReturn(List.of(10L, 11L, 12L), List.of(13L));
+        given(reservationSlotRepository.deleteSlots(List.of(10L, 11L, 12L))).willReturn(3L);
+        given(reservationSlotRepository.deleteSlots(List.of(13L))).willReturn(1L);
+        //when
+        reservationScheduler.setReservationsState();
+        //then
+        verify(reservationSweepCheckpoint, times(1)).start(today);
+        verify(reservationSweepCheckpoint, times(1)).save(today, READY, 3L, 3L);
+        verify(reservationSweepCheckpoint, times(1)).save(today, READY, 4L, 1L);
+        verify(reservationSweepCheckpoint, times(1)).save(today, ASSIGN, 5L, 0L);
+        verify(reservationSlotRepository, times(2)).deleteSlots(anyList());
+        verify(reservedCountCache, times(1)).evictDay(today);
+        verify(reservedCountCache, times(1)).evictDay(today.minusDays(1));
+        verify(reservationSweepCheckpoint, times(1)).complete(eq(today), anyString(), anyLong());
+        verify(lease, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - 체크포인트의 마지막 id 이후부터 이어서 처리함")
+    void sweepResume(){
+        //given
+        LocalDate today = LocalDate.now();
+        given(reservationSweepCheckpoint.isCompleted(today)).willReturn(false);
+        givenLease(today);
+        given(reservationSweepCheckpoint.getLastId(today, READY)).willReturn(100L);
+        given(reservationSweepCheckpoint.getLastId(today, ASSIGN)).willReturn(50L);
+        given(reservationRepository.findIdsWithStateAndDay(READY, today, 100L, 3)).willReturn(List.of(101L));
+        given(reservationRepository.updateReservationState(List.of(101L), READY, REJECT)).willReturn(1L);
+        given(reservationRepository.findIdsWithStateAndDay(ASSIGN, today.minusDays(1), 50L, 3)).willReturn(List.of());
+        given(reservationSlotRepository.findClosedSlotIds(today, 3)).willReturn(List.of());
+        //when
+        reservationScheduler.resumeReservationsState();
+        //then
+        verify(reservationRepository, never()).findIdsWithStateAndDay(any(), any(), eq(null), anyInt());
+        verify(reservationSweepCheckpoint, times(1)).save(today, READY, 101L, 1L);
+        verify(reservationSlotRepository, never()).deleteSlots(anyList());
+        verify(lease, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - 이미 완료된 날짜는 lease를 취득하지 않고 건너뜀")
+    void sweepCompletedDay(){
+        //given
+        given(reservationSweepCheckpoint.isCompleted(LocalDate.now())).willReturn(true);
+        //when
+        reservationScheduler.resumeReservationsState();
+        //then
+        verifyNoInteractions(schedulerLock, reservationRepository, reservationSlotRepository, reservedCountCache);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - 다른 서버가 lease를 가지고 있다면 건너뜀")
+    void sweepLeaseHeld(){
+        //given
+        LocalDate today = LocalDate.now();
+        given(schedulerLock.tryAcquire("reservation-state-" + today, 30_000L)).willReturn(null);
+        //when
+        reservationScheduler.setReservationsState();
+        //then
+        verify(reservationSweepCheckpoint, never()).start(any());
+        verifyNoInteractions(reservationRepository, reservationSlotRepository, reservedCountCache);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - lease를 취득하지 못하는 Redis 장애라면 건너뜀")
+    void sweepLeaseFail(){
+        //given
+        LocalDate today = LocalDate.now();
+        given(schedulerLock.tryAcquire("reservation-state-" + today, 30_000L))
+                .willThrow(new RedisConnectionFailureException("down"));
+        //when
+        reservationScheduler.setReservationsState();
+        //then
+        verifyNoInteractions(reservationRepository, reservationSlotRepository, reservedCountCache);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - lease를 취득하는 사이에 다른 서버가 완료했다면 건너뜀")
+    void sweepCompletedAfterLease(){
+        //given
+        LocalDate today = LocalDate.now();
+        given(reservationSweepCheckpoint.isCompleted(today)).willReturn(false, true);
+        givenLease(today);
+        //when
+        reservationScheduler.setReservationsState();
+        //then
+        verify(reservationSweepCheckpoint, never()).start(any());
+        verifyNoInteractions(reservationRepository, reservationSlotRepository, reservedCountCache);
+        verify(lease, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]새벽 작업 - 체크포인트를 기록하지 못해도 작업은 계속 진행함")
+    void sweepCheckpointFail(){
+        //given
+        reservationScheduler = new ReservationScheduler(reservationRepository, reservationSlotRepository,
+                reservedCountCache, new ReservationSweepCheckpoint(redisTemplate), schedulerLock,
+                new ReservationDeadlineQueue(redisTemplate));
+        ReflectionTestUtils.setField(reservationScheduler, "chunkSize", 3);
+        LocalDate today = LocalDate.now();
+        given(redisTemplate.opsForHash()).willThrow(new RedisConnectionFailureException("down"));
+        givenLease(today);
+        given(reservationRepository.findIdsWithStateAndDay(READY, today, null, 3)).willReturn(List.of(1L));
+        given(reservationRepository.updateReservationState(List.of(1L), READY, REJECT)).willReturn(1L);
+        given(reservationRepository.findIdsWithStateAndDay(ASSIGN, today.minusDays(1), null, 3)).willReturn(List.of(2L));
+        given(reservationRepository.updateReservationState(List.of(2L), ASSIGN, EXPIRED)).willReturn(1L);
+        given(reservationSlotRepository.findClosedSlotIds(today, 3)).willReturn(List.of(10L));
+        given(reservationSlotRepository.deleteSlots(List.of(10L))).willReturn(1L);
+        //when
+        reservationScheduler.setReservationsState();
+        //then
+        verify(reservationRepository, times(1)).updateReservationState(List.of(1L), READY, REJECT);
+        verify(reservationRepository, times(1)).updateReservationState(List.of(2L), ASSIGN, EXPIRED);
+        verify(reservationSlotRepository, times(1)).deleteSlots(List.of(10L));
+        verify(reservedCountCache, times(1)).evictDay(today);
+        verify(lease, times(1)).release();
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 처리 - READY는 REJECT로, ASSIGN은 EXPIRED로 나누어 변경")
+    void expireDueReservationsSplitByState(){
+        //given
+        givenDeadlines(List.of("1:READY", "2:ASSIGN"), List.of());
+        given(reservationRepository.updateReservationState(List.of(1L), READY, REJECT)).willReturn(1L);
+        given(reservationRepository.updateReservationState(List.of(2L), ASSIGN, EXPIRED)).willReturn(1L);
+        //when
+        reservationScheduler.expireDueReservations();
+        //then
+        //이전 상태를 조건으로 변경하므로, 이미 취소/승인/방문된 예약은 변경되지 않음.
+        verify(reservationRepository, times(1)).updateReservationState(List.of(1L), READY, REJECT);
+        verify(reservationRepository, times(1)).updateReservationState(List.of(2L), ASSIGN, EXPIRED);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 처리 - 한 상태만 있다면 다른 상태는 변경하지 않음")
+    void expireDueReservationsSingleState(){
+        //given
+        givenDeadlines(List.of("1:READY", "3:READY"), List.of());
+        given(reservationRepository.updateReservationState(List.of(1L, 3L), READY, REJECT)).willReturn(0L);
+        //when
+        reservationScheduler.expireDueReservations();
+        //then
+        verify(reservationRepository, never()).updateReservationState(anyList(), eq(ASSIGN), any());
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 처리 - chunkSize만큼 꺼냈다면 이어서 꺼냄")
+    @SuppressWarnings("unchecked")
+    void expireDueReservationsNextChunk(){
+        //given
+        givenDeadlines(List.of("1:READY", "2:READY", "3:READY"), List.of("4:ASSIGN"));
+        given(reservationRepository.updateReservationState(List.of(1L, 2L, 3L), READY, REJECT)).willReturn(3L);
+        given(reservationRepository.updateReservationState(List.of(4L), ASSIGN, EXPIRED)).willReturn(1L);
+        //when
+        reservationScheduler.expireDueReservations();
+        //then
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of(KEY)), anyString(), eq("3"));
+        verify(reservationRepository, times(1)).updateReservationState(List.of(4L), ASSIGN, EXPIRED);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 처리 실패 - 1분 뒤에 다시 처리되도록 재등록")
+    void expireDueReservationsRetry(){
+        //given
+        givenDeadlines(List.of("1:READY", "2:ASSIGN"), List.of());
+        given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+        given(reservationRepository.updateReservationState(List.of(1L), READY, REJECT))
+                .willThrow(new QueryTimeoutException("timeout"));
+        long before = LocalDateTime.now().plusMinutes(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        //when
+        reservationScheduler.expireDueReservations();
+        //then
+        long after = LocalDateTime.now().plusMinutes(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        ArgumentCaptor<Double> readyScore = ArgumentCaptor.forClass(Double.class);
+        ArgumentCaptor<Double> assignScore = ArgumentCaptor.forClass(Double.class);
+        verify(zSetOperations, times(1)).add(eq(KEY), eq("1:READY"), readyScore.capture());
+        verify(zSetOperations, times(1)).add(eq(KEY), eq("2:ASSIGN"), assignScore.capture());
+        assertTrue(readyScore.getValue() >= before && readyScore.getValue() <= after);
+        assertTrue(assignScore.getValue() >= before && assignScore.getValue() <= after);
+        //실패한 청크 이후로는 더 꺼내지 않음.
+        verify(reservationRepository, never()).updateReservationState(List.of(2L), ASSIGN, EXPIRED);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]deadline 조회 실패 - 상태를 변경하지 않음")
+    @SuppressWarnings("unchecked")
+    void expireDueReservationsPollFail(){
+        //given
+        given(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), anyString(), eq("3")))
+                .willThrow(new RedisConnectionFailureException("down"));
+        //when
+        reservationScheduler.expireDueReservations();
+        //then
+        verify(reservationRepository, never()).updateReservationState(anyList(), any(), any());
+    }
+}
@@ -0,0 +1,98 @@
+package com.jhsfully.reservation.unit.scheduler;
+
+import com.jhsfully.reservation.scheduler.ReservationSweepCheckpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.jhsfully.reservation.type.ReservationState.READY;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationSweepCheckpointTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 7, 16);
+    private static final String KEY = "scheduler:reservation-state:2023-07-16";
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    private ReservationSweepCheckpoint reservationSweepCheckpoint;
+
+    @BeforeEach
+    void setUp(){
+        reservationSweepCheckpoint = new ReservationSweepCheckpoint(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]체크포인트 완료 - 이어서 처리한 실행까지 누적된 변경 수를 기록함")
+    void completeCumulative(){
+        //given
+        given(redisTemplate.<Object, Object>opsForHash()).willReturn(hashOperations);
+        given(hashOperations.get(KEY, "READY.updated")).willReturn("7");
+        given(hashOperations.get(KEY, "ASSIGN.updated")).willReturn("2");
+        //when
+        reservationSweepCheckpoint.complete(DAY, "host", 1500L);
+        //then
+        InOrder inOrder = inOrder(hashOperations);
+        inOrder.verify(hashOperations, times(1)).putAll(KEY, Map.of(
+                "owner", "host",
+                "duration-millis", "1500",
+                "rejected", "7",
+                "expired", "2"));
+        inOrder.verify(hashOperations, times(1)).put(eq(KEY), eq("done"), anyString());
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]체크포인트 완료 - 변경된 예약이 없다면 0으로 기록함")
+    void completeNothingUpdated(){
+        //given
+        given(redisTemplate.<Object, Object>opsForHash()).willReturn(hashOperations);
+        //when
+        reservationSweepCheckpoint.complete(DAY, "host", 10L);
+        //then
+        verify(hashOperations, times(1)).putAll(KEY, Map.of(
+                "owner", "host",
+                "duration-millis", "10",
+                "rejected", "0",
+                "expired", "0"));
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]체크포인트 기록 - 마지막 id를 기록하고, 변경 수를 누적함")
+    void save(){
+        //given
+        given(redisTemplate.<Object, Object>opsForHash()).willReturn(hashOperations);
+        //when
+        reservationSweepCheckpoint.save(DAY, READY, 30L, 3L);
+        //then
+        verify(hashOperations, times(1)).put(KEY, "READY.last-id", "30");
+        verify(hashOperations, times(1)).increment(KEY, "READY.updated", 3L);
+    }
+
+    @Test
+    @DisplayName("[SCHEDULER]체크포인트 확인 - Redis 장애라면 완료되지 않은 것으로 봄")
+    void isCompletedRedisFail(){
+        //given
+        given(redisTemplate.opsForHash()).willThrow(new RedisConnectionFailureException("down"));
+        //when & then
+        assertFalse(reservationSweepCheckpoint.isCompleted(DAY));
+    }
+}
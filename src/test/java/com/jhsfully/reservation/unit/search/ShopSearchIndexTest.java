@@ -0,0 +1,340 @@
+package com.jhsfully.reservation.unit.search;
+
+import com.jhsfully.reservation.domain.Shop;
+import com.jhsfully.reservation.model.ShopDto;
+import com.jhsfully.reservation.model.ShopTopResponse;
+import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.search.ShopSearchIndex;
+import com.jhsfully.reservation.util.SearchTextUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static com.jhsfully.reservation.type.SortingType.DISTANCE;
+import static com.jhsfully.reservation.type.SortingType.STAR;
+import static com.jhsfully.reservation.type.SortingType.TEXT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class ShopSearchIndexTest {
+
+    //서울시청 근처
+    private static final double LATITUDE = 37.5665;
+    private static final double LONGITUDE = 126.9780;
+
+    @Mock
+    private ShopRepository shopRepository;
+    private ShopSearchIndex shopSearchIndex;
+
+    @BeforeEach
+    void setUp(){
+        shopSearchIndex = new ShopSearchIndex(shopRepository);
+        ReflectionTestUtils.setField(shopSearchIndex, "enabled", true);
+    }
+
+    private static ShopDto.ShopSearchEntry entry(long id, String name, double star, double latitude, double longitude){
+        return ShopDto.ShopSearchEntry.builder()
+                .id(id)
+                .name(name)
+                .introduce("introduce")
+                .address("address")
+                .latitude(latitude)
+                .longitude(longitude)
+                .star(star)
+                .build();
+    }
+
+    private static Shop shop(long id, String name, double star, boolean isDeleted){
+        return Shop.builder()
+                .id(id)
+                .name(name)
+                .star(star)
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .isDeleted(isDeleted)
+                .build();
+    }
+
+    private void load(ShopDto.ShopSearchEntry... entries){
+        given(shopRepository.findAllForSearchIndex()).willReturn(List.of(entries));
+        shopSearchIndex.reload();
+    }
+
+    private static List<Long> ids(Page<ShopTopResponse> page){
+        return page.getContent().stream().map(ShopTopResponse::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("[SEARCH]이름 검색 - 검색어로 시작하는 매장만 이름순으로 반환")
+    void searchPrefix(){
+        //given
+        load(entry(1L, "가나라", 3, LATITUDE, LONGITUDE),
+                entry(2L, "가나다", 4, LATITUDE, LONGITUDE),
+                entry(3L, "마바사", 5, LATITUDE, LONGITUDE),
+                entry(4L, "가", 1, LATITUDE, LONGITUDE));
+        //when
+        Page<ShopTopResponse> asc = shopSearchIndex.search("가나", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        Page<ShopTopResponse> desc = shopSearchIndex.search("가나", LATITUDE, LONGITUDE, null, TEXT, false, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(2L, 1L), ids(asc));
+        assertEquals(List.of(1L, 2L), ids(desc));
+        assertEquals(2, asc.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("[SEARCH]이름 검색 - 대소문자, 악센트를 구분하지 않고, 이름이 같은 매장도 모두 반환")
+    void searchPrefixNormalized(){
+        //given
+        load(entry(1L, "Café Latte", 3, LATITUDE, LONGITUDE),
+                entry(2L, "cafe mocha", 4, LATITUDE, LONGITUDE),
+                entry(3L, "CAFE", 5, LATITUDE, LONGITUDE),
+                entry(4L, "CAFE", 1, LATITUDE, LONGITUDE),
+                entry(5L, "카페", 2, LATITUDE, LONGITUDE));
+        //when
+        Page<ShopTopResponse> lower = shopSearchIndex.search("cafe", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        Page<ShopTopResponse> accent = shopSearchIndex.search("CAFÉ", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        Page<ShopTopResponse> radius = shopSearchIndex.search("Cafe", LATITUDE, LONGITUDE, 1000.0, TEXT, true, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(3L, 4L, 1L, 2L), ids(lower)); //이름이 같다면 매장 번호순
+        assertEquals(List.of(3L, 4L, 1L, 2L), ids(accent));
+        assertEquals(List.of(3L, 4L, 1L, 2L), ids(radius));
+        assertEquals(4, lower.getTotalElements());
+    }
+
+    /*
+        같은 검색어를 DB 검색과 검색 인덱스에서 수행했을 때, 같은 매장들을 찾는지 확인함.
+        DB 검색은 실행할 수 없으므로, 서비스가 만드는 LIKE 패턴(SearchTextUtil.likePrefix)을
+        MySQL과 같이 대소문자와 악센트를 구분하지 않는(Collator PRIMARY) LIKE로 평가한 결과와 비교함.
+     */
+    @Test
+    @DisplayName("[SEARCH]이름 검색 - DB 검색(LIKE)과 같은 매장을 찾음")
+    void searchSameAsDatabase(){
+        //given
+        List<ShopDto.ShopSearchEntry> entries = List.of(
+                entry(1L, "50% 할인", 3, LATITUDE, LONGITUDE),
+                entry(2L, "500원 김밥", 3, LATITUDE, LONGITUDE),
+                entry(3L, "a_b", 3, LATITUDE, LONGITUDE),
+                entry(4L, "axb", 3, LATITUDE, LONGITUDE),
+                entry(5L, "Café", 3, LATITUDE, LONGITUDE),
+                entry(6L, "cafe", 3, LATITUDE, LONGITUDE),
+                entry(7L, "CAFETERIA", 3, LATITUDE, LONGITUDE),
+                entry(8L, "가나다", 3, LATITUDE, LONGITUDE),
+                entry(9L, "각", 3, LATITUDE, LONGITUDE),
+                entry(10L, "a!b", 3, LATITUDE, LONGITUDE));
+        load(entries.toArray(new ShopDto.ShopSearchEntry[0]));
+
+        for(String query : List.of("50%", "a_b", "a!", "café", "CAF", "가", "가나", "")){
+            //when
+            Page<ShopTopResponse> page = shopSearchIndex.search(query, LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 20));
+            //then
+            String pattern = SearchTextUtil.likePrefix(query);
+            List<Long> expected = entries.stream()
+                    .filter(x -> like(x.getName(), pattern))
+                    .map(ShopDto.ShopSearchEntry::getId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(expected, ids(page).stream().sorted().collect(Collectors.toList()), query);
+        }
+    }
+
+    //MySQL의 LIKE와 같이, 와일드카드(%, _)와 escape 문자를 해석하고, 문자는 collation 기준으로 비교함.
+    private static boolean like(String text, String pattern){
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        return like(collator, text, 0, pattern, 0);
+    }
+
+    private static boolean like(Collator collator, String text, int ti, String pattern, int pi){
+        if(pi == pattern.length()){
+            return ti == text.length();
+        }
+        char p = pattern.charAt(pi);
+        if(p == '%'){
+            for(int i = ti; i <= text.length(); i++){
+                if(like(collator, text, i, pattern, pi + 1)){
+                    return true;
+                }
+            }
+            return false;
+        }
+        if(ti == text.length()){
+            return false;
+        }
+        if(p == '_'){
+            return like(collator, text, ti + 1, pattern, pi + 1);
+        }
+        if(p == SearchTextUtil.LIKE_ESCAPE){
+            p = pattern.charAt(++pi);
+        }
+        return collator.compare(String.valueOf(p), String.valueOf(text.charAt(ti))) == 0 &&
+                like(collator, text, ti + 1, pattern, pi + 1);
+    }
+
+    @Test
+    @DisplayName("[SEARCH]별점순 - 페이지에 해당하는 상위 매장만 반환")
+    void searchTopNByStar(){
+        //given
+        load(entry(1L, "a", 3.0, LATITUDE, LONGITUDE),
+                entry(2L, "b", 5.0, LATITUDE, LONGITUDE),
+                entry(3L, "c", 1.0, LATITUDE, LONGITUDE),
+                entry(4L, "d", 4.0, LATITUDE, LONGITUDE),
+                entry(5L, "e", 4.0, LATITUDE, LONGITUDE));
+        //when
+        Page<ShopTopResponse> first = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, STAR, false, PageRequest.of(0, 2));
+        Page<ShopTopResponse> second = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, STAR, false, PageRequest.of(1, 2));
+        Page<ShopTopResponse> asc = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, STAR, true, PageRequest.of(0, 2));
+        //then
+        assertEquals(List.of(2L, 4L), ids(first));
+        assertEquals(List.of(5L, 1L), ids(second)); //별점이 같다면 매장 번호순
+        assertEquals(List.of(3L, 1L), ids(asc));
+        assertEquals(5, first.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("[SEARCH]거리순 - 가까운 칸부터 탐색하여 가까운 순으로 반환")
+    void searchNearest(){
+        //given
+        List<ShopDto.ShopSearchEntry> entries = new ArrayList<>();
+        for(long i = 1; i <= 30; i++){
+            //북쪽으로 약 1.1km씩 떨어진 매장들
+            entries.add(entry(i, "shop" + i, 3, LATITUDE + i * 0.01, LONGITUDE));
+        }
+        entries.add(entry(100L, "far", 3, 35.1796, 129.0756)); //부산 (탐색 범위 밖)
+        load(entries.toArray(new ShopDto.ShopSearchEntry[0]));
+        //when
+        Page<ShopTopResponse> page = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, DISTANCE, true, PageRequest.of(0, 3));
+        Page<ShopTopResponse> farthest = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, DISTANCE, false, PageRequest.of(0, 1));
+        //then
+        assertEquals(List.of(1L, 2L, 3L), ids(page));
+        assertTrue(page.getContent().get(0).getDistance() < page.getContent().get(1).getDistance());
+        assertEquals(List.of(100L), ids(farthest));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]거리순 - 멀리 흩어진 매장도 가까운 순으로 반환")
+    void searchNearestBeyondMaxRing(){
+        //given
+        load(entry(1L, "seoul", 3, LATITUDE, LONGITUDE),
+                entry(2L, "busan", 3, 35.1796, 129.0756),
+                entry(3L, "jeju", 3, 33.4996, 126.5312));
+        //when
+        Page<ShopTopResponse> page = shopSearchIndex.search("", 35.0, 129.0, null, DISTANCE, true, PageRequest.of(0, 3));
+        //then
+        assertEquals(List.of(2L, 3L, 1L), ids(page));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]반경 검색 - 반경 이내의 매장만 반환")
+    void searchWithinRadius(){
+        //given
+        //북쪽으로 약 333m, 888m, 1110m, 2220m 떨어진 매장들
+        load(entry(1L, "가게1", 3, LATITUDE + 0.003, LONGITUDE),
+                entry(2L, "가게2", 5, LATITUDE + 0.008, LONGITUDE),
+                entry(3L, "가게3", 4, LATITUDE + 0.01, LONGITUDE),
+                entry(4L, "나게4", 4, LATITUDE + 0.02, LONGITUDE));
+        //when
+        Page<ShopTopResponse> grid = shopSearchIndex.search("", LATITUDE, LONGITUDE, 1000.0, DISTANCE, true, PageRequest.of(0, 10));
+        Page<ShopTopResponse> prefix = shopSearchIndex.search("가게", LATITUDE, LONGITUDE, 1000.0, STAR, false, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(1L, 2L), ids(grid));
+        assertEquals(2, grid.getTotalElements());
+        assertTrue(grid.getContent().stream().allMatch(x -> x.getDistance() <= 1000.0));
+        assertEquals(List.of(2L, 1L), ids(prefix));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]반경 검색 - 범위의 칸 수가 매장 수보다 많다면 전체를 탐색함")
+    void searchWithinLargeRadius(){
+        //given
+        load(entry(1L, "seoul", 3, LATITUDE, LONGITUDE),
+                entry(2L, "busan", 3, 35.1796, 129.0756));
+        //when
+        Page<ShopTopResponse> near = shopSearchIndex.search("", LATITUDE, LONGITUDE, 100_000.0, TEXT, true, PageRequest.of(0, 10));
+        Page<ShopTopResponse> far = shopSearchIndex.search("", LATITUDE, LONGITUDE, 400_000.0, TEXT, true, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(1L), ids(near));
+        assertEquals(List.of(2L, 1L), ids(far));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]매장 반영 - 등록, 수정, 삭제")
+    void putAndRemove(){
+        //given
+        load(entry(1L, "가나다", 3, LATITUDE, LONGITUDE));
+        //when
+        shopSearchIndex.put(shop(2L, "가나라", 4, false));
+        shopSearchIndex.put(shop(1L, "마바사", 3, false)); //이름 변경
+        Page<ShopTopResponse> afterPut = shopSearchIndex.search("가", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        shopSearchIndex.put(shop(2L, "가나라", 4, true)); //삭제된 매장
+        shopSearchIndex.remove(1L);
+        Page<ShopTopResponse> afterRemove = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(2L), ids(afterPut));
+        assertEquals(0, afterRemove.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("[SEARCH]다시 읽어오기 - DB의 매장으로 교체")
+    void reloadReplace(){
+        //given
+        load(entry(1L, "a", 3, LATITUDE, LONGITUDE));
+        //when
+        load(entry(2L, "b", 3, LATITUDE, LONGITUDE));
+        Page<ShopTopResponse> page = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        //then
+        assertTrue(shopSearchIndex.isReady());
+        assertEquals(List.of(2L), ids(page));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]다시 읽어오기 - 읽어오는 동안 반영된 변경사항을 유지함")
+    void reloadKeepWritesDuringBuild(){
+        //given
+        load(entry(1L, "a", 3, LATITUDE, LONGITUDE), entry(2L, "b", 3, LATITUDE, LONGITUDE));
+        //DB에서 읽어온 후, 교체하기 전에 다른 요청이 매장을 등록하고 삭제함.
+        given(shopRepository.findAllForSearchIndex()).willAnswer(invocation -> {
+            shopSearchIndex.put(shop(3L, "c", 3, false));
+            shopSearchIndex.remove(2L);
+            return List.of(entry(1L, "a", 3, LATITUDE, LONGITUDE), entry(2L, "b", 3, LATITUDE, LONGITUDE));
+        });
+        //when
+        shopSearchIndex.reload();
+        Page<ShopTopResponse> page = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(1L, 3L), ids(page));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]다시 읽어오기 실패 - 기존 인덱스를 그대로 사용함")
+    void reloadFail(){
+        //given
+        load(entry(1L, "a", 3, LATITUDE, LONGITUDE));
+        given(shopRepository.findAllForSearchIndex()).willThrow(new IllegalStateException("db down"));
+        //when
+        shopSearchIndex.reload();
+        Page<ShopTopResponse> page = shopSearchIndex.search("", LATITUDE, LONGITUDE, null, TEXT, true, PageRequest.of(0, 10));
+        //then
+        assertEquals(List.of(1L), ids(page));
+    }
+
+    @Test
+    @DisplayName("[SEARCH]읽어오기 전에는 준비되지 않음")
+    void notReadyBeforeLoad(){
+        assertFalse(shopSearchIndex.isReady());
+    }
+}
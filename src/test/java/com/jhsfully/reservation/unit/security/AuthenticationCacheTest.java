@@ -0,0 +1,92 @@
+package com.jhsfully.reservation.unit.security;
+
+import com.jhsfully.reservation.security.AuthenticationCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AuthenticationCacheTest {
+
+    private static final long HOUR = 1000L * 60 * 60;
+
+    private static Authentication authentication(long memberId){
+        return new UsernamePasswordAuthenticationToken(memberId, "");
+    }
+
+    @Test
+    @DisplayName("[SECURITY]캐시 조회 - 성공")
+    void getSuccess(){
+        //given
+        AuthenticationCache cache = new AuthenticationCache(10);
+        Authentication authentication = authentication(1L);
+        cache.put("header.payload.signature", authentication, System.currentTimeMillis() + HOUR);
+        //when
+        Authentication result = cache.get("header.payload.signature");
+        //then
+        assertSame(authentication, result);
+    }
+
+    @Test
+    @DisplayName("[SECURITY]캐시 조회 - 만료된 토큰은 반환하지 않음")
+    void getExpired(){
+        //given
+        AuthenticationCache cache = new AuthenticationCache(10);
+        cache.put("header.payload.signature", authentication(1L), System.currentTimeMillis() - 1);
+        //when
+        Authentication result = cache.get("header.payload.signature");
+        //then
+        assertNull(result);
+    }
+
+    @Test
+    @DisplayName("[SECURITY]캐시 조회 - 서명이 같더라도 다른 토큰이라면 반환하지 않음")
+    void getOtherTokenWithSameSignature(){
+        //given
+        AuthenticationCache cache = new AuthenticationCache(10);
+        cache.put("header.payload.signature", authentication(1L), System.currentTimeMillis() + HOUR);
+        //when
+        Authentication result = cache.get("header.forged.signature");
+        //then
+        assertNull(result);
+    }
+
+    @Test
+    @DisplayName("[SECURITY]최대 개수 초과 - 만료된 항목부터 지움")
+    void evictExpiredFirst(){
+        //given
+        AuthenticationCache cache = new AuthenticationCache(2);
+        long now = System.currentTimeMillis();
+        cache.put("h.p.first", authentication(1L), now + HOUR);
+        cache.put("h.p.expired", authentication(2L), now - 1);
+        //when
+        cache.put("h.p.third", authentication(3L), now + HOUR);
+        //then
+        assertNotNull(cache.get("h.p.first"));
+        assertNotNull(cache.get("h.p.third"));
+    }
+
+    @Test
+    @DisplayName("[SECURITY]최대 개수 초과 - 최대 개수까지만 보관함")
+    void evictOverMaxEntries(){
+        //given
+        AuthenticationCache cache = new AuthenticationCache(3);
+        long expiredAt = System.currentTimeMillis() + HOUR;
+        //when
+        for(long i = 0; i < 10; i++){
+            cache.put("h.p.signature" + i, authentication(i), expiredAt);
+        }
+        //then
+        long cached = Stream.iterate(0L, i -> i + 1).limit(10)
+                .filter(i -> cache.get("h.p.signature" + i) != null)
+                .count();
+        assertEquals(3, cached);
+    }
+}
@@ -0,0 +1,71 @@
+package com.jhsfully.reservation.unit.security;
+
+import com.jhsfully.reservation.repository.RefreshTokenRepository;
+import com.jhsfully.reservation.security.AuthenticationCache;
+import com.jhsfully.reservation.security.TokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenProviderTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private AuthenticationCache authenticationCache;
+    private TokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp(){
+        tokenProvider = new TokenProvider(refreshTokenRepository, authenticationCache);
+        ReflectionTestUtils.setField(tokenProvider, "secretKey",
+                "test-secret-key-for-hs512-signature-which-should-be-at-least-64-bytes-long!!");
+    }
+
+    @Test
+    @DisplayName("[SECURITY]인증 객체 조회 - 캐시에 있다면 토큰을 파싱하지 않음")
+    void resolveAuthenticationCacheHit(){
+        //given
+        //서명이 올바르지 않은 토큰이므로, 파싱했다면 예외가 발생함.
+        String token = "header.payload.signature";
+        Authentication authentication = new UsernamePasswordAuthenticationToken(1L, "");
+        given(authenticationCache.get(token)).willReturn(authentication);
+        //when
+        Authentication result = tokenProvider.resolveAuthentication(token);
+        //then
+        assertSame(authentication, result);
+        verify(authenticationCache, never()).put(anyString(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("[SECURITY]인증 객체 조회 - 캐시에 없다면 파싱 후 만료시각까지 캐시함")
+    void resolveAuthenticationCacheMiss(){
+        //given
+        String token = tokenProvider.generateAccessToken(1L, true, false);
+        given(authenticationCache.get(token)).willReturn(null);
+        //when
+        Authentication result = tokenProvider.resolveAuthentication(token);
+        //then
+        assertEquals(1L, result.getPrincipal());
+        assertEquals("ROLE_PARTNER", result.getAuthorities().iterator().next().getAuthority());
+        verify(authenticationCache, times(1)).put(eq(token), eq(result), anyLong());
+    }
+}
@@ -1,5 +1,10 @@
 package com.jhsfully.reservation.unit.service;
 
+import com.jhsfully.reservation.admission.DatabaseReservationAdmission;
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.cache.PageCountCache;
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.cache.ShopScheduleCache;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Reservation;
 import com.jhsfully.reservation.domain.Review;
@@ -8,30 +13,47 @@ import com.jhsfully.reservation.exception.AuthenticationException;
 import com.jhsfully.reservation.exception.ReservationException;
 import com.jhsfully.reservation.exception.ReviewException;
 import com.jhsfully.reservation.exception.ShopException;
+import com.jhsfully.reservation.lock.LocalLockProvider;
+import com.jhsfully.reservation.lock.LockAspect;
+import com.jhsfully.reservation.lock.LockKeyResolver;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.repository.MemberRepository;
 import com.jhsfully.reservation.repository.ReservationRepository;
+import com.jhsfully.reservation.repository.ReservationSlotRepository;
 import com.jhsfully.reservation.repository.ReviewRepository;
 import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.scheduler.ReservationDeadlineQueue;
+import com.jhsfully.reservation.service.ReservationService;
 import com.jhsfully.reservation.service.impl.ReservationServiceImpl;
 import com.jhsfully.reservation.type.Days;
+import com.jhsfully.reservation.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.data.redis.core.RedisTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.jhsfully.reservation.type.AuthenticationErrorType.AUTHENTICATION_USER_NOT_FOUND;
 import static com.jhsfully.reservation.type.ReservationErrorType.*;
@@ -41,6 +63,7 @@ import static com.jhsfully.reservation.type.ShopErrorType.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -58,9 +81,60 @@ public class ReservationServiceTest {
     private ShopRepository shopRepository;
     @Mock
     private MemberRepository memberRepository;
-    @InjectMocks
+    @Mock
+    private ReservationSlotRepository reservationSlotRepository;
+    @Mock
+    private ReservedCountCache reservedCountCache;
+    @Mock
+    private ReservationDeadlineQueue reservationDeadlineQueue;
+    @Spy
+    private PageCountCache pageCountCache = new PageCountCache(10_000L);
+    @Spy
+    private ShopScheduleCache shopScheduleCache = new ShopScheduleCache();
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    private KioskReservationIndex kioskReservationIndex;
     private ReservationServiceImpl reservationService;
 
+    //자리 확보는 DB 방식(DatabaseReservationAdmission)을 그대로 사용하여, 시간대 차감까지 함께 검증함.
+    //키오스크 인덱스는 비어있는 상태로 시작하므로, 인덱스를 만들지 않은 테스트는 DB 조회 경로를 검증함.
+    @BeforeEach
+    void setUp(){
+        kioskReservationIndex = new KioskReservationIndex(reservationRepository, redisTemplate);
+        reservationService = new ReservationServiceImpl(
+                reservationRepository,
+                reviewRepository,
+                shopRepository,
+                memberRepository,
+                new DatabaseReservationAdmission(reservationRepository, reservationSlotRepository),
+                pageCountCache,
+                shopScheduleCache,
+                reservedCountCache,
+                reservationDeadlineQueue,
+                kioskReservationIndex);
+    }
+
+    //2023-07-15 12:00에 매장(1, 주인 1)을 방문할 회원(010-1111-1111)의 예약으로 키오스크 인덱스를 만듦.
+    private void buildKioskIndex(){
+        given(reservationRepository.findKioskReservationsWithDay(LocalDate.of(2023, 7, 15)))
+                .willReturn(List.of(
+                        ReservationDto.KioskReservation.builder()
+                                .id(1L)
+                                .shopId(1L)
+                                .ownerId(1L)
+                                .phone("010-1111-1111")
+                                .memberName("user")
+                                .shopName("aaa")
+                                .resDay(LocalDate.of(2023, 7, 15))
+                                .resTime(LocalTime.of(12, 0))
+                                .count(3)
+                                .reservationState(ASSIGN)
+                                .note("비고")
+                                .build()
+                ));
+        kioskReservationIndex.build(LocalDate.of(2023, 7, 15));
+    }
+
     /*
         #######################################################################
         ###########                                                 ###########
@@ -111,6 +185,8 @@ public class ReservationServiceTest {
                 .willReturn(Optional.of(
                         user
                 ));
+        given(reservationSlotRepository.claimSeats(anyLong(), any(), any(), anyInt()))
+                .willReturn(1L);
         //when
         reservationService.addReservation(1L,
                 ReservationDto.AddReservationRequest.builder()
@@ -135,6 +211,51 @@ public class ReservationServiceTest {
                 () -> assertEquals(READY, reservation.getReservationState()),
                 () -> assertEquals("비고", reservation.getNote())
         );
+
+        //처음 예약되는 시간대이므로, 이미 예약된 인원(0명)으로 시간대가 생성되고 예약 인원만큼 차감됨.
+        //(수용인원은 시간대를 생성할 때 매장 row를 다시 읽어 사용함)
+        verify(reservationSlotRepository, times(1))
+                .createSlot(1L, LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), 0);
+        verify(reservationSlotRepository, times(1))
+                .claimSeats(1L, LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), 3);
+        verify(reservedCountCache, times(1))
+                .increase(1L, LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), 3);
+    }
+
+    @Test
+    @DisplayName("[SERVICE]예약 추가 - 성공 (이미 생성된 시간대)")
+    void addReservationSuccessWithExistSlot(){
+        //given
+        Member user = Member.builder().id(3L).build();
+        given(shopRepository.findById(anyLong()))
+                .willReturn(Optional.of(
+                        Shop.builder()
+                                .id(1L)
+                                .resOpenWeek(1)
+                                .resOpenCount(3)
+                                .resOpenDays(new ArrayList<>(Arrays.asList(Days.SAT)))
+                                .resOpenTimes(new ArrayList<>(Arrays.asList(LocalTime.of(12, 0))))
+                                .build()
+                ));
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(reservationSlotRepository.existsByShopIdAndResDayAndResTime(anyLong(), any(), any()))
+                .willReturn(true);
+        given(reservationSlotRepository.claimSeats(anyLong(), any(), any(), anyInt()))
+                .willReturn(1L);
+        //when
+        reservationService.addReservation(3L,
+                ReservationDto.AddReservationRequest.builder()
+                        .shopId(1L)
+                        .resDay(LocalDate.of(2023, 7, 15))
+                        .resTime(LocalTime.of(12, 0))
+                        .count(2)
+                        .build(),
+                LocalDate.of(2023, 7, 14));
+        //then
+        verify(reservationSlotRepository, times(0)).createSlot(anyLong(), any(), any(), anyInt());
+        verify(reservationRepository, times(0)).getReservationCountWithShopAndTime(any(), any(), any());
+        verify(reservationRepository, times(1)).save(any());
     }
 
     @Test
@@ -142,30 +263,24 @@ public class ReservationServiceTest {
     void getReservationForUserSuccess(){
         //given
         Member user = Member.builder().id(3L).build();
-        Shop shop = Shop.builder().name("aaa").build();
         given(memberRepository.findById(anyLong()))
                 .willReturn(Optional.of(
                         user
                 ));
-        given(reservationRepository.findByMemberAndResDayGreaterThanEqual(any(), any(), any()))
+        given(reservationRepository.findResponsesByMember(any(), any(), any()))
                 .willReturn(
-                        new PageImpl<>(
-                                new ArrayList<>(
-                                        Arrays.asList(
-                                                Reservation.builder()
-                                                        .id(1L)
-                                                        .shop(shop)
-                                                        .member(user)
-                                                        .reservationState(READY)
-                                                        .resDay(LocalDate.of(2023, 7, 15))
-                                                        .resTime(LocalTime.of(12, 0))
-                                                        .count(3)
-                                                        .note("비고")
-                                                        .build()
-                                        )
-                                ),
-                                PageRequest.of(0, 10),
-                                1
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        ReservationDto.ReservationResponse.builder()
+                                                .id(1L)
+                                                .shopName("aaa")
+                                                .reservationState(READY)
+                                                .resDay(LocalDate.of(2023, 7, 15))
+                                                .resTime(LocalTime.of(12, 0))
+                                                .count(3)
+                                                .note("비고")
+                                                .build()
+                                )
                         )
                 );
         //when
@@ -190,7 +305,6 @@ public class ReservationServiceTest {
     void getReservationByShopSuccess(){
         //given
         Member partner = Member.builder().id(1L).build();
-        Member user = Member.builder().id(3L).build();
         Shop shop = Shop.builder().id(1L).name("aaa").member(partner).build();
         given(memberRepository.findById(anyLong()))
                 .willReturn(Optional.of(
@@ -198,25 +312,20 @@ public class ReservationServiceTest {
                 ));
         given(shopRepository.findById(anyLong()))
                 .willReturn(Optional.of(shop));
-        given(reservationRepository.findByShopAndResDayGreaterThanEqual(any(), any(), any()))
+        given(reservationRepository.findResponsesByShop(any(), any(), any()))
                 .willReturn(
-                        new PageImpl<>(
-                                new ArrayList<>(
-                                        Arrays.asList(
-                                                Reservation.builder()
-                                                        .id(1L)
-                                                        .shop(shop)
-                                                        .member(user)
-                                                        .reservationState(READY)
-                                                        .resDay(LocalDate.of(2023, 7, 15))
-                                                        .resTime(LocalTime.of(12, 0))
-                                                        .count(3)
-                                                        .note("비고")
-                                                        .build()
-                                        )
-                                ),
-                                PageRequest.of(0, 10),
-                                1
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        ReservationDto.ReservationResponse.builder()
+                                                .id(1L)
+                                                .shopName("aaa")
+                                                .reservationState(READY)
+                                                .resDay(LocalDate.of(2023, 7, 15))
+                                                .resTime(LocalTime.of(12, 0))
+                                                .count(3)
+                                                .note("비고")
+                                                .build()
+                                )
                         )
                 );
         //when
@@ -236,6 +345,49 @@ public class ReservationServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("[SERVICE]예약 조회 for 유저(커서) - 성공")
+    void getReservationForUserByCursorSuccess(){
+        //given
+        Member user = Member.builder().id(3L).build();
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Optional.of(
+                        user
+                ));
+
+        //한 페이지(10개)보다 1개 더 조회되었으므로, 다음 페이지가 존재함.
+        List<ReservationDto.ReservationResponse> rows = new ArrayList<>();
+        for(long id = 6; id <= 16; id++){
+            rows.add(ReservationDto.ReservationResponse.builder()
+                    .id(id)
+                    .shopName("aaa")
+                    .reservationState(READY)
+                    .resDay(LocalDate.of(2023, 7, 15))
+                    .resTime(LocalTime.of(12, 0))
+                    .count(1)
+                    .build());
+        }
+        given(reservationRepository.findByMemberAfterCursor(any(), any(), any(), anyLong(), anyInt()))
+                .willReturn(rows);
+
+        //when
+        CursorResponse<ReservationDto.ReservationResponse> response = reservationService
+                .getReservationForUserByCursor(3L,
+                        LocalDate.of(2023, 7, 1),
+                        CursorUtil.encode(LocalDate.of(2023, 7, 15), 5L));
+
+        //then
+        verify(reservationRepository, times(1)).findByMemberAfterCursor(
+                user, LocalDate.of(2023, 7, 1), LocalDate.of(2023, 7, 15), 5L, 11);
+        assertAll(
+                () -> assertEquals(10, response.getContent().size()),
+                () -> assertEquals(6L, response.getContent().get(0).getId()),
+                () -> assertEquals("aaa", response.getContent().get(0).getShopName()),
+                () -> assertTrue(response.isHasNext()),
+                () -> assertEquals(CursorUtil.encode(LocalDate.of(2023, 7, 15), 15L), response.getNextCursor())
+        );
+    }
+
     @Test
     @DisplayName("[SERVICE]예약 삭제(Hard Delete) - 성공")
     void deleteReservationHardSuccess(){
@@ -265,6 +417,10 @@ public class ReservationServiceTest {
         reservationService.deleteReservation(3L, 1L);
         //then
         verify(reservationRepository, times(1)).delete(any());
+        verify(reservationSlotRepository, times(1))
+                .releaseSeats(shop.getId(), LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), 3);
+        verify(reservedCountCache, times(1))
+                .increase(shop.getId(), LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), -3);
     }
 
     @Test
@@ -298,6 +454,8 @@ public class ReservationServiceTest {
         //then
         verify(reservationRepository, times(1)).save(captor.capture());
         assertEquals(EXPIRED, captor.getValue().getReservationState());
+        verify(reservationSlotRepository, times(1))
+                .releaseSeats(shop.getId(), LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), 3);
     }
 
     @Test
@@ -311,6 +469,7 @@ public class ReservationServiceTest {
                             Reservation.builder()
                                     .id(1L)
                                     .shop(shop)
+                                    .member(Member.builder().id(3L).build())
                                     .resDay(LocalDate.of(2023,7,15))
                                     .resTime(LocalTime.of(12, 0))
                                     .reservationState(READY)
@@ -328,6 +487,8 @@ public class ReservationServiceTest {
         ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
         verify(reservationRepository, times(1)).save(captor.capture());
         assertEquals(REJECT, captor.getValue().getReservationState());
+        verify(reservationSlotRepository, times(1))
+                .releaseSeats(1L, LocalDate.of(2023, 7, 15), LocalTime.of(12, 0), 0);
 
     }
 
@@ -359,6 +520,8 @@ public class ReservationServiceTest {
         ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
         verify(reservationRepository, times(1)).save(captor.capture());
         assertEquals(ASSIGN, captor.getValue().getReservationState());
+        verify(reservationDeadlineQueue, times(1))
+                .schedule(1L, ASSIGN, LocalDateTime.of(2023, 7, 15, 12, 0));
     }
 
     @Test
@@ -419,6 +582,30 @@ public class ReservationServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("[SERVICE]예약 조회 for 방문 - 키오스크 인덱스에서 조회 성공")
+    void getReservationForVisitFromKioskIndexSuccess(){
+        //given
+        buildKioskIndex();
+        //when
+        ReservationDto.ReservationResponse response = reservationService.getReservationForVisit(1L,
+                1L,
+                new ReservationDto.GetReservationParam("010-1111-1111"),
+                LocalDate.of(2023, 7, 15),
+                LocalTime.of(11, 55));
+        //then
+        assertAll(
+                () -> assertEquals(1, response.getReservationCount()),
+                () -> assertEquals(1L, response.getId()),
+                () -> assertEquals("user", response.getMemberName()),
+                () -> assertEquals("aaa", response.getShopName()),
+                () -> assertEquals(LocalTime.of(12, 0), response.getResTime()),
+                () -> assertEquals(ASSIGN, response.getReservationState())
+        );
+        verify(shopRepository, never()).findById(anyLong());
+        verify(memberRepository, never()).findByPhone(anyString());
+    }
+
     @Test
     @DisplayName("[SERVICE]예약 방문 - 성공")
     void visitReservationSuccess(){
@@ -461,6 +648,23 @@ public class ReservationServiceTest {
         assertEquals(VISITED, captor.getValue().getReservationState());
     }
 
+    @Test
+    @DisplayName("[SERVICE]예약 방문 - 키오스크 인덱스에서 검증 성공")
+    void visitReservationFromKioskIndexSuccess(){
+        //given
+        buildKioskIndex();
+        given(reservationRepository.updateReservationStateToVisited(1L))
+                .willReturn(1L);
+        //when
+        reservationService.visitReservation(1L,
+                1L,
+                LocalDate.of(2023, 7, 15),
+                LocalTime.of(11, 55));
+        //then
+        verify(reservationRepository, never()).findById(anyLong());
+        assertEquals(VISITED, kioskReservationIndex.get(1L, LocalDate.of(2023, 7, 15)).getReservationState());
+    }
+
     @Test
     @DisplayName("[SERVICE]예약에 리뷰 할당 - 성공")
     void setReviewSuccess(){
@@ -512,6 +716,92 @@ public class ReservationServiceTest {
         #######################################################################
      */
 
+    @Nested
+    @DisplayName("[SERVICE]예약 추가 동시성 케이스들")
+    class addReservationConcurrencyCases{
+
+        /*
+            같은 회원이 같은 매장, 같은 날의 서로 다른 시간대에 동시에 예약을 요청하는 상황.
+            회원의 같은 날 예약 수를 조회한 후 저장하기까지의 구간을 늘려서, lock이 없다면 두 요청 모두 통과하도록 함.
+            LockAspect(local lock)를 적용한 proxy로 호출하여, 하나의 요청만 예약되는지 확인함.
+         */
+        @Test
+        @DisplayName("[SERVICE]같은 회원의 같은 날 동시 예약 - 하나만 성공")
+        void greedyUserWithConcurrentRequests() throws Exception {
+            //given
+            Member user = Member.builder().id(3L).build();
+            given(shopRepository.findById(anyLong()))
+                    .willReturn(Optional.of(
+                            Shop.builder()
+                                    .id(1L)
+                                    .member(Member.builder().id(1L).build())
+                                    .resOpenWeek(1)
+                                    .resOpenCount(3)
+                                    .resOpenDays(new ArrayList<>(Arrays.asList(Days.values())))
+                                    .resOpenTimes(new ArrayList<>(Arrays.asList(LocalTime.of(10, 0), LocalTime.of(12, 0))))
+                                    .build()
+                    ));
+            given(memberRepository.findById(3L))
+                    .willReturn(Optional.of(
+                            user
+                    ));
+            given(reservationSlotRepository.claimSeats(anyLong(), any(), any(), anyInt()))
+                    .willReturn(1L);
+
+            AtomicInteger saved = new AtomicInteger();
+            given(reservationRepository.getReservationCountWithShopAndDayForMember(any(), any(), any()))
+                    .willAnswer(invocation -> {
+                        int count = saved.get();
+                        Thread.sleep(200);
+                        return count;
+                    });
+            given(reservationRepository.save(any()))
+                    .willAnswer(invocation -> {
+                        saved.incrementAndGet();
+                        return invocation.getArgument(0);
+                    });
+
+            LockAspect lockAspect = new LockAspect(new LockKeyResolver(new DefaultParameterNameDiscoverer()), new LocalLockProvider());
+            lockAspect.setEmbeddedValueResolver(value -> "true"); //reservation.admission = database
+            AspectJProxyFactory proxyFactory = new AspectJProxyFactory(reservationService);
+            proxyFactory.addAspect(lockAspect);
+            ReservationService lockedService = proxyFactory.getProxy();
+
+            //when
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            List<Future<?>> results = new ArrayList<>();
+            for(LocalTime resTime : Arrays.asList(LocalTime.of(10, 0), LocalTime.of(12, 0))){
+                results.add(executor.submit(() -> lockedService.addReservation(3L,
+                        ReservationDto.AddReservationRequest.builder()
+                                .shopId(1L)
+                                .resDay(LocalDate.of(2023, 7, 15))
+                                .resTime(resTime)
+                                .count(1)
+                                .build(),
+                        LocalDate.of(2023, 7, 14))));
+            }
+
+            int succeeded = 0;
+            List<Throwable> failures = new ArrayList<>();
+            for(Future<?> result : results){
+                try{
+                    result.get(5, TimeUnit.SECONDS);
+                    succeeded++;
+                }catch (ExecutionException e){
+                    failures.add(e.getCause());
+                }
+            }
+            executor.shutdownNow();
+
+            //then
+            assertEquals(1, succeeded);
+            assertEquals(1, failures.size());
+            assertEquals(RESERVATION_CANNOT_ALLOW_GREEDY_USER,
+                    ((ReservationException) failures.get(0)).getReservationErrorType());
+            verify(reservationRepository, times(1)).save(any());
+        }
+    }
+
     @Nested
     @DisplayName("[SERVICE]예약 추가 실패 케이스들")
     class addReservationFailCases{
@@ -860,6 +1150,21 @@ public class ReservationServiceTest {
         assertEquals(AUTHENTICATION_USER_NOT_FOUND, exception.getAuthenticationErrorType());
     }
 
+    @Test
+    @DisplayName("[SERVICE]예약 조회 for 유저(커서) - 실패(올바르지 않은 커서)")
+    void getReservationForUserByCursorFailInvalidCursor(){
+        //given
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Optional.of(Member.builder().id(3L).build()));
+        //when
+        ReservationException exception = assertThrows(ReservationException.class,
+                () -> reservationService.getReservationForUserByCursor(3L,
+                        LocalDate.now(),
+                        CursorUtil.encode("not-a-date", 5L)));
+        //then
+        assertEquals(RESERVATION_INVALID_CURSOR, exception.getReservationErrorType());
+    }
+
     @Nested
     @DisplayName("[SERVICE]예약 조회 By 매장 실패 케이스들")
     class getReservationByShopFailCases{
@@ -1611,6 +1916,23 @@ public class ReservationServiceTest {
             //then
             assertEquals(RESERVATION_CANNOT_VISIT_TIME_OVER, exception.getReservationErrorType());
         }
+
+        @Test
+        @DisplayName("[SERVICE]키오스크 인덱스의 매장 주인과 멤버 매칭 X")
+        void shopNotMatchUserFromKioskIndex(){
+            //given
+            buildKioskIndex();
+            //when
+            ShopException exception = assertThrows(ShopException.class,
+                    () -> reservationService.getReservationForVisit(
+                            2L, 1L,
+                            new ReservationDto.GetReservationParam("010-1111-1111"),
+                            LocalDate.of(2023, 7, 15),
+                            LocalTime.of(11, 55)
+                    ));
+            //then
+            assertEquals(SHOP_NOT_MATCH_USER, exception.getShopErrorType());
+        }
     }
 
     @Nested
@@ -1787,6 +2109,24 @@ public class ReservationServiceTest {
             //then
             assertEquals(RESERVATION_CANNOT_VISIT_TIME_OVER, exception.getReservationErrorType());
         }
+
+        @Test
+        @DisplayName("[SERVICE]키오스크 인덱스의 예약이 이미 다른 서버에서 변경되었거나, 매장이 삭제됨")
+        void reservationAlreadyChangedFromKioskIndex(){
+            //given
+            buildKioskIndex();
+            given(reservationRepository.updateReservationStateToVisited(1L))
+                    .willReturn(0L);
+            //when
+            ReservationException exception = assertThrows(ReservationException.class,
+                    () -> reservationService.visitReservation(1L, 1L,
+                            LocalDate.of(2023, 7, 15),
+                            LocalTime.of(11, 55)
+                    ));
+            //then
+            assertEquals(RESERVATION_CANNOT_VISIT_NOT_ASSIGN, exception.getReservationErrorType());
+            assertNull(kioskReservationIndex.get(1L, LocalDate.of(2023, 7, 15)));
+        }
     }
 
     @Nested
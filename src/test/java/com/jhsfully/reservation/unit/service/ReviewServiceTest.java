@@ -1,5 +1,6 @@
 package com.jhsfully.reservation.unit.service;
 
+import com.jhsfully.reservation.cache.PageCountCache;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Reservation;
 import com.jhsfully.reservation.domain.Review;
@@ -8,6 +9,7 @@ import com.jhsfully.reservation.exception.AuthenticationException;
 import com.jhsfully.reservation.exception.ReservationException;
 import com.jhsfully.reservation.exception.ReviewException;
 import com.jhsfully.reservation.exception.ShopException;
+import com.jhsfully.reservation.model.CursorResponse;
 import com.jhsfully.reservation.model.ReservationDto;
 import com.jhsfully.reservation.model.ReviewDto;
 import com.jhsfully.reservation.repository.MemberRepository;
@@ -23,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -43,6 +46,7 @@ import static com.jhsfully.reservation.type.ReservationState.VISITED;
 import static com.jhsfully.reservation.type.ReviewErrorType.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
@@ -62,6 +66,9 @@ public class ReviewServiceTest {
     private ReservationRepository reservationRepository;
     @Mock
     private ShopRepository shopRepository;
+    @Spy
+    private PageCountCache pageCountCache = new PageCountCache(10_000L);
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -86,13 +93,11 @@ public class ReviewServiceTest {
                 .willReturn(new PageImpl<>(
                         new ArrayList<>(
                                 Arrays.asList(
-                                        Reservation.builder()
-                                                .id(1L)
-                                                .shop(Shop.builder().name("aaa").build())
-                                                .count(3)
-                                                .resDay(LocalDate.of(2023, 7, 15))
-                                                .resTime(LocalTime.of(9, 0))
-                                                .note("note")
+                                        ReservationDto.ResponseForReview.builder()
+                                                .reservationId(1L)
+                                                .shopName("aaa")
+                                                .visitDay(LocalDate.of(2023, 7, 15))
+                                                .visitTime(LocalTime.of(9, 0))
                                                 .build()
                                 )
                         ),
@@ -279,23 +284,19 @@ public class ReviewServiceTest {
                 .willReturn(Optional.of(
                         user
                 ));
-        given(reviewRepository.findByMember(any(), any()))
+        given(reviewRepository.findResponsesByMember(any(), any()))
                 .willReturn(
-                        new PageImpl<>(
-                                new ArrayList<>(
-                                        Arrays.asList(
-                                                Review.builder()
-                                                        .id(1L)
-                                                        .member(user)
-                                                        .star(5)
-                                                        .content("content")
-                                                        .createdAt(LocalDateTime.of(2023, 7, 15, 9, 0))
-                                                        .updatedAt(LocalDateTime.of(2023, 7, 15, 9, 1))
-                                                        .build()
-                                        )
-                                ),
-                                PageRequest.of(0, 10),
-                                1
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        ReviewDto.ReviewResponse.builder()
+                                                .id(1L)
+                                                .memberName("aaa")
+                                                .star(5)
+                                                .content("content")
+                                                .createdAt(LocalDateTime.of(2023, 7, 15, 9, 0))
+                                                .updatedAt(LocalDateTime.of(2023, 7, 15, 9, 1))
+                                                .build()
+                                )
                         )
                 );
         //when
@@ -319,29 +320,24 @@ public class ReviewServiceTest {
     @DisplayName("[SERVICE]리뷰 목록 조회 for 매장 - 성공")
     void getReviewsForShopSuccess(){
         //given
-        Member user = Member.builder().id(3L).name("aaa").build();
         Shop shop = Shop.builder().build();
         given(shopRepository.findById(anyLong()))
                 .willReturn(Optional.of(
                         shop
                 ));
-        given(reviewRepository.findByShop(any(), any()))
+        given(reviewRepository.findResponsesByShop(any(), any()))
                 .willReturn(
-                        new PageImpl<>(
-                                new ArrayList<>(
-                                        Arrays.asList(
-                                                Review.builder()
-                                                        .id(1L)
-                                                        .member(user)
-                                                        .star(5)
-                                                        .content("content")
-                                                        .createdAt(LocalDateTime.of(2023, 7, 15, 9, 0))
-                                                        .updatedAt(LocalDateTime.of(2023, 7, 15, 9, 1))
-                                                        .build()
-                                        )
-                                ),
-                                PageRequest.of(0, 10),
-                                1
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        ReviewDto.ReviewResponse.builder()
+                                                .id(1L)
+                                                .memberName("aaa")
+                                                .star(5)
+                                                .content("content")
+                                                .createdAt(LocalDateTime.of(2023, 7, 15, 9, 0))
+                                                .updatedAt(LocalDateTime.of(2023, 7, 15, 9, 1))
+                                                .build()
+                                )
                         )
                 );
         //when
@@ -360,6 +356,73 @@ public class ReviewServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("[SERVICE]리뷰 목록 조회 for 매장 - 전체 개수는 캐시된 값을 재사용")
+    void getReviewsForShopSuccessWithCachedCount(){
+        //given
+        Shop shop = Shop.builder().id(1L).build();
+        List<ReviewDto.ReviewResponse> fullPage = new ArrayList<>();
+        for(long id = 20; id > 10; id--){
+            fullPage.add(ReviewDto.ReviewResponse.builder().id(id).memberName("aaa").star(5).build());
+        }
+        given(shopRepository.findById(anyLong()))
+                .willReturn(Optional.of(shop));
+        given(reviewRepository.findResponsesByShop(any(), any()))
+                .willReturn(fullPage);
+        given(reviewRepository.countByShop(any()))
+                .willReturn(25L);
+        //when
+        List<ReviewDto.ReviewResponse> first = reviewService.getReviewsForShop(1L, 1);
+        List<ReviewDto.ReviewResponse> second = reviewService.getReviewsForShop(1L, 1);
+
+        //then
+        assertAll(
+                () -> assertEquals(10, first.size()),
+                () -> assertEquals(25, first.get(0).getReviewCount()),
+                () -> assertEquals(25, second.get(0).getReviewCount())
+        );
+        verify(reviewRepository, times(1)).countByShop(shop);
+    }
+
+    @Test
+    @DisplayName("[SERVICE]리뷰 목록 조회 for 매장(커서) - 성공")
+    void getReviewsForShopByCursorSuccess(){
+        //given
+        Shop shop = Shop.builder().build();
+        given(shopRepository.findById(anyLong()))
+                .willReturn(Optional.of(
+                        shop
+                ));
+        given(reviewRepository.findByShopBeforeCursor(any(), anyLong(), anyInt()))
+                .willReturn(
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        ReviewDto.ReviewResponse.builder()
+                                                .id(1L)
+                                                .memberName("aaa")
+                                                .star(5)
+                                                .content("content")
+                                                .build()
+                                )
+                        )
+                );
+        //when
+        CursorResponse<ReviewDto.ReviewResponse> response =
+                reviewService.getReviewsForShopByCursor(1L, null);
+
+        //then
+        //첫 페이지는 모든 id보다 큰 값을 커서로 사용하며, 한 페이지보다 1개 더 조회함.
+        verify(reviewRepository, times(1)).findByShopBeforeCursor(
+                shop, Long.MAX_VALUE, 11);
+        assertAll(
+                () -> assertEquals(1, response.getContent().size()),
+                () -> assertEquals(1L, response.getContent().get(0).getId()),
+                () -> assertEquals("aaa", response.getContent().get(0).getMemberName()),
+                () -> assertFalse(response.isHasNext()),
+                () -> assertNull(response.getNextCursor())
+        );
+    }
+
 
     /*
         #######################################################################
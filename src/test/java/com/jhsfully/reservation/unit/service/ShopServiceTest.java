@@ -14,9 +14,15 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.jhsfully.reservation.admission.ReservationAdmission;
+import com.jhsfully.reservation.cache.KioskReservationIndex;
+import com.jhsfully.reservation.cache.PageCountCache;
+import com.jhsfully.reservation.cache.ReservedCountCache;
+import com.jhsfully.reservation.cache.ShopScheduleCache;
 import com.jhsfully.reservation.domain.Member;
 import com.jhsfully.reservation.domain.Shop;
 import com.jhsfully.reservation.exception.AuthenticationException;
@@ -24,8 +30,8 @@ import com.jhsfully.reservation.exception.ShopException;
 import com.jhsfully.reservation.model.ShopDto;
 import com.jhsfully.reservation.model.ShopTopResponse;
 import com.jhsfully.reservation.repository.MemberRepository;
-import com.jhsfully.reservation.repository.ReservationRepository;
 import com.jhsfully.reservation.repository.ShopRepository;
+import com.jhsfully.reservation.search.ShopSearchIndex;
 import com.jhsfully.reservation.service.impl.ShopServiceImpl;
 import com.jhsfully.reservation.type.Days;
 import com.jhsfully.reservation.type.SortingType;
@@ -35,6 +41,7 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -43,6 +50,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -61,7 +69,17 @@ class ShopServiceTest {
     @Mock
     private MemberRepository memberRepository;
     @Mock
-    private ReservationRepository reservationRepository;
+    private ReservationAdmission reservationAdmission;
+    @Mock
+    private ShopSearchIndex shopSearchIndex;
+    @Mock
+    private ReservedCountCache reservedCountCache;
+    @Mock
+    private KioskReservationIndex kioskReservationIndex;
+    @Spy
+    private PageCountCache pageCountCache = new PageCountCache(10_000L);
+    @Spy
+    private ShopScheduleCache shopScheduleCache = new ShopScheduleCache();
     @InjectMocks
     private ShopServiceImpl shopService;
 
@@ -129,7 +147,7 @@ class ShopServiceTest {
                 .willReturn(Optional.of(
                         member
                 ));
-        given(shopRepository.findById(anyLong()))
+        given(shopRepository.findByIdForUpdate(anyLong()))
                 .willReturn(
                         Optional.of(
                                 Shop.builder()
@@ -167,6 +185,10 @@ class ShopServiceTest {
                 () -> assertEquals(Arrays.asList(Days.MON, Days.TUE, Days.WED), shop.getResOpenDays()),
                 () -> assertEquals(Arrays.asList(LocalTime.of(9, 0), LocalTime.of(10, 30)), shop.getResOpenTimes())
         );
+        //수용인원이 0 -> 2로 변경되었으므로, 생성된 시간대에도 반영됨.
+        verify(reservationAdmission, times(1)).adjustCapacity(1L, 2);
+        verify(shopScheduleCache, times(1)).invalidate(1L);
+        verify(kioskReservationIndex, times(1)).evictShop(1L);
     }
 
     @Test
@@ -192,6 +214,9 @@ class ShopServiceTest {
 
         //then
         verify(shopRepository, times(1)).delete(any());
+        verify(shopSearchIndex, times(1)).remove(1L);
+        verify(shopScheduleCache, times(1)).invalidate(1L);
+        verify(kioskReservationIndex, times(1)).evictShop(1L);
     }
 
     @Test
@@ -230,7 +255,7 @@ class ShopServiceTest {
     void searchShopsSuccess(){
 
         //given
-        given(shopRepository.findByNameAndOrdering(anyString(), anyDouble(), anyDouble(), any(), anyBoolean(), any()))
+        given(shopRepository.findByNameAndOrdering(anyString(), anyDouble(), anyDouble(), any(), any(), anyBoolean(), any()))
                 .willReturn(
                         new PageImpl<>(
                                 List.of(
@@ -249,13 +274,15 @@ class ShopServiceTest {
         //when
         Page<ShopTopResponse> results = shopService.searchShops(ShopDto.SearchShopParam.builder()
                 .isAscending(true)
-                .searchValue("")
+                .searchValue("50%")
                 .latitude(38.0)
                 .longitude(127.0)
                 .sortingType(SortingType.DISTANCE)
                 .build(), 0);
 
         //then
+        //검색어의 %는 escape하여 문자 그대로 찾음.
+        verify(shopRepository, times(1)).findByNameAndOrdering("50!%%", 38.0, 127.0, null, SortingType.DISTANCE, true, PageRequest.of(0, 10));
         assertAll(
                 () -> assertEquals(1, results.getContent().size()),
                 () -> assertEquals(1L, results.getContent().get(0).getId()),
@@ -267,6 +294,45 @@ class ShopServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("[SERVICE]매장 검색 성공 - 검색 인덱스 사용")
+    void searchShopsSuccessWithIndex(){
+
+        //given
+        given(shopSearchIndex.isReady()).willReturn(true);
+        given(shopSearchIndex.search(anyString(), anyDouble(), anyDouble(), any(), any(), anyBoolean(), any()))
+                .willReturn(
+                        new PageImpl<>(
+                                List.of(
+                                        ShopTopResponse.builder()
+                                                .id(1L)
+                                                .name("name")
+                                                .distance(2000)
+                                                .build()
+                                )
+                        )
+                );
+
+        //when
+        Page<ShopTopResponse> results = shopService.searchShops(ShopDto.SearchShopParam.builder()
+                .isAscending(true)
+                .searchValue("na")
+                .latitude(38.0)
+                .longitude(127.0)
+                .radiusMeters(500.0)
+                .sortingType(SortingType.DISTANCE)
+                .build(), 0);
+
+        //then
+        verify(shopSearchIndex, times(1)).search("na", 38.0, 127.0, 500.0, SortingType.DISTANCE, true, PageRequest.of(0, 10));
+        verify(shopRepository, times(0)).findByNameAndOrdering(anyString(), anyDouble(), anyDouble(), any(), any(), anyBoolean(), any());
+        assertAll(
+                () -> assertEquals(1, results.getContent().size()),
+                () -> assertEquals(1L, results.getContent().get(0).getId()),
+                () -> assertEquals(2000, results.getContent().get(0).getDistance())
+        );
+    }
+
     @Test
     @DisplayName("[SERVICE]매장 조회 for 파트너 - 성공")
     void getShopsByPartnerSuccess(){
@@ -276,7 +342,7 @@ class ShopServiceTest {
                         Member.builder().build()
                 ));
         given(shopRepository.findByMemberAndIsDeletedFalse(any(), any()))
-                .willReturn(new PageImpl<>(new ArrayList<>(Arrays.asList(
+                .willReturn(new ArrayList<>(Arrays.asList(
                         Shop.builder()
                                 .id(2L)
                                 .name("미용실")
@@ -284,7 +350,7 @@ class ShopServiceTest {
                                 .address("서울")
                                 .star(0)
                                 .build()
-                )), PageRequest.of(0, 10), 1));
+                )));
         //when
         Page<ShopTopResponse> shops = shopService.getShopsByPartner(2L, 0);
 
@@ -404,99 +470,58 @@ class ShopServiceTest {
 
     }
 
-    @Nested
-    @DisplayName("[SERVICE]별점 조작 테스트")
-    class StarControlTest{
-        @Test
-        @DisplayName("[SERVICE]매장 별점 추가 성공")
-        void addShopStarSuccess(){
-            //given
-            given(shopRepository.findById(anyLong()))
-                    .willReturn(
-                            Optional.of(
-                                    Shop.builder()
-                                            .id(1L)
-                                            .star(0)
-                                            .starSum(0)
-                                            .reviewCount(0)
-                                            .build()
-                            )
-                    );
-
-            //when
-            shopService.addShopStar(1L, 5);
-            shopService.addShopStar(1L, 3);
-            //then
-            ArgumentCaptor<Shop> captor = ArgumentCaptor.forClass(Shop.class);
-            verify(shopRepository, times(2)).save(captor.capture());
-            Shop shop = captor.getValue();
-
-            assertAll(
-                    () -> assertEquals(4, shop.getStar()),
-                    () -> assertEquals(2, shop.getReviewCount()),
-                    () -> assertEquals(8, shop.getStarSum())
-            );
-        }
-
-        @Test
-        @DisplayName("[SERVICE]매장 별점 차감 성공")
-        void subShopStarSuccess(){
-            //given
-            given(shopRepository.findById(anyLong()))
-                    .willReturn(
-                            Optional.of(
-                                    Shop.builder()
-                                            .id(1L)
-                                            .star(5)
-                                            .starSum(10)
-                                            .reviewCount(2)
-                                            .build()
-                            )
-                    );
-            //when
-            shopService.subShopStar(1L, 5);
-
-            //then
-            ArgumentCaptor<Shop> captor = ArgumentCaptor.forClass(Shop.class);
-            verify(shopRepository, times(1)).save(captor.capture());
-            Shop shop = captor.getValue();
-
-            assertAll(
-                    () -> assertEquals(5, shop.getStar()),
-                    () -> assertEquals(1, shop.getReviewCount()),
-                    () -> assertEquals(5, shop.getStarSum())
-            );
-        }
+    @Test
+    @Transactional
+    @DisplayName("[SERVICE]매장 상세 조회 for 유저 - 성공 (예약 인원 차감)")
+    void getShopDetailForUserSuccessWithReservedCount(){
+        //given
+        Shop shop = Shop.builder()
+                .id(2L)
+                .name("미용실")
+                .resOpenWeek(1)
+                .resOpenCount(3)
+                .resOpenTimes(
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        LocalTime.of(9,0),
+                                        LocalTime.of(10,0)
+                                )
+                        )
+                )
+                .resOpenDays(
+                        new ArrayList<>(
+                                Arrays.asList(
+                                        Days.WED, Days.THU
+                                )
+                        )
+                )
+                .build();
+        given(shopRepository.findById(anyLong()))
+                .willReturn(Optional.of(shop));
+        given(reservedCountCache.getReservedCounts(any(), any(), any()))
+                .willReturn(
+                        Map.of(
+                                LocalDate.of(2023, 7, 26), Map.of(LocalTime.of(9, 0), 2),
+                                LocalDate.of(2023, 7, 27), Map.of(LocalTime.of(10, 0), 3)
+                        )
+                );
 
-        @Test
-        @DisplayName("[SERVICE]매장 별점 수정 성공")
-        void updateShopStarSuccess(){
-            //given
-            given(shopRepository.findById(anyLong()))
-                    .willReturn(
-                            Optional.of(
-                                    Shop.builder()
-                                            .id(1L)
-                                            .star(5)
-                                            .starSum(10)
-                                            .reviewCount(2)
-                                            .build()
-                            )
-                    );
-            //when
-            shopService.updateShopStar(1L, 5, 2);
-            //then
-            ArgumentCaptor<Shop> captor = ArgumentCaptor.forClass(Shop.class);
-            verify(shopRepository, times(1)).save(captor.capture());
-            Shop shop = captor.getValue();
-
-            assertAll(
-                    () -> assertEquals(3.5, shop.getStar()),
-                    () -> assertEquals(2, shop.getReviewCount()),
-                    () -> assertEquals(7, shop.getStarSum())
-            );
-        }
+        //when
+        ShopDto.ShopDetailUserResponse shopDetail = shopService
+                .getShopDetailForUser(2L, LocalDate.of(2023, 7, 25));
 
+        //then
+        verify(reservedCountCache, times(1))
+                .getReservedCounts(shop, LocalDate.of(2023, 7, 26), LocalDate.of(2023, 8, 1));
+        assertAll(
+                () -> assertEquals(2, shopDetail.getResOpenDateTimes().size()),
+                () -> assertEquals(LocalDate.of(2023, 7, 26), shopDetail.getResOpenDateTimes().get(0).getDate()),
+                () -> assertEquals(1, shopDetail.getResOpenDateTimes().get(0).getReservationTimeSets().get(0).getCount()),
+                () -> assertEquals(3, shopDetail.getResOpenDateTimes().get(0).getReservationTimeSets().get(1).getCount()),
+                () -> assertEquals(LocalDate.of(2023, 7, 27), shopDetail.getResOpenDateTimes().get(1).getDate()),
+                () -> assertEquals(3, shopDetail.getResOpenDateTimes().get(1).getReservationTimeSets().get(0).getCount()),
+                () -> assertEquals(0, shopDetail.getResOpenDateTimes().get(1).getReservationTimeSets().get(1).getCount())
+        );
     }
 
     /*
@@ -554,7 +579,7 @@ class ShopServiceTest {
                                     .id(1L)
                                     .build()
                     ));
-            given(shopRepository.findById(anyLong()))
+            given(shopRepository.findByIdForUpdate(anyLong()))
                     .willReturn(Optional.empty());
             //when
             ShopException exception = assertThrows(ShopException.class,
@@ -574,7 +599,7 @@ class ShopServiceTest {
                                     .id(1L)
                                     .build()
                     ));
-            given(shopRepository.findById(anyLong()))
+            given(shopRepository.findByIdForUpdate(anyLong()))
                     .willReturn(Optional.of(
                             Shop.builder().isDeleted(true).build()
                     ));
@@ -596,7 +621,7 @@ class ShopServiceTest {
                                     .id(1L)
                                     .build()
                     ));
-            given(shopRepository.findById(anyLong()))
+            given(shopRepository.findByIdForUpdate(anyLong()))
                     .willReturn(Optional.of(
                             Shop.builder().member(Member.builder().id(2L).build()).build()
                     ));
@@ -607,6 +632,31 @@ class ShopServiceTest {
             //then
             assertEquals(SHOP_NOT_MATCH_USER, exception.getShopErrorType());
         }
+
+        @Test
+        @DisplayName("[SERVICE]매장 수정 - 실패 (시간대의 수용인원 반영 실패 => 매장 수정도 롤백)")
+        void updateShopFailAdjustCapacity(){
+            //given
+            Member member = Member.builder().id(1L).build();
+            given(memberRepository.findById(anyLong()))
+                    .willReturn(Optional.of(member));
+            given(shopRepository.findByIdForUpdate(anyLong()))
+                    .willReturn(Optional.of(
+                            Shop.builder().id(1L).member(member).resOpenCount(3).build()
+                    ));
+            doThrow(new RuntimeException("adjust failed"))
+                    .when(reservationAdmission).adjustCapacity(1L, 2);
+            //when
+            assertThrows(RuntimeException.class,
+                    () -> shopService.updateShop(1L, 1L, ShopDto.AddShopRequest.builder()
+                            .resOpenCount(5)
+                            .build()));
+            //then
+            //트랜잭션이 롤백되므로, 메모리의 인덱스와 캐시는 변경하지 않음.
+            verify(shopSearchIndex, never()).put(any());
+            verify(shopScheduleCache, never()).invalidate(anyLong());
+            verify(kioskReservationIndex, never()).evictShop(anyLong());
+        }
     }
 
     //############################  deleteShop()  ################################
@@ -799,46 +849,4 @@ class ShopServiceTest {
             assertEquals(SHOP_IS_DELETED, exception.getShopErrorType());
         }
     }
-
-    //############################  ~ShopStar()  ################################
-    @Nested
-    @DisplayName("[SERVICE]별점 조작 실패 케이스들")
-    class ControlShopStarFailCases{
-        @Test
-        @DisplayName("[SERVICE] 매장 별점 추가 - 실패(매장 X)")
-        void addShopStarFailShopNotFound(){
-            //given
-            given(shopRepository.findById(anyLong()))
-                    .willReturn(Optional.empty());
-            //when
-            ShopException exception = assertThrows(ShopException.class,
-                    () -> shopService.addShopStar(999L, 5));
-            //then
-            assertEquals(SHOP_NOT_FOUND, exception.getShopErrorType());
-        }
-        @Test
-        @DisplayName("[SERVICE] 매장 별점 차감 - 실패(매장 X)")
-        void subShopStarFailShopNotFound(){
-            //given
-            given(shopRepository.findById(anyLong()))
-                    .willReturn(Optional.empty());
-            //when
-            ShopException exception = assertThrows(ShopException.class,
-                    () -> shopService.subShopStar(999L, 5));
-            //then
-            assertEquals(SHOP_NOT_FOUND, exception.getShopErrorType());
-        }
-        @Test
-        @DisplayName("[SERVICE] 매장 별점 수정 - 실패(매장 X)")
-        void updateShopStarFailShopNotFound(){
-            //given
-            given(shopRepository.findById(anyLong()))
-                    .willReturn(Optional.empty());
-            //when
-            ShopException exception = assertThrows(ShopException.class,
-                    () -> shopService.updateShopStar(999L, 3, 5));
-            //then
-            assertEquals(SHOP_NOT_FOUND, exception.getShopErrorType());
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.jhsfully.reservation.unit.util;
+
+import com.jhsfully.reservation.util.DistanceUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DistanceUtilTest {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    //중심점에서 bearing(도) 방향으로 meters만큼 떨어진 점 {위도, 경도}
+    private static double[] destination(double latitude, double longitude, double bearing, double meters){
+        double lat1 = Math.toRadians(latitude);
+        double lon1 = Math.toRadians(longitude);
+        double angle = meters / EARTH_RADIUS_METERS;
+        double theta = Math.toRadians(bearing);
+
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angle) + Math.cos(lat1) * Math.sin(angle) * Math.cos(theta));
+        double lon2 = lon1 + Math.atan2(Math.sin(theta) * Math.sin(angle) * Math.cos(lat1),
+                Math.cos(angle) - Math.sin(lat1) * Math.sin(lat2));
+        return new double[]{Math.toDegrees(lat2), Math.toDegrees(lon2)};
+    }
+
+    @Test
+    @DisplayName("[UTIL]위경도 범위 - 적도에서는 위도와 경도의 폭이 같음")
+    void boundingBoxEquator(){
+        //when
+        DistanceUtil.BoundingBox box = DistanceUtil.boundingBox(0, 0, 1000);
+        //then
+        double expected = Math.toDegrees(1000 / EARTH_RADIUS_METERS); //약 0.009도
+        assertEquals(expected, box.getMaxLatitude(), 1e-9);
+        assertEquals(-expected, box.getMinLatitude(), 1e-9);
+        assertEquals(expected, box.getMaxLongitude(), 1e-6);
+        assertEquals(-expected, box.getMinLongitude(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("[UTIL]위경도 범위 - 위도가 높을수록 경도의 폭이 넓어짐")
+    void boundingBoxHighLatitude(){
+        //when
+        DistanceUtil.BoundingBox equator = DistanceUtil.boundingBox(0, 0, 1000);
+        DistanceUtil.BoundingBox north = DistanceUtil.boundingBox(60, 0, 1000);
+        //then
+        double equatorWidth = equator.getMaxLongitude() - equator.getMinLongitude();
+        double northWidth = north.getMaxLongitude() - north.getMinLongitude();
+        //cos(60도) = 0.5 이므로 약 2배, 범위의 가장 높은 위도 기준이므로 조금 더 넓음.
+        assertTrue(northWidth >= equatorWidth * 2);
+        assertTrue(northWidth < equatorWidth * 2.01);
+        assertEquals(equator.getMaxLatitude() - equator.getMinLatitude(),
+                north.getMaxLatitude() - north.getMinLatitude(), 1e-9);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 37.5665, -33.8688, 60, 80})
+    @DisplayName("[UTIL]위경도 범위 - 반경 위의 모든 점을 포함함")
+    void boundingBoxContainsCircle(double latitude){
+        //given
+        double longitude = 126.9780;
+        double radiusMeters = 5000;
+        DistanceUtil.BoundingBox box = DistanceUtil.boundingBox(latitude, longitude, radiusMeters);
+        //when & then
+        for(int bearing = 0; bearing < 360; bearing += 5){
+            double[] point = destination(latitude, longitude, bearing, radiusMeters * 0.9999);
+            assertTrue(box.contains(point[0], point[1]), "bearing : " + bearing);
+            assertTrue(DistanceUtil.haversine(latitude, longitude, point[0], point[1]) * 1000 <= radiusMeters);
+        }
+        double[] outside = destination(latitude, longitude, 0, radiusMeters * 1.01);
+        assertFalse(box.contains(outside[0], outside[1]));
+    }
+
+    @Test
+    @DisplayName("[UTIL]위경도 범위 - 극점을 넘으면 경도를 제한하지 않음")
+    void boundingBoxPole(){
+        //when
+        DistanceUtil.BoundingBox north = DistanceUtil.boundingBox(89.99, 10, 5000);
+        DistanceUtil.BoundingBox south = DistanceUtil.boundingBox(-89.99, 10, 5000);
+        //then
+        assertEquals(90, north.getMaxLatitude());
+        assertEquals(-180, north.getMinLongitude());
+        assertEquals(180, north.getMaxLongitude());
+        assertEquals(-90, south.getMinLatitude());
+        assertEquals(-180, south.getMinLongitude());
+        assertEquals(180, south.getMaxLongitude());
+        //극점 반대편 경도의 점도 포함함.
+        assertTrue(north.contains(89.995, -170));
+    }
+
+    @Test
+    @DisplayName("[UTIL]위경도 범위 - 날짜변경선(경도 ±180)을 넘으면 경도를 제한하지 않음")
+    void boundingBoxAntimeridian(){
+        //when
+        DistanceUtil.BoundingBox east = DistanceUtil.boundingBox(10, 179.999, 1000);
+        DistanceUtil.BoundingBox west = DistanceUtil.boundingBox(10, -179.999, 1000);
+        //then
+        assertEquals(-180, east.getMinLongitude());
+        assertEquals(180, east.getMaxLongitude());
+        assertTrue(east.getMaxLatitude() < 10.01); //위도는 그대로 제한함.
+        assertTrue(east.contains(10, -179.999)); //날짜변경선 건너편의 점
+        assertEquals(-180, west.getMinLongitude());
+        assertEquals(180, west.getMaxLongitude());
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, -1, -1000, Double.NaN})
+    @DisplayName("[UTIL]위경도 범위 - 0 이하의 반경은 거절")
+    void boundingBoxNotPositiveRadius(double radiusMeters){
+        assertThrows(IllegalArgumentException.class,
+                () -> DistanceUtil.boundingBox(37.5665, 126.9780, radiusMeters));
+    }
+}
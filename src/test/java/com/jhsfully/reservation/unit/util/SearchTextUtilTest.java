@@ -0,0 +1,26 @@
+package com.jhsfully.reservation.unit.util;
+
+import com.jhsfully.reservation.util.SearchTextUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SearchTextUtilTest {
+
+    @Test
+    @DisplayName("[UTIL]검색어 변환 - 대소문자와 악센트를 제거하고, 한글은 그대로 유지함")
+    void normalize(){
+        assertEquals("cafe latte", SearchTextUtil.normalize("Café LATTE"));
+        assertEquals("각가나", SearchTextUtil.normalize("각가나"));
+        assertEquals("", SearchTextUtil.normalize(null));
+    }
+
+    @Test
+    @DisplayName("[UTIL]LIKE 패턴 - 와일드카드와 escape 문자를 escape함")
+    void likePrefix(){
+        assertEquals("50!%%", SearchTextUtil.likePrefix("50%"));
+        assertEquals("a!_b!!%", SearchTextUtil.likePrefix("a_b!"));
+        assertEquals("%", SearchTextUtil.likePrefix(null));
+    }
+}